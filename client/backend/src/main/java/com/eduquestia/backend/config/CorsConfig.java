@@ -36,7 +36,8 @@ public class CorsConfig {
             "Authorization",
             "X-Profesor-Id",
             "X-Estudiante-Id",
-            "X-Requested-With"
+            "X-Requested-With",
+            "Idempotency-Key"
         ));
         
         // Métodos HTTP permitidos
@@ -0,0 +1,32 @@
+package com.eduquestia.backend.config;
+
+import com.eduquestia.backend.service.PuntajeService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Comando de reconstrucción de puntajes_estudiante.
+ * Se ejecuta al iniciar solo si se pasa la propiedad:
+ *   java -jar backend.jar --gamificacion.puntajes.reconstruir=true
+ */
+@Component
+@ConditionalOnProperty(name = "gamificacion.puntajes.reconstruir", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ReconstruccionPuntajesRunner implements ApplicationRunner {
+
+    private final PuntajeService puntajeService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            puntajeService.reconstruir();
+        } catch (Exception e) {
+            log.error("No se pudieron reconstruir los puntajes: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.eduquestia.backend.dto.LoginRequestDTO;
 import com.eduquestia.backend.dto.LoginResponseDTO;
 import com.eduquestia.backend.dto.response.ApiResponse;
 import com.eduquestia.backend.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,11 +22,13 @@ public class AuthController {
 
     @PostMapping("/login")
     public ResponseEntity<ApiResponse<LoginResponseDTO>> login(
-            @Valid @RequestBody LoginRequestDTO loginRequest) {
+            @Valid @RequestBody LoginRequestDTO loginRequest,
+            HttpServletRequest request) {
         
         log.info("POST /auth/login - Email: {}", loginRequest.getEmail());
         
-        LoginResponseDTO response = authService.login(loginRequest);
+        // IP del cliente según Tomcat (con proxy, configurar server.forward-headers-strategy)
+        LoginResponseDTO response = authService.login(loginRequest, request.getRemoteAddr());
         
         return ResponseEntity.ok(ApiResponse.success(response, "Login exitoso"));
     }
@@ -4,13 +4,20 @@ import com.eduquestia.backend.entity.Curso;
 import com.eduquestia.backend.entity.Inscripcion;
 import com.eduquestia.backend.repository.CursoRepository;
 import com.eduquestia.backend.repository.InscripcionRepository;
+import com.eduquestia.backend.util.Cursor;
+import com.eduquestia.backend.util.ETags;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.OffsetDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -26,6 +33,9 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class CursoController {
 
+    private static final int LIMITE_PAGINA_POR_DEFECTO = 20;
+    private static final int LIMITE_PAGINA_MAXIMO = 100;
+
     private final CursoRepository cursoRepository;
     private final InscripcionRepository inscripcionRepository;
 
@@ -33,60 +43,100 @@ public class CursoController {
      * Lista los cursos de un estudiante basado en sus inscripciones
      */
     @GetMapping("/por-estudiante/{estudianteId}")
-    public ResponseEntity<List<Curso>> listarCursosPorEstudiante(@PathVariable UUID estudianteId) {
+    public ResponseEntity<List<Curso>> listarCursosPorEstudiante(@PathVariable UUID estudianteId, WebRequest request) {
+        String etag = ETags.de(estudianteId, inscripcionRepository.findVersionCursosPorEstudiante(estudianteId));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
         List<Inscripcion> inscripciones = inscripcionRepository.findByEstudianteId(estudianteId);
         List<Curso> cursos = inscripciones.stream()
                 .map(Inscripcion::getCurso)
                 .filter(Curso::getActivo)
                 .collect(Collectors.toList());
         
-        return ResponseEntity.ok(cursos);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(cursos);
     }
 
     /**
      * Lista todos los cursos activos
      * Por ahora devuelve todos los cursos sin filtrar por profesor
      * hasta que se implemente la relación profesor-curso
+     * Query params opcionales: limit (tamaño de página) y after (cursor de la página anterior)
      */
     @GetMapping("/profesor/{profesorId}")
-    public ResponseEntity<Map<String, Object>> listarCursosPorProfesor(@PathVariable String profesorId) {
-        List<Curso> cursos = cursoRepository.findByActivoTrue();
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("data", cursos);
-        response.put("message", "Cursos obtenidos exitosamente");
-        
-        return ResponseEntity.ok(response);
+    public ResponseEntity<Map<String, Object>> listarCursosPorProfesor(
+            @PathVariable String profesorId,
+            @RequestParam(name = "limit", required = false) Integer limite,
+            @RequestParam(name = "after", required = false) String despues,
+            WebRequest request) {
+        return listarCursosActivos(limite, despues, request);
     }
 
     /**
      * Lista todos los cursos activos
+     * Query params opcionales: limit (tamaño de página) y after (cursor de la página anterior)
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> listarCursos() {
-        List<Curso> cursos = cursoRepository.findByActivoTrue();
-        
+    public ResponseEntity<Map<String, Object>> listarCursos(
+            @RequestParam(name = "limit", required = false) Integer limite,
+            @RequestParam(name = "after", required = false) String despues,
+            WebRequest request) {
+        return listarCursosActivos(limite, despues, request);
+    }
+
+    /**
+     * Cursos activos ordenados por código (único); paginados por clave si llega limit o after
+     */
+    private ResponseEntity<Map<String, Object>> listarCursosActivos(Integer limite, String despues, WebRequest request) {
+        boolean paginado = limite != null || despues != null;
+        if (request.checkNotModified(ETags.de(cursoRepository.findVersionListado(), limite, despues))) {
+            return null;
+        }
+
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("data", cursos);
         response.put("message", "Cursos obtenidos exitosamente");
-        
-        return ResponseEntity.ok(response);
+
+        if (!paginado) {
+            response.put("data", cursoRepository.findByActivoTrue());
+        } else {
+            int tamano = limite == null
+                    ? LIMITE_PAGINA_POR_DEFECTO
+                    : Math.max(1, Math.min(limite, LIMITE_PAGINA_MAXIMO));
+            List<Curso> cursos = despues == null
+                    ? cursoRepository.findByActivoTrueOrderByCodigoCursoAsc(Limit.of(tamano + 1))
+                    : cursoRepository.findByActivoTrueAndCodigoCursoGreaterThanOrderByCodigoCursoAsc(
+                            Cursor.decodificar(despues, 1)[0], Limit.of(tamano + 1));
+
+            boolean hayMas = cursos.size() > tamano;
+            if (hayMas) {
+                cursos = cursos.subList(0, tamano);
+                response.put("siguienteCursor", Cursor.codificar(cursos.get(tamano - 1).getCodigoCurso()));
+            }
+            response.put("data", cursos);
+        }
+
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(response);
     }
 
     /**
      * Obtiene un curso por su ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> obtenerCursoPorId(@PathVariable UUID id) {
+    public ResponseEntity<Map<String, Object>> obtenerCursoPorId(@PathVariable UUID id, WebRequest request) {
+        Optional<OffsetDateTime> version = cursoRepository.findVersionById(id);
+        if (version.isPresent() && request.checkNotModified(ETags.de(id, version.get()))) {
+            return null;
+        }
+
         return cursoRepository.findById(id)
             .map(curso -> {
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", true);
                 response.put("data", curso);
                 response.put("message", "Curso encontrado");
-                return ResponseEntity.ok(response);
+                return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(response);
             })
             .orElseGet(() -> {
                 Map<String, Object> response = new HashMap<>();
@@ -2,13 +2,20 @@ package com.eduquestia.backend.controller;
 
 import com.eduquestia.backend.dto.response.ApiResponse;
 import com.eduquestia.backend.dto.response.PerfilGamificadoResponse;
+import com.eduquestia.backend.dto.response.RankingPeriodoResponse;
 import com.eduquestia.backend.dto.response.RankingResponse;
+import com.eduquestia.backend.dto.response.RankingVecindadResponse;
 import com.eduquestia.backend.service.GamificacionService;
+import com.eduquestia.backend.util.ETags;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.UUID;
 
 @RestController
@@ -23,51 +30,133 @@ public class GamificacionController {
     /**
      * Obtener perfil gamificado del estudiante
      * GET /api/v1/gamificacion/estudiante/{estudianteId}/perfil
+     * Responde 304 si el If-None-Match coincide con la versión actual del perfil
      */
     @GetMapping("/estudiante/{estudianteId}/perfil")
     public ResponseEntity<ApiResponse<PerfilGamificadoResponse>> obtenerPerfilGamificado(
-            @PathVariable UUID estudianteId) {
+            @PathVariable UUID estudianteId,
+            WebRequest request) {
         
         log.info("GET /gamificacion/estudiante/{}/perfil - Obtener perfil gamificado", estudianteId);
+
+        String version = gamificacionService.obtenerVersionPerfil(estudianteId);
+        if (request.checkNotModified(ETags.de(estudianteId, version))) {
+            return null;
+        }
         
-        PerfilGamificadoResponse perfil = gamificacionService.obtenerPerfilGamificado(estudianteId);
+        PerfilGamificadoResponse perfil = gamificacionService.obtenerPerfilGamificado(estudianteId, version);
         
-        return ResponseEntity.ok(
-                ApiResponse.success(perfil, "Perfil gamificado obtenido exitosamente")
-        );
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(ApiResponse.success(perfil, "Perfil gamificado obtenido exitosamente"));
     }
 
     /**
      * Obtener ranking por curso
      * GET /api/v1/gamificacion/ranking/curso/{cursoId}
+     * Query params opcionales: limit (top K) y after (cursor de la página anterior)
      */
     @GetMapping("/ranking/curso/{cursoId}")
     public ResponseEntity<ApiResponse<RankingResponse>> obtenerRankingPorCurso(
-            @PathVariable UUID cursoId) {
+            @PathVariable UUID cursoId,
+            @RequestParam(name = "limit", required = false) Integer limite,
+            @RequestParam(name = "after", required = false) String despues) {
         
         log.info("GET /gamificacion/ranking/curso/{} - Obtener ranking", cursoId);
         
-        RankingResponse ranking = gamificacionService.obtenerRankingPorCurso(cursoId);
+        RankingResponse ranking = (limite == null && despues == null)
+                ? gamificacionService.obtenerRankingPorCurso(cursoId)
+                : gamificacionService.obtenerRankingPorCurso(cursoId, limite, despues);
         
         return ResponseEntity.ok(
                 ApiResponse.success(ranking, "Ranking obtenido exitosamente")
         );
     }
 
+    /**
+     * Obtener la posición del estudiante en el curso y sus vecinos de ranking
+     * GET /api/v1/gamificacion/ranking/curso/{cursoId}/estudiante/{estudianteId}?radius=5
+     */
+    @GetMapping("/ranking/curso/{cursoId}/estudiante/{estudianteId}")
+    public ResponseEntity<ApiResponse<RankingVecindadResponse>> obtenerRankingAlrededorDeEstudiante(
+            @PathVariable UUID cursoId,
+            @PathVariable UUID estudianteId,
+            @RequestParam(name = "radius", required = false) Integer radio) {
+
+        log.info("GET /gamificacion/ranking/curso/{}/estudiante/{} - Obtener ranking alrededor del estudiante",
+                cursoId, estudianteId);
+
+        RankingVecindadResponse ranking = gamificacionService
+                .obtenerRankingAlrededorDeEstudiante(cursoId, estudianteId, radio);
+
+        return ResponseEntity.ok(
+                ApiResponse.success(ranking, "Ranking obtenido exitosamente")
+        );
+    }
+
     /**
      * Obtener ranking global
      * GET /api/v1/gamificacion/ranking/global
+     * Query params opcionales: limit (top K) y after (cursor de la página anterior)
      */
     @GetMapping("/ranking/global")
-    public ResponseEntity<ApiResponse<RankingResponse>> obtenerRankingGlobal() {
+    public ResponseEntity<ApiResponse<RankingResponse>> obtenerRankingGlobal(
+            @RequestParam(name = "limit", required = false) Integer limite,
+            @RequestParam(name = "after", required = false) String despues) {
         
         log.info("GET /gamificacion/ranking/global - Obtener ranking global");
         
-        RankingResponse ranking = gamificacionService.obtenerRankingGlobal();
+        RankingResponse ranking = (limite == null && despues == null)
+                ? gamificacionService.obtenerRankingGlobal()
+                : gamificacionService.obtenerRankingGlobal(limite, despues);
         
         return ResponseEntity.ok(
                 ApiResponse.success(ranking, "Ranking global obtenido exitosamente")
         );
     }
-}
 
+    /**
+     * Obtener ranking de un curso por puntos ganados en un periodo
+     * GET /api/v1/gamificacion/ranking/curso/{cursoId}/periodo?periodo=semana|mes
+     * GET /api/v1/gamificacion/ranking/curso/{cursoId}/periodo?desde=2025-03-01&hasta=2025-03-15
+     */
+    @GetMapping("/ranking/curso/{cursoId}/periodo")
+    public ResponseEntity<ApiResponse<RankingPeriodoResponse>> obtenerRankingPorPeriodo(
+            @PathVariable UUID cursoId,
+            @RequestParam(required = false) String periodo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(name = "limit", required = false) Integer limite) {
+
+        log.info("GET /gamificacion/ranking/curso/{}/periodo - Obtener ranking por periodo", cursoId);
+
+        RankingPeriodoResponse ranking = gamificacionService
+                .obtenerRankingPorPeriodo(cursoId, periodo, desde, hasta, limite);
+
+        return ResponseEntity.ok(
+                ApiResponse.success(ranking, "Ranking obtenido exitosamente")
+        );
+    }
+
+    /**
+     * Obtener ranking global por puntos ganados en un periodo
+     * GET /api/v1/gamificacion/ranking/global/periodo?periodo=semana|mes
+     * GET /api/v1/gamificacion/ranking/global/periodo?desde=2025-03-01&hasta=2025-03-15
+     */
+    @GetMapping("/ranking/global/periodo")
+    public ResponseEntity<ApiResponse<RankingPeriodoResponse>> obtenerRankingGlobalPorPeriodo(
+            @RequestParam(required = false) String periodo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(name = "limit", required = false) Integer limite) {
+
+        log.info("GET /gamificacion/ranking/global/periodo - Obtener ranking global por periodo");
+
+        RankingPeriodoResponse ranking = gamificacionService
+                .obtenerRankingPorPeriodo(null, periodo, desde, hasta, limite);
+
+        return ResponseEntity.ok(
+                ApiResponse.success(ranking, "Ranking global obtenido exitosamente")
+        );
+    }
+}
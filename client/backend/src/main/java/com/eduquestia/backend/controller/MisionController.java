@@ -3,20 +3,30 @@ package com.eduquestia.backend.controller;
 import com.eduquestia.backend.dto.request.CompletarMisionRequest;
 import com.eduquestia.backend.dto.request.MisionCreateRequest;
 import com.eduquestia.backend.dto.request.MisionUpdateRequest;
+import com.eduquestia.backend.dto.response.AgendaMisionResponse;
 import com.eduquestia.backend.dto.response.ApiResponse;
+import com.eduquestia.backend.dto.response.AsignacionMisionResponse;
+import com.eduquestia.backend.dto.response.EstudianteProgresoResponse;
 import com.eduquestia.backend.dto.response.MisionEstudianteResponse;
 import com.eduquestia.backend.dto.response.MisionListResponse;
 import com.eduquestia.backend.dto.response.MisionProgresoResponse;
 import com.eduquestia.backend.dto.response.MisionResponse;
 import com.eduquestia.backend.entity.enums.CategoriaMision;
+import com.eduquestia.backend.entity.enums.DificultadMision;
 import com.eduquestia.backend.service.MisionService;
+import com.eduquestia.backend.service.idempotencia.CompletarMisionIdempotente;
+import com.eduquestia.backend.util.ETags;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -28,6 +38,7 @@ import java.util.UUID;
 public class MisionController {
 
     private final MisionService misionService;
+    private final CompletarMisionIdempotente completarMisionIdempotente;
 
     /**
      * Crear una nueva misión
@@ -50,13 +61,22 @@ public class MisionController {
     /**
      * Listar todas las misiones del profesor
      * GET /api/v1/missions/profesor/{profesorId}
+     * Query params opcionales: limit (tamaño de página) y after (cursor de la página anterior)
      */
     @GetMapping("/profesor/{profesorId}")
     public ResponseEntity<ApiResponse<List<MisionListResponse>>> listarMisionesPorProfesor(
-            @PathVariable UUID profesorId) {
+            @PathVariable UUID profesorId,
+            @RequestParam(name = "limit", required = false) Integer limite,
+            @RequestParam(name = "after", required = false) String despues) {
 
         log.info("GET /misiones/profesor/{} - Listar misiones", profesorId);
 
+        if (limite != null || despues != null) {
+            return ResponseEntity.ok(ApiResponse.pagina(
+                    misionService.listarMisionesPorProfesor(profesorId, limite, despues),
+                    "Misiones obtenidas exitosamente"));
+        }
+
         List<MisionListResponse> response = misionService.listarMisionesPorProfesor(profesorId);
 
         return ResponseEntity.ok(
@@ -64,23 +84,97 @@ public class MisionController {
         );
     }
 
+    /**
+     * Buscar misiones del profesor por texto (título, descripción y contenidos), ordenadas por relevancia
+     * GET /api/v1/misiones/profesor/{profesorId}/buscar?q=fracciones&cursoId=...&categoria=QUIZ&dificultad=MEDIO
+     * Cada palabra se busca como prefijo. Query params opcionales: cursoId, categoria, dificultad,
+     * limit (tamaño de página) y after (cursor de la página anterior)
+     */
+    @GetMapping("/profesor/{profesorId}/buscar")
+    public ResponseEntity<ApiResponse<List<MisionListResponse>>> buscarMisiones(
+            @PathVariable UUID profesorId,
+            @RequestParam("q") String texto,
+            @RequestParam(required = false) UUID cursoId,
+            @RequestParam(required = false) CategoriaMision categoria,
+            @RequestParam(required = false) DificultadMision dificultad,
+            @RequestParam(name = "limit", required = false) Integer limite,
+            @RequestParam(name = "after", required = false) String despues) {
+
+        log.info("GET /misiones/profesor/{}/buscar - Buscar misiones: {}", profesorId, texto);
+
+        return ResponseEntity.ok(ApiResponse.pagina(
+                misionService.buscarMisiones(profesorId, texto, cursoId, categoria, dificultad, limite, despues),
+                "Misiones obtenidas exitosamente"));
+    }
+
     /**
      * Listar misiones asignadas al estudiante
-     * GET /api/v1/misiones/estudiante/{estudianteId}
+     * GET /api/v1/misiones/estudiante/{estudianteId}?estado=activas|completadas&venceDesde=2025-01-01&venceHasta=2025-01-31
+     * Query params opcionales: limit (tamaño de página) y after (cursor de la página anterior)
      */
     @GetMapping("/estudiante/{estudianteId}")
     public ResponseEntity<ApiResponse<List<MisionEstudianteResponse>>> listarMisionesPorEstudiante(
-            @PathVariable UUID estudianteId) {
+            @PathVariable UUID estudianteId,
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate venceDesde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate venceHasta,
+            @RequestParam(name = "limit", required = false) Integer limite,
+            @RequestParam(name = "after", required = false) String despues) {
 
         log.info("GET /misiones/estudiante/{} - Listar misiones del estudiante", estudianteId);
 
-        List<MisionEstudianteResponse> response = misionService.listarMisionesPorEstudiante(estudianteId);
+        if (limite != null || despues != null) {
+            return ResponseEntity.ok(ApiResponse.pagina(
+                    misionService.listarMisionesPorEstudiante(estudianteId, estado, venceDesde, venceHasta,
+                            limite, despues),
+                    "Misiones obtenidas exitosamente"));
+        }
+
+        List<MisionEstudianteResponse> response =
+                misionService.listarMisionesPorEstudiante(estudianteId, estado, venceDesde, venceHasta);
 
         return ResponseEntity.ok(
                 ApiResponse.success(response, "Misiones obtenidas exitosamente")
         );
     }
 
+    /**
+     * Obtener la agenda de fechas límite del estudiante en todos sus cursos (calendario)
+     * GET /api/v1/misiones/estudiante/{estudianteId}/agenda?desde=2025-01-01&hasta=2025-01-31
+     */
+    @GetMapping("/estudiante/{estudianteId}/agenda")
+    public ResponseEntity<ApiResponse<List<AgendaMisionResponse>>> obtenerAgendaEstudiante(
+            @PathVariable UUID estudianteId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+
+        log.info("GET /misiones/estudiante/{}/agenda - Obtener agenda ({} a {})", estudianteId, desde, hasta);
+
+        List<AgendaMisionResponse> response = misionService.listarAgendaEstudiante(estudianteId, desde, hasta);
+
+        return ResponseEntity.ok(
+                ApiResponse.success(response, "Agenda obtenida exitosamente")
+        );
+    }
+
+    /**
+     * Listar misiones desbloqueadas del estudiante (activas, sin completar y con todos sus requisitos completados)
+     * GET /api/v1/misiones/estudiante/{estudianteId}/desbloqueadas
+     * Los requisitos inactivos o que el estudiante no tiene asignados se consideran completados
+     */
+    @GetMapping("/estudiante/{estudianteId}/desbloqueadas")
+    public ResponseEntity<ApiResponse<List<MisionEstudianteResponse>>> listarMisionesDesbloqueadas(
+            @PathVariable UUID estudianteId) {
+
+        log.info("GET /misiones/estudiante/{}/desbloqueadas - Listar misiones desbloqueadas", estudianteId);
+
+        List<MisionEstudianteResponse> response = misionService.listarMisionesDesbloqueadas(estudianteId);
+
+        return ResponseEntity.ok(
+                ApiResponse.success(response, "Misiones desbloqueadas obtenidas exitosamente")
+        );
+    }
+
     /**
      * Obtener puntos totales del estudiante
      * GET /api/v1/misiones/estudiante/{estudianteId}/puntos
@@ -101,32 +195,47 @@ public class MisionController {
     /**
      * Obtener detalle de una misión
      * GET /api/v1/missions/{id}
+     * Responde 304 si el If-None-Match coincide con la versión actual de la misión
      */
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<MisionResponse>> obtenerMision(
-            @PathVariable UUID id) {
+            @PathVariable UUID id,
+            WebRequest request) {
 
         log.info("GET /misiones/{} - Obtener misión", id);
 
+        String etag = ETags.de(id, misionService.obtenerVersionMision(id));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
         MisionResponse response = misionService.obtenerMisionPorId(id);
 
-        return ResponseEntity.ok(
-                ApiResponse.success(response, "Misión obtenida exitosamente")
-        );
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(ApiResponse.success(response, "Misión obtenida exitosamente"));
     }
 
     /**
      * Listar misiones de un curso
      * GET /api/v1/missions/curso/{cursoId}
-     * Query param opcional: categoria
+     * Query params opcionales: categoria, limit (tamaño de página) y after (cursor de la página anterior)
      */
     @GetMapping("/curso/{cursoId}")
     public ResponseEntity<ApiResponse<List<MisionListResponse>>> listarMisionesPorCurso(
             @PathVariable UUID cursoId,
-            @RequestParam(required = false) CategoriaMision categoria) {
+            @RequestParam(required = false) CategoriaMision categoria,
+            @RequestParam(name = "limit", required = false) Integer limite,
+            @RequestParam(name = "after", required = false) String despues) {
 
         log.info("GET /misiones/curso/{} - Listar misiones", cursoId);
 
+        if (limite != null || despues != null) {
+            return ResponseEntity.ok(ApiResponse.pagina(
+                    misionService.listarMisionesPorCurso(cursoId, categoria, limite, despues),
+                    "Misiones obtenidas exitosamente"));
+        }
+
         List<MisionListResponse> response;
 
         if (categoria != null) {
@@ -195,22 +304,46 @@ public class MisionController {
         );
     }
 
+    /**
+     * Listar el progreso de cada estudiante en una misión, paginado
+     * GET /api/v1/missions/{id}/progreso/estudiantes?estado=completada|en_progreso|no_iniciada&orden=estado|porcentaje|actividad
+     * Query params opcionales: estado, orden (por defecto estado), limit (tamaño de página) y after (cursor de la página anterior)
+     */
+    @GetMapping("/{id}/progreso/estudiantes")
+    public ResponseEntity<ApiResponse<List<EstudianteProgresoResponse>>> listarProgresoEstudiantes(
+            @PathVariable UUID id,
+            @RequestHeader("X-Profesor-Id") UUID profesorId,
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) String orden,
+            @RequestParam(name = "limit", required = false) Integer limite,
+            @RequestParam(name = "after", required = false) String despues) {
+
+        log.info("GET /misiones/{}/progreso/estudiantes - Listar progreso de estudiantes", id);
+
+        return ResponseEntity.ok(ApiResponse.pagina(
+                misionService.listarProgresoEstudiantes(id, profesorId, estado, orden, limite, despues),
+                "Progreso obtenido exitosamente"));
+    }
+
     /**
      * Asignar misión a estudiantes específicos
      * POST /api/v1/missions/{id}/asignar
      */
     @PostMapping("/{id}/asignar")
-    public ResponseEntity<ApiResponse<Void>> asignarMisionAEstudiantes(
+    public ResponseEntity<ApiResponse<AsignacionMisionResponse>> asignarMisionAEstudiantes(
             @PathVariable UUID id,
             @RequestBody List<UUID> estudiantesIds,
             @RequestHeader("X-Profesor-Id") UUID profesorId) {
 
         log.info("POST /misiones/{}/asignar - Asignar a {} estudiantes", id, estudiantesIds.size());
 
-        misionService.asignarMisionAEstudiantes(id, estudiantesIds, profesorId);
+        AsignacionMisionResponse response = misionService.asignarMisionAEstudiantes(id, estudiantesIds, profesorId);
 
         return ResponseEntity.ok(
-                ApiResponse.success(null, "Misión asignada exitosamente")
+                ApiResponse.success(response, String.format(
+                        "Misión asignada a %d estudiantes (%d ya la tenían, %d no encontrados)",
+                        response.getAsignados().size(), response.getOmitidos().size(),
+                        response.getDesconocidos().size()))
         );
     }
 
@@ -219,16 +352,19 @@ public class MisionController {
     /**
      * Completar una misión
      * POST /api/v1/misiones/{id}/completar
+     * Con la cabecera Idempotency-Key, los reintentos con la misma clave devuelven la respuesta original
      */
     @PostMapping("/{id}/completar")
     public ResponseEntity<ApiResponse<MisionEstudianteResponse>> completarMision(
             @PathVariable UUID id,
             @Valid @RequestBody CompletarMisionRequest request,
-            @RequestHeader("X-Estudiante-Id") UUID estudianteId) {
+            @RequestHeader("X-Estudiante-Id") UUID estudianteId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia) {
 
         log.info("POST /misiones/{}/completar - Completar misión por estudiante {}", id, estudianteId);
 
-        MisionEstudianteResponse response = misionService.completarMision(id, request, estudianteId);
+        MisionEstudianteResponse response = completarMisionIdempotente.completarMision(
+                id, request, estudianteId, claveIdempotencia);
 
         return ResponseEntity.ok(
                 ApiResponse.success(response, "Misión completada exitosamente. ¡Has ganado " + response.getPuntosObtenidos() + " puntos!")
@@ -54,6 +54,9 @@ public class MisionCreateRequest {
 
     private String requisitosPrevios;
 
+    // Misiones del mismo curso que el estudiante debe completar antes
+    private List<UUID> requisitosIds = new ArrayList<>();
+
     @Valid
     private List<ContenidoRequest> contenidos = new ArrayList<>();
 
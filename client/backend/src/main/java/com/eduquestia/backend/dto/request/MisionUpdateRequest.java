@@ -10,6 +10,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
 
 @Data
 @NoArgsConstructor
@@ -40,4 +42,7 @@ public class MisionUpdateRequest {
     private Boolean activo;
 
     private String requisitosPrevios;
+
+    // null = sin cambios; lista vacía = sin requisitos
+    private List<UUID> requisitosIds;
 }
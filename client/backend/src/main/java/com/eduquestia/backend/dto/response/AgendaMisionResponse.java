@@ -0,0 +1,28 @@
+package com.eduquestia.backend.dto.response;
+
+import com.eduquestia.backend.entity.enums.CategoriaMision;
+import com.eduquestia.backend.entity.enums.DificultadMision;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgendaMisionResponse {
+    private UUID id;
+    private String titulo;
+    private CategoriaMision categoria;
+    private DificultadMision dificultad;
+    private Integer puntosRecompensa;
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaLimite;
+    private UUID cursoId;
+    private String cursoNombre;
+    private Boolean completada;
+}
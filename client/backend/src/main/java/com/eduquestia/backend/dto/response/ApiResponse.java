@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -14,12 +15,18 @@ public class ApiResponse<T> {
     private String message;
     private T data;
     private LocalDateTime timestamp;
+    // Solo en listados paginados: cursor para pedir la página siguiente (null si no hay más)
+    private String siguienteCursor;
 
     public static <T> ApiResponse<T> success(T data, String message) {
-        return new ApiResponse<>(true, message, data, LocalDateTime.now());
+        return new ApiResponse<>(true, message, data, LocalDateTime.now(), null);
+    }
+
+    public static <T> ApiResponse<List<T>> pagina(PaginaResponse<T> pagina, String message) {
+        return new ApiResponse<>(true, message, pagina.getElementos(), LocalDateTime.now(), pagina.getSiguienteCursor());
     }
 
     public static <T> ApiResponse<T> error(String message) {
-        return new ApiResponse<>(false, message, null, LocalDateTime.now());
+        return new ApiResponse<>(false, message, null, LocalDateTime.now(), null);
     }
 }
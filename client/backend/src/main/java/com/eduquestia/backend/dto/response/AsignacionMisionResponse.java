@@ -0,0 +1,24 @@
+package com.eduquestia.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AsignacionMisionResponse {
+    private UUID misionId;
+    // Ids distintos recibidos en la petición
+    private Integer solicitados;
+    private List<UUID> asignados;
+    // Estudiantes que ya tenían la misión asignada
+    private List<UUID> omitidos;
+    // Ids que no corresponden a ningún usuario
+    private List<UUID> desconocidos;
+}
@@ -13,7 +13,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class MisionResponse {
@@ -33,6 +33,7 @@ public class MisionResponse {
     private LocalDateTime fechaLimite;
     private Boolean activo;
     private String requisitosPrevios;
+    private List<UUID> requisitosIds;
     private List<ContenidoResponse> contenidos;
     private List<CriterioResponse> criterios;
     private LocalDateTime fechaCreacion;
@@ -0,0 +1,16 @@
+package com.eduquestia.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaResponse<T> {
+    private List<T> elementos;
+    // Cursor para pedir la página siguiente (null si no hay más)
+    private String siguienteCursor;
+}
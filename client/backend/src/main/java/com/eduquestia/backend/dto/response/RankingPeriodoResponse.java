@@ -0,0 +1,25 @@
+package com.eduquestia.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankingPeriodoResponse {
+    private UUID cursoId;
+    private String cursoNombre;
+    // semana, mes o personalizado
+    private String periodo;
+    private LocalDate desde;
+    private LocalDate hasta;
+    // puntosTotales de cada estudiante son los puntos ganados dentro del periodo
+    private List<RankingEstudianteResponse> estudiantes;
+}
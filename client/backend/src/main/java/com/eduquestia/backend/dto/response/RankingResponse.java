@@ -17,5 +17,7 @@ public class RankingResponse {
     private String cursoNombre;
     private List<RankingEstudianteResponse> estudiantes;
     private Integer totalEstudiantes;
+    // Solo en consultas paginadas: cursor para pedir la página siguiente (null si no hay más)
+    private String siguienteCursor;
 }
 
@@ -0,0 +1,23 @@
+package com.eduquestia.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankingVecindadResponse {
+    private UUID cursoId;
+    private String cursoNombre;
+    private UUID estudianteId;
+    private Integer posicion;
+    private Integer totalEstudiantes;
+    // El estudiante y sus vecinos inmediatos por arriba y por abajo
+    private List<RankingEstudianteResponse> estudiantes;
+}
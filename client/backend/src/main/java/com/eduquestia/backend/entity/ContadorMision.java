@@ -0,0 +1,37 @@
+package com.eduquestia.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Contadores de estudiantes por misión (asignados y completados).
+ * Se mantienen de forma incremental en la misma transacción que cambia el
+ * estado de un ProgresoMision, para que el resumen del panel del profesor no
+ * tenga que contar progreso_mision en cada consulta. Un proceso periódico
+ * los reconcilia con progreso_mision.
+ */
+@Entity
+@Table(name = "contadores_mision", schema = "grupo_03")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContadorMision {
+
+    @Id
+    @Column(name = "mision_id", columnDefinition = "uuid")
+    private UUID misionId;
+
+    @Column(name = "estudiantes_asignados", nullable = false)
+    private Integer estudiantesAsignados = 0;
+
+    @Column(name = "estudiantes_completados", nullable = false)
+    private Integer estudiantesCompletados = 0;
+
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime fechaActualizacion;
+}
@@ -14,7 +14,8 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "entregas_mision", schema = "grupo_03",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"mision_id", "estudiante_id"}))
+        uniqueConstraints = @UniqueConstraint(columnNames = {"mision_id", "estudiante_id"}),
+        indexes = @Index(name = "idx_entregas_mision_estudiante", columnList = "estudiante_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -32,7 +33,7 @@ public class EntregaMision {
     @JoinColumn(name = "estudiante_id", nullable = false)
     private Usuario estudiante;
 
-    // ENUM: 'pendiente', 'enviada', 'revisando', 'calificada', 'rechazada'
+    // ENUM: 'pendiente', 'enviada', 'revisando', 'calificada', 'rechazada', 'vencida'
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     private EstadoEntrega estado = EstadoEntrega.PENDIENTE;
@@ -64,6 +65,10 @@ public class EntregaMision {
     @Column(nullable = false)
     private Integer intentos = 1;
 
+    // Idempotency-Key con la que el estudiante completó la misión, si la envió
+    @Column(name = "clave_idempotencia", length = 255)
+    private String claveIdempotencia;
+
     @CreationTimestamp
     @Column(name = "fecha_creacion", nullable = false, updatable = false)
     private LocalDateTime fechaCreacion;
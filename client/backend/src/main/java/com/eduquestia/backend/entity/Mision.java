@@ -16,7 +16,19 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "misiones", schema = "grupo_03")
+@Table(name = "misiones", schema = "grupo_03",
+        indexes = {
+                // Claves de orden de los listados paginados (fecha límite, id)
+                @Index(name = "idx_misiones_profesor_limite", columnList = "profesor_id, activo, fecha_limite, id"),
+                @Index(name = "idx_misiones_curso_limite", columnList = "curso_id, activo, fecha_limite, id"),
+                @Index(name = "idx_misiones_curso_categoria_limite", columnList = "curso_id, categoria, fecha_limite, id"),
+                // Ventana de fechas límite que carga el planificador de plazos
+                @Index(name = "idx_misiones_activo_limite", columnList = "activo, fecha_limite"),
+                // Orden topológico de los requisitos por curso
+                @Index(name = "idx_misiones_curso_orden_requisitos", columnList = "curso_id, orden_requisitos")
+        })
+// La columna busqueda (tsvector) y su índice GIN no se mapean: los crea migration_busqueda_misiones.sql
+// y se mantienen con MisionRepository.actualizarDocumentoBusqueda
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -82,7 +94,12 @@ public class Mision {
     @Column(name = "requisitos_previos", columnDefinition = "TEXT")
     private String requisitosPrevios;
 
+    // Posición en el orden topológico del curso: los requisitos siempre van antes que las misiones que los exigen
+    @Column(name = "orden_requisitos")
+    private Integer ordenRequisitos;
+
     @OneToMany(mappedBy = "mision", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("orden ASC")
     private List<ContenidoMision> contenidos = new ArrayList<>();
 
     @OneToMany(mappedBy = "mision", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -0,0 +1,47 @@
+package com.eduquestia.backend.entity;
+
+import com.eduquestia.backend.entity.enums.TipoMovimientoPuntos;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Libro de puntos: un movimiento por cada vez que un estudiante gana o pierde
+ * puntos en un curso. Solo se insertan filas, nunca se modifican; los rankings
+ * por periodo leen los acumulados de puntos_periodo, no esta tabla.
+ */
+@Entity
+@Table(name = "movimientos_puntos", schema = "grupo_03",
+        indexes = @Index(name = "idx_movimientos_puntos_estudiante_fecha", columnList = "estudiante_id, fecha"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovimientoPuntos {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @Column(name = "estudiante_id", nullable = false, columnDefinition = "uuid")
+    private UUID estudianteId;
+
+    @Column(name = "curso_id", nullable = false, columnDefinition = "uuid")
+    private UUID cursoId;
+
+    @Column(name = "mision_id", columnDefinition = "uuid")
+    private UUID misionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TipoMovimientoPuntos tipo;
+
+    @Column(nullable = false)
+    private Integer puntos;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime fecha;
+}
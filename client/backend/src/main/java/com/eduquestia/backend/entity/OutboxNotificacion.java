@@ -0,0 +1,75 @@
+package com.eduquestia.backend.entity;
+
+import com.eduquestia.backend.entity.enums.EstadoOutbox;
+import com.eduquestia.backend.entity.enums.TipoNotificacion;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Registro de salida (outbox) de notificaciones: una fila por envío, escrita en la
+ * misma transacción que lo origina. El despachador la expande después en una
+ * notificación por destinatario (todos los inscritos de {@code cursoId}, o la
+ * lista explícita {@code destinatarios}).
+ */
+@Entity
+@Table(name = "outbox_notificaciones", schema = "grupo_03",
+        indexes = @Index(name = "idx_outbox_notificaciones_pendientes", columnList = "estado, proximo_intento"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxNotificacion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TipoNotificacion tipo;
+
+    @Column(nullable = false, length = 150)
+    private String titulo;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String mensaje;
+
+    @Column(name = "referencia_id")
+    private UUID referenciaId;
+
+    // Destinatarios: todos los estudiantes inscritos en el curso...
+    @Column(name = "curso_id")
+    private UUID cursoId;
+
+    // ...o una lista explícita de usuarios
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(columnDefinition = "uuid[]")
+    private UUID[] destinatarios;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EstadoOutbox estado = EstadoOutbox.PENDIENTE;
+
+    @Column(nullable = false)
+    private Integer intentos = 0;
+
+    @Column(name = "proximo_intento", nullable = false)
+    private LocalDateTime proximoIntento;
+
+    @Column(name = "ultimo_error", columnDefinition = "TEXT")
+    private String ultimoError;
+
+    @CreationTimestamp
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_procesado")
+    private LocalDateTime fechaProcesado;
+}
@@ -12,7 +12,16 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "progreso_mision", schema = "grupo_03",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"mision_id", "estudiante_id"}))
+        uniqueConstraints = @UniqueConstraint(columnNames = {"mision_id", "estudiante_id"}),
+        indexes = {
+                @Index(name = "idx_progreso_mision_estudiante", columnList = "estudiante_id"),
+                // Claves de orden del progreso paginado de una misión
+                @Index(name = "idx_progreso_mision_estado", columnList = "mision_id, completada, porcentaje_completado, estudiante_id"),
+                @Index(name = "idx_progreso_mision_porcentaje", columnList = "mision_id, porcentaje_completado, estudiante_id"),
+                @Index(name = "idx_progreso_mision_actividad", columnList = "mision_id, ultima_actividad, estudiante_id"),
+                // Reconciliación periódica de gamificación
+                @Index(name = "idx_progreso_mision_fecha_completado", columnList = "fecha_completado")
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,40 @@
+package com.eduquestia.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Acumulado de puntos y misiones completadas por estudiante.
+ * Se mantiene de forma incremental en la misma transacción que completa
+ * o califica una entrega, para que los rankings no tengan que sumar
+ * entregas_mision en cada consulta.
+ */
+@Entity
+@Table(name = "puntajes_estudiante", schema = "grupo_03",
+        indexes = @Index(
+                name = "idx_puntajes_estudiante_ranking",
+                columnList = "puntos_totales DESC, misiones_completadas DESC, estudiante_id"
+        ))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PuntajeEstudiante {
+
+    @Id
+    @Column(name = "estudiante_id", columnDefinition = "uuid")
+    private UUID estudianteId;
+
+    @Column(name = "puntos_totales", nullable = false)
+    private Integer puntosTotales = 0;
+
+    @Column(name = "misiones_completadas", nullable = false)
+    private Integer misionesCompletadas = 0;
+
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime fechaActualizacion;
+}
@@ -0,0 +1,55 @@
+package com.eduquestia.backend.entity;
+
+import com.eduquestia.backend.entity.enums.GranularidadPeriodo;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Puntos ganados por un estudiante en un curso durante un periodo (un día o un mes).
+ * Se alimenta del libro de puntos (movimientos_puntos) en la misma transacción.
+ * Los días antiguos se consolidan en meses para que la tabla no crezca sin límite.
+ */
+@Entity
+@Table(name = "puntos_periodo", schema = "grupo_03",
+        indexes = {
+                @Index(name = "idx_puntos_periodo_curso_inicio", columnList = "curso_id, inicio"),
+                @Index(name = "idx_puntos_periodo_inicio", columnList = "inicio")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PuntosPeriodo {
+
+    @EmbeddedId
+    private Clave clave;
+
+    @Column(nullable = false)
+    private Integer puntos = 0;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Clave implements Serializable {
+
+        @Column(name = "estudiante_id", nullable = false, columnDefinition = "uuid")
+        private UUID estudianteId;
+
+        @Column(name = "curso_id", nullable = false, columnDefinition = "uuid")
+        private UUID cursoId;
+
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false, length = 10)
+        private GranularidadPeriodo granularidad;
+
+        // Primer día del periodo
+        @Column(nullable = false)
+        private LocalDate inicio;
+    }
+}
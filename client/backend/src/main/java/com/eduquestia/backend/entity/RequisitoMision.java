@@ -0,0 +1,35 @@
+package com.eduquestia.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Arista del grafo de requisitos: {@code mision} solo se desbloquea cuando el
+ * estudiante completó {@code requisito}. Ambas misiones son del mismo curso y las
+ * aristas de un curso forman siempre un grafo acíclico (se valida al guardar).
+ */
+@Entity
+@Table(name = "requisitos_mision", schema = "grupo_03",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"mision_id", "requisito_id"}),
+        indexes = @Index(name = "idx_requisitos_mision_requisito", columnList = "requisito_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequisitoMision {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "mision_id", nullable = false)
+    private Mision mision;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "requisito_id", nullable = false)
+    private Mision requisito;
+}
@@ -5,5 +5,7 @@ public enum EstadoEntrega {
     ENVIADA,
     REVISANDO,
     CALIFICADA,
-    RECHAZADA
+    RECHAZADA,
+    // Pendiente cuando venció la fecha límite de la misión
+    VENCIDA
 }
@@ -0,0 +1,7 @@
+package com.eduquestia.backend.entity.enums;
+
+public enum EstadoOutbox {
+    PENDIENTE,
+    PROCESADO,
+    FALLIDO
+}
@@ -0,0 +1,6 @@
+package com.eduquestia.backend.entity.enums;
+
+public enum TipoMovimientoPuntos {
+    MISION_COMPLETADA,
+    AJUSTE_CALIFICACION
+}
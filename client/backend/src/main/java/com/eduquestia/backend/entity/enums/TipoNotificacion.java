@@ -3,6 +3,7 @@ package com.eduquestia.backend.entity.enums;
 public enum TipoNotificacion {
     MISION_NUEVA,
     MISION_VENCIDA,
+    MISION_POR_VENCER,
     LOGRO_DESBLOQUEADO,
     NIVEL_SUBIDO,
     CALIFICACION,
@@ -0,0 +1,26 @@
+package com.eduquestia.backend.event;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Evento de dominio publicado cuando un estudiante completa una misión.
+ * Lleva los totales del estudiante ya acumulados en la misma transacción,
+ * de modo que los consumidores no necesitan volver a calcularlos.
+ */
+public record MisionCompletada(
+        UUID misionId,
+        UUID estudianteId,
+        int puntosOtorgados,
+        int puntosTotales,
+        int misionesCompletadas,
+        LocalDateTime fecha) {
+
+    public int puntosAnteriores() {
+        return puntosTotales - puntosOtorgados;
+    }
+
+    public int misionesCompletadasAnteriores() {
+        return misionesCompletadas - 1;
+    }
+}
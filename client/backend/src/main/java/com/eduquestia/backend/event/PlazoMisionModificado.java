@@ -0,0 +1,18 @@
+package com.eduquestia.backend.event;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Evento de dominio publicado al crear, actualizar o eliminar una misión.
+ * El planificador de plazos lo usa para reprogramar el vencimiento y los
+ * recordatorios de la misión, y la agenda para descartar las fechas límite
+ * del curso que tiene en memoria; fechaLimite es null si la misión ya no
+ * tiene plazos pendientes (eliminada o desactivada).
+ */
+public record PlazoMisionModificado(UUID misionId, UUID cursoId, LocalDateTime fechaLimite) {
+
+    public static PlazoMisionModificado sinPlazo(UUID misionId, UUID cursoId) {
+        return new PlazoMisionModificado(misionId, cursoId, null);
+    }
+}
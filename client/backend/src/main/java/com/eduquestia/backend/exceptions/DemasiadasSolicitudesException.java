@@ -0,0 +1,7 @@
+package com.eduquestia.backend.exceptions;
+
+public class DemasiadasSolicitudesException extends RuntimeException {
+    public DemasiadasSolicitudesException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,83 @@
+package com.eduquestia.backend.repository;
+
+import com.eduquestia.backend.entity.ContadorMision;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ContadorMisionRepository extends JpaRepository<ContadorMision, UUID> {
+
+    /**
+     * Suma estudiantes asignados a la misión, creando la fila si todavía no existe (upsert atómico)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO grupo_03.contadores_mision " +
+            "(mision_id, estudiantes_asignados, estudiantes_completados, fecha_actualizacion) " +
+            "VALUES (:misionId, :cantidad, 0, :fecha) " +
+            "ON CONFLICT (mision_id) DO UPDATE SET " +
+            "estudiantes_asignados = contadores_mision.estudiantes_asignados + EXCLUDED.estudiantes_asignados, " +
+            "fecha_actualizacion = EXCLUDED.fecha_actualizacion",
+            nativeQuery = true)
+    int sumarAsignados(@Param("misionId") UUID misionId,
+                       @Param("cantidad") int cantidad,
+                       @Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Suma un estudiante completado. Devuelve 0 si la misión aún no tiene fila de contadores.
+     */
+    @Modifying
+    @Query(value = "UPDATE grupo_03.contadores_mision SET " +
+            "estudiantes_completados = estudiantes_completados + 1, " +
+            "fecha_actualizacion = :fecha " +
+            "WHERE mision_id = :misionId",
+            nativeQuery = true)
+    int registrarCompletado(@Param("misionId") UUID misionId, @Param("fecha") LocalDateTime fecha);
+
+    @Query("SELECT m.id FROM Mision m WHERE m.id > :despues ORDER BY m.id")
+    List<UUID> findIdsMisionesDespues(@Param("despues") UUID despues, Limit limite);
+
+    /**
+     * Bloquea las filas de contadores de las misiones indicadas hasta el final de la transacción,
+     * para que ningún incremento concurrente se pierda mientras se recalculan
+     */
+    @Query(value = "SELECT mision_id FROM grupo_03.contadores_mision " +
+            "WHERE mision_id IN (:misionesIds) ORDER BY mision_id FOR UPDATE",
+            nativeQuery = true)
+    List<UUID> bloquear(@Param("misionesIds") Collection<UUID> misionesIds);
+
+    /**
+     * Recalcula los contadores de las misiones indicadas desde progreso_mision.
+     * Solo escribe las filas que faltan o difieren; devuelve cuántas se corrigieron.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO grupo_03.contadores_mision " +
+            "(mision_id, estudiantes_asignados, estudiantes_completados, fecha_actualizacion) " +
+            "SELECT m.id, COUNT(p.id), COUNT(p.id) FILTER (WHERE p.completada), :fecha " +
+            "FROM grupo_03.misiones m " +
+            "LEFT JOIN grupo_03.progreso_mision p ON p.mision_id = m.id " +
+            "WHERE m.id IN (:misionesIds) " +
+            "GROUP BY m.id " +
+            "ON CONFLICT (mision_id) DO UPDATE SET " +
+            "estudiantes_asignados = EXCLUDED.estudiantes_asignados, " +
+            "estudiantes_completados = EXCLUDED.estudiantes_completados, " +
+            "fecha_actualizacion = EXCLUDED.fecha_actualizacion " +
+            "WHERE (contadores_mision.estudiantes_asignados, contadores_mision.estudiantes_completados) " +
+            "      IS DISTINCT FROM (EXCLUDED.estudiantes_asignados, EXCLUDED.estudiantes_completados)",
+            nativeQuery = true)
+    int recalcular(@Param("misionesIds") Collection<UUID> misionesIds, @Param("fecha") LocalDateTime fecha);
+
+    @Modifying
+    @Query(value = "DELETE FROM grupo_03.contadores_mision c " +
+            "WHERE NOT EXISTS (SELECT 1 FROM grupo_03.misiones m WHERE m.id = c.mision_id)",
+            nativeQuery = true)
+    int eliminarHuerfanos();
+}
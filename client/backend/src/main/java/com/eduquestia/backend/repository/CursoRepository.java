@@ -1,9 +1,13 @@
 package com.eduquestia.backend.repository;
 
 import com.eduquestia.backend.entity.Curso;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -20,5 +24,19 @@ public interface CursoRepository extends JpaRepository<Curso, UUID> {
     // Consultas de lectura permitidas
     Optional<Curso> findByCodigoCurso(String codigoCurso);
     List<Curso> findByActivoTrue();
+
+    // Listado paginado de cursos activos con clave de orden codigo_curso (único)
+    List<Curso> findByActivoTrueOrderByCodigoCursoAsc(Limit limite);
+    List<Curso> findByActivoTrueAndCodigoCursoGreaterThanOrderByCodigoCursoAsc(String codigoCurso, Limit limite);
     List<Curso> findByActivoOrderByFechaCreacionDesc(Boolean activo);
+
+    @Query("SELECT c.fechaActualizacion FROM Curso c WHERE c.id = :id")
+    Optional<OffsetDateTime> findVersionById(@Param("id") UUID id);
+
+    /**
+     * Versión del listado de cursos: cambia con cualquier alta, baja o modificación
+     */
+    @Query(value = "SELECT concat_ws('|', COUNT(*), MAX(fecha_actualizacion)) FROM grupo_03.cursos",
+            nativeQuery = true)
+    String findVersionListado();
 }
@@ -3,8 +3,12 @@ package com.eduquestia.backend.repository;
 import com.eduquestia.backend.entity.EntregaMision;
 import com.eduquestia.backend.entity.enums.EstadoEntrega;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,4 +25,26 @@ public interface EntregaMisionRepository extends JpaRepository<EntregaMision, UU
     List<EntregaMision> findByEstudianteId(UUID estudianteId);
 
     Long countByMisionId(UUID misionId);
+
+    /**
+     * Marca como vencidas las entregas pendientes de la misión si su fecha límite ya pasó.
+     * Es idempotente y no hace nada si la fecha límite se amplió después de programar el vencimiento.
+     */
+    @Modifying
+    @Query("UPDATE EntregaMision e " +
+           "SET e.estado = com.eduquestia.backend.entity.enums.EstadoEntrega.VENCIDA, e.fechaActualizacion = :ahora " +
+           "WHERE e.mision.id = :misionId " +
+           "AND e.estado = com.eduquestia.backend.entity.enums.EstadoEntrega.PENDIENTE " +
+           "AND EXISTS (SELECT 1 FROM Mision m WHERE m.id = :misionId AND m.fechaLimite <= :ahora)")
+    int vencerPendientes(@Param("misionId") UUID misionId, @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Devuelve a pendiente las entregas vencidas de la misión (fecha límite ampliada)
+     */
+    @Modifying
+    @Query("UPDATE EntregaMision e " +
+           "SET e.estado = com.eduquestia.backend.entity.enums.EstadoEntrega.PENDIENTE, e.fechaActualizacion = :ahora " +
+           "WHERE e.mision.id = :misionId " +
+           "AND e.estado = com.eduquestia.backend.entity.enums.EstadoEntrega.VENCIDA")
+    int reabrirVencidas(@Param("misionId") UUID misionId, @Param("ahora") LocalDateTime ahora);
 }
@@ -1,11 +1,13 @@
 package com.eduquestia.backend.repository;
 
 import com.eduquestia.backend.entity.Inscripcion;
+import com.eduquestia.backend.repository.projection.ConteoPorIdView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -32,9 +34,25 @@ public interface InscripcionRepository extends JpaRepository<Inscripcion, UUID>
     @Query("SELECT COUNT(i) FROM Inscripcion i WHERE i.curso.id = :cursoId")
     Long countEstudiantesByCurso(@Param("cursoId") UUID cursoId);
 
+    @Query("SELECT i.curso.id AS id, COUNT(i) AS total FROM Inscripcion i " +
+           "WHERE i.curso.id IN :cursosIds GROUP BY i.curso.id")
+    List<ConteoPorIdView> countEstudiantesPorCursos(@Param("cursosIds") Collection<UUID> cursosIds);
+
+    /**
+     * Versión del listado de cursos de un estudiante: sus inscripciones y los cursos inscritos
+     */
+    @Query(value = "SELECT concat_ws('|', COUNT(*), MAX(i.fecha_actualizacion), MAX(c.fecha_actualizacion)) " +
+            "FROM grupo_03.inscripciones i JOIN grupo_03.cursos c ON c.id = i.curso_id " +
+            "WHERE i.estudiante_id = :estudianteId",
+            nativeQuery = true)
+    String findVersionCursosPorEstudiante(@Param("estudianteId") UUID estudianteId);
+
     @Query("SELECT i FROM Inscripcion i WHERE i.curso.id = :cursoId AND i.estado = 'activo'")
     List<Inscripcion> findInscripcionesActivasByCursoId(@Param("cursoId") UUID cursoId);
 
+    @Query("SELECT i.curso.id FROM Inscripcion i WHERE i.estudiante.id = :estudianteId AND i.estado = 'activo'")
+    List<UUID> findCursosIdsActivosByEstudiante(@Param("estudianteId") UUID estudianteId);
+
     @Query("SELECT COUNT(i) FROM Inscripcion i WHERE i.estudiante.id = :estudianteId AND i.estado = 'activo'")
     Long countCursosActivosByEstudiante(@Param("estudianteId") UUID estudianteId);
 }
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,6 +17,11 @@ public interface LogroEstudianteRepository extends JpaRepository<LogroEstudiante
     
     Optional<LogroEstudiante> findByEstudianteIdAndLogroId(UUID estudianteId, UUID logroId);
     
+    @Query("SELECT le.logro.id FROM LogroEstudiante le " +
+            "WHERE le.estudiante.id = :estudianteId AND le.logro.id IN :logrosIds")
+    List<UUID> findLogrosIdsObtenidos(@Param("estudianteId") UUID estudianteId,
+                                      @Param("logrosIds") Collection<UUID> logrosIds);
+
     @Query("SELECT COUNT(le) FROM LogroEstudiante le WHERE le.estudiante.id = :estudianteId")
     Long countLogrosByEstudianteId(@Param("estudianteId") UUID estudianteId);
 }
@@ -1,7 +1,9 @@
 package com.eduquestia.backend.repository;
 
 import com.eduquestia.backend.entity.Logro;
+import com.eduquestia.backend.repository.projection.LogroCatalogoVersionView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,5 +12,8 @@ import java.util.UUID;
 @Repository
 public interface LogroRepository extends JpaRepository<Logro, UUID> {
     List<Logro> findByActivoTrueOrderByPuntosRequeridosAsc();
-}
 
+    @Query("SELECT COUNT(l) AS total, MAX(l.fechaCreacion) AS ultimaCreacion, " +
+            "MAX(l.fechaActualizacion) AS ultimaActualizacion FROM Logro l")
+    LogroCatalogoVersionView findVersionCatalogo();
+}
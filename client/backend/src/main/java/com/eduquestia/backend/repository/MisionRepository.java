@@ -2,13 +2,25 @@ package com.eduquestia.backend.repository;
 
 import com.eduquestia.backend.entity.Mision;
 import com.eduquestia.backend.entity.enums.CategoriaMision;
+import jakarta.persistence.LockModeType;
+import com.eduquestia.backend.repository.projection.AgendaMisionView;
+import com.eduquestia.backend.repository.projection.NodoRequisitoView;
+import com.eduquestia.backend.repository.projection.PlazoAgendaView;
+import com.eduquestia.backend.repository.projection.PlazoMisionView;
+import com.eduquestia.backend.repository.projection.ResultadoBusquedaView;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -16,18 +28,83 @@ public interface MisionRepository extends JpaRepository<Mision, UUID> {
 
     List<Mision> findByCursoId(UUID cursoId);
 
+    /**
+     * Misión con curso, profesor y contenidos en una sola consulta (detalle de la misión)
+     */
+    @EntityGraph(attributePaths = {"curso", "profesor", "contenidos"})
+    @Query("SELECT m FROM Mision m WHERE m.id = :id")
+    Optional<Mision> findDetalleById(@Param("id") UUID id);
+
+    /**
+     * Versión del detalle de la misión para validarlo en caché sin cargarlo: cambia con
+     * la misión, con su curso y su profesor (sus nombres los modifica Django) y con la
+     * lista de requisitos
+     */
+    @Query(value = "SELECT concat_ws('|', COALESCE(m.fecha_actualizacion, m.fecha_creacion), " +
+            "c.fecha_actualizacion, u.fecha_actualizacion, " +
+            "(SELECT md5(string_agg(r.requisito_id::text, ',' ORDER BY r.requisito_id)) " +
+            " FROM grupo_03.requisitos_mision r WHERE r.mision_id = m.id)) " +
+            "FROM grupo_03.misiones m " +
+            "JOIN grupo_03.cursos c ON c.id = m.curso_id " +
+            "JOIN grupo_03.usuario u ON u.id = m.profesor_id " +
+            "WHERE m.id = :id",
+            nativeQuery = true)
+    Optional<String> findVersionById(@Param("id") UUID id);
+
     List<Mision> findByProfesorId(UUID profesorId);
 
-    List<Mision> findByCursoIdAndActivoTrue(UUID cursoId);
+    /**
+     * Misiones activas del curso ordenadas por (fecha límite, id); con Limit.unlimited() devuelve todas
+     */
+    @Query("SELECT m FROM Mision m JOIN FETCH m.curso " +
+            "WHERE m.curso.id = :cursoId AND m.activo = true " +
+            "ORDER BY m.fechaLimite ASC, m.id ASC")
+    List<Mision> findByCursoIdAndActivoTrue(@Param("cursoId") UUID cursoId, Limit limite);
+
+    /**
+     * Página siguiente a la clave (fechaLimite, id) de la última misión devuelta
+     */
+    @Query("SELECT m FROM Mision m JOIN FETCH m.curso " +
+            "WHERE m.curso.id = :cursoId AND m.activo = true " +
+            "AND (m.fechaLimite, m.id) > (:fechaLimite, :id) " +
+            "ORDER BY m.fechaLimite ASC, m.id ASC")
+    List<Mision> findByCursoIdAndActivoTrueDespues(@Param("cursoId") UUID cursoId,
+                                                   @Param("fechaLimite") LocalDateTime fechaLimite,
+                                                   @Param("id") UUID id,
+                                                   Limit limite);
 
     List<Mision> findByProfesorIdAndActivoTrue(UUID profesorId);
 
-    List<Mision> findByCursoIdAndCategoria(UUID cursoId, CategoriaMision categoria);
+    @Query("SELECT m FROM Mision m JOIN FETCH m.curso " +
+            "WHERE m.curso.id = :cursoId AND m.categoria = :categoria " +
+            "ORDER BY m.fechaLimite ASC, m.id ASC")
+    List<Mision> findByCursoIdAndCategoria(@Param("cursoId") UUID cursoId,
+                                           @Param("categoria") CategoriaMision categoria,
+                                           Limit limite);
+
+    @Query("SELECT m FROM Mision m JOIN FETCH m.curso " +
+            "WHERE m.curso.id = :cursoId AND m.categoria = :categoria " +
+            "AND (m.fechaLimite, m.id) > (:fechaLimite, :id) " +
+            "ORDER BY m.fechaLimite ASC, m.id ASC")
+    List<Mision> findByCursoIdAndCategoriaDespues(@Param("cursoId") UUID cursoId,
+                                                  @Param("categoria") CategoriaMision categoria,
+                                                  @Param("fechaLimite") LocalDateTime fechaLimite,
+                                                  @Param("id") UUID id,
+                                                  Limit limite);
+
+    @Query("SELECT m FROM Mision m JOIN FETCH m.curso WHERE m.profesor.id = :profesorId " +
+            "AND m.activo = true " +
+            "ORDER BY m.fechaLimite ASC, m.id ASC")
+    List<Mision> findMisionesByProfesor(@Param("profesorId") UUID profesorId, Limit limite);
 
-    @Query("SELECT m FROM Mision m WHERE m.profesor.id = :profesorId " +
+    @Query("SELECT m FROM Mision m JOIN FETCH m.curso WHERE m.profesor.id = :profesorId " +
             "AND m.activo = true " +
-            "ORDER BY m.fechaLimite ASC")
-    List<Mision> findMisionesByProfesor(@Param("profesorId") UUID profesorId);
+            "AND (m.fechaLimite, m.id) > (:fechaLimite, :id) " +
+            "ORDER BY m.fechaLimite ASC, m.id ASC")
+    List<Mision> findMisionesByProfesorDespues(@Param("profesorId") UUID profesorId,
+                                               @Param("fechaLimite") LocalDateTime fechaLimite,
+                                               @Param("id") UUID id,
+                                               Limit limite);
 
     @Query("SELECT m FROM Mision m WHERE m.curso.id = :cursoId " +
             "AND m.fechaLimite BETWEEN :inicio AND :fin")
@@ -37,7 +114,137 @@ public interface MisionRepository extends JpaRepository<Mision, UUID> {
             @Param("fin") LocalDateTime fin
     );
 
+    String PLAZOS_AGENDA = "SELECT m.id AS id, m.titulo AS titulo, m.categoria AS categoria, " +
+            "m.dificultad AS dificultad, m.puntosRecompensa AS puntosRecompensa, " +
+            "m.fechaInicio AS fechaInicio, m.fechaLimite AS fechaLimite, " +
+            "c.id AS cursoId, c.nombre AS cursoNombre ";
+
+    /**
+     * Agenda del estudiante: misiones activas de sus cursos con inscripción activa que vencen
+     * en [desde, hasta), con su estado de completada. Por cada curso es un recorrido de rango
+     * sobre idx_misiones_curso_limite (curso_id, activo, fecha_limite).
+     */
+    @Query(PLAZOS_AGENDA + ", COALESCE(p.completada, false) AS completada " +
+           "FROM Inscripcion i " +
+           "JOIN Mision m ON m.curso.id = i.curso.id " +
+           "JOIN m.curso c " +
+           "LEFT JOIN ProgresoMision p ON p.mision.id = m.id AND p.estudiante.id = :estudianteId " +
+           "WHERE i.estudiante.id = :estudianteId AND i.estado = 'activo' " +
+           "AND m.activo = true AND m.fechaLimite >= :desde AND m.fechaLimite < :hasta " +
+           "ORDER BY m.fechaLimite ASC, m.id ASC")
+    List<AgendaMisionView> findAgendaEstudiante(@Param("estudianteId") UUID estudianteId,
+                                                @Param("desde") LocalDateTime desde,
+                                                @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Reserva el recordatorio de un plazo: devuelve 1 solo a la primera instancia
+     * que lo registra para esa misión, antelación y fecha límite
+     */
+    @Modifying
+    @Query(value = "INSERT INTO grupo_03.recordatorios_mision (mision_id, antelacion_minutos, fecha_limite) " +
+            "VALUES (:misionId, :antelacionMinutos, :fechaLimite) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int registrarRecordatorio(@Param("misionId") UUID misionId,
+                              @Param("antelacionMinutos") int antelacionMinutos,
+                              @Param("fechaLimite") LocalDateTime fechaLimite);
+
+    /**
+     * Todas las fechas límite de las misiones activas de los cursos, para el índice de la agenda en memoria
+     */
+    @Query(PLAZOS_AGENDA +
+           "FROM Mision m JOIN m.curso c " +
+           "WHERE c.id IN :cursosIds AND m.activo = true " +
+           "ORDER BY m.fechaLimite ASC, m.id ASC")
+    List<PlazoAgendaView> findPlazosAgendaPorCursos(@Param("cursosIds") Collection<UUID> cursosIds);
+
     @Query("SELECT COUNT(m) FROM Mision m WHERE m.curso.id = :cursoId AND m.activo = true")
     Long countMisionesActivasByCurso(@Param("cursoId") UUID cursoId);
-}
 
+    /**
+     * Fechas límite de las misiones activas que vencen en la ventana (desde, hasta]
+     */
+    @Query("SELECT m.id AS id, m.fechaLimite AS fechaLimite FROM Mision m " +
+           "WHERE m.activo = true AND m.fechaLimite > :desde AND m.fechaLimite <= :hasta")
+    List<PlazoMisionView> findPlazosEntre(@Param("desde") LocalDateTime desde,
+                                          @Param("hasta") LocalDateTime hasta);
+
+    @Query("SELECT COALESCE(MAX(m.ordenRequisitos), -1) FROM Mision m WHERE m.curso.id = :cursoId")
+    int findOrdenRequisitosMaximo(@Param("cursoId") UUID cursoId);
+
+    /**
+     * Cambia la versión de las misiones que exigen la indicada (su lista de requisitos cambia)
+     */
+    @Modifying
+    @Query("UPDATE Mision m SET m.fechaActualizacion = :fecha " +
+           "WHERE m.id IN (SELECT r.mision.id FROM RequisitoMision r WHERE r.requisito.id = :requisitoId)")
+    int actualizarVersionDependientes(@Param("requisitoId") UUID requisitoId, @Param("fecha") LocalDateTime fecha);
+
+    @Query("SELECT m.id FROM Mision m WHERE m.curso.id = :cursoId AND m.id IN :ids")
+    List<UUID> findIdsByCursoIdAndIdIn(@Param("cursoId") UUID cursoId, @Param("ids") Collection<UUID> ids);
+
+    /**
+     * Misiones del curso en su orden topológico actual, bloqueadas para recalcularlo
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Mision m WHERE m.curso.id = :cursoId " +
+           "ORDER BY m.ordenRequisitos ASC NULLS FIRST, m.fechaCreacion ASC, m.id ASC")
+    List<Mision> findByCursoIdOrdenRequisitos(@Param("cursoId") UUID cursoId);
+
+    /**
+     * Misiones de los cursos del estudiante, por curso y en orden topológico, indicando
+     * si cuentan como requisito cumplido: las completadas por el estudiante y las que no
+     * puede completar (inactivas o sin asignar). Se devuelven todas para conservar las
+     * dependencias indirectas a través de ellas.
+     */
+    @Query("SELECT m.id AS id, m.curso.id AS cursoId, " +
+           "CASE WHEN m.activo = false OR p.id IS NULL OR p.completada = true THEN true ELSE false END AS satisfecha " +
+           "FROM Mision m " +
+           "LEFT JOIN ProgresoMision p ON p.mision.id = m.id AND p.estudiante.id = :estudianteId " +
+           "WHERE m.curso.id IN (SELECT pm.mision.curso.id FROM ProgresoMision pm " +
+           "                     WHERE pm.estudiante.id = :estudianteId) " +
+           "ORDER BY m.curso.id, m.ordenRequisitos ASC NULLS FIRST, m.fechaCreacion ASC, m.id ASC")
+    List<NodoRequisitoView> findNodosRequisitosEstudiante(@Param("estudianteId") UUID estudianteId);
+
+    /**
+     * Recalcula misiones.busqueda (tsvector) a partir del título (peso A), la descripción (B)
+     * y el texto de sus contenidos (C). Se llama al crear o actualizar la misión.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE grupo_03.misiones m SET busqueda = " +
+            "setweight(to_tsvector('spanish', coalesce(m.titulo, '')), 'A') || " +
+            "setweight(to_tsvector('spanish', coalesce(m.descripcion, '')), 'B') || " +
+            "setweight(to_tsvector('spanish', coalesce((SELECT string_agg(c.contenido_texto, ' ' ORDER BY c.orden) " +
+            "                                           FROM grupo_03.contenido_mision c WHERE c.mision_id = m.id), '')), 'C') " +
+            "WHERE m.id = :misionId",
+            nativeQuery = true)
+    int actualizarDocumentoBusqueda(@Param("misionId") UUID misionId);
+
+    /**
+     * Misiones del profesor que coinciden con la consulta (tsquery), por relevancia descendente
+     * y a partir de la clave (relevancia, id) exclusiva. Curso, categoría y dificultad son opcionales (null = sin filtro).
+     */
+    @Query(value = "SELECT m.id AS id, r.relevancia AS relevancia " +
+            "FROM grupo_03.misiones m " +
+            "CROSS JOIN to_tsquery('spanish', :consulta) q " +
+            "CROSS JOIN LATERAL (SELECT ts_rank(m.busqueda, q) AS relevancia) r " +
+            "WHERE m.busqueda @@ q " +
+            "AND m.profesor_id = :profesorId " +
+            "AND (CAST(:cursoId AS uuid) IS NULL OR m.curso_id = :cursoId) " +
+            "AND (CAST(:categoria AS text) IS NULL OR m.categoria = :categoria) " +
+            "AND (CAST(:dificultad AS text) IS NULL OR m.dificultad = :dificultad) " +
+            "AND (r.relevancia, m.id) < (:relevanciaAntes, :idAntes) " +
+            "ORDER BY r.relevancia DESC, m.id DESC " +
+            "LIMIT :limite",
+            nativeQuery = true)
+    List<ResultadoBusquedaView> buscarMisiones(@Param("consulta") String consulta,
+                                               @Param("profesorId") UUID profesorId,
+                                               @Param("cursoId") UUID cursoId,
+                                               @Param("categoria") String categoria,
+                                               @Param("dificultad") String dificultad,
+                                               @Param("relevanciaAntes") float relevanciaAntes,
+                                               @Param("idAntes") UUID idAntes,
+                                               @Param("limite") int limite);
+
+    @Query("SELECT m FROM Mision m JOIN FETCH m.curso WHERE m.id IN :ids")
+    List<Mision> findConCursoByIdIn(@Param("ids") Collection<UUID> ids);
+}
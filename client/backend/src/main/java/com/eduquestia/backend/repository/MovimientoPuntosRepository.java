@@ -0,0 +1,11 @@
+package com.eduquestia.backend.repository;
+
+import com.eduquestia.backend.entity.MovimientoPuntos;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface MovimientoPuntosRepository extends JpaRepository<MovimientoPuntos, UUID> {
+}
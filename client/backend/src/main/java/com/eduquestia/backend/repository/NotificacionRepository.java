@@ -2,8 +2,13 @@ package com.eduquestia.backend.repository;
 
 import com.eduquestia.backend.entity.Notificacion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,4 +16,37 @@ import java.util.UUID;
 public interface NotificacionRepository extends JpaRepository<Notificacion, UUID> {
     List<Notificacion> findByUsuarioIdOrderByFechaCreacionDesc(UUID usuarioId);
     List<Notificacion> findByUsuarioIdAndLeidaFalse(UUID usuarioId);
+
+    /**
+     * Crea la misma notificación para todos los estudiantes inscritos en el curso
+     * con un solo INSERT multi-fila
+     */
+    @Modifying
+    @Query(value = "INSERT INTO grupo_03.notificaciones " +
+            "(id, usuario_id, tipo, titulo, mensaje, leida, referencia_id, fecha_creacion) " +
+            "SELECT gen_random_uuid(), i.estudiante_id, :tipo, :titulo, :mensaje, false, :referenciaId, :fecha " +
+            "FROM grupo_03.inscripciones i WHERE i.curso_id = :cursoId",
+            nativeQuery = true)
+    int insertarParaCurso(@Param("cursoId") UUID cursoId,
+                          @Param("tipo") String tipo,
+                          @Param("titulo") String titulo,
+                          @Param("mensaje") String mensaje,
+                          @Param("referenciaId") UUID referenciaId,
+                          @Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Crea la misma notificación para cada usuario indicado con un solo INSERT multi-fila
+     */
+    @Modifying
+    @Query(value = "INSERT INTO grupo_03.notificaciones " +
+            "(id, usuario_id, tipo, titulo, mensaje, leida, referencia_id, fecha_creacion) " +
+            "SELECT gen_random_uuid(), u.id, :tipo, :titulo, :mensaje, false, :referenciaId, :fecha " +
+            "FROM grupo_03.usuario u WHERE u.id IN (:usuariosIds)",
+            nativeQuery = true)
+    int insertarParaUsuarios(@Param("usuariosIds") Collection<UUID> usuariosIds,
+                             @Param("tipo") String tipo,
+                             @Param("titulo") String titulo,
+                             @Param("mensaje") String mensaje,
+                             @Param("referenciaId") UUID referenciaId,
+                             @Param("fecha") LocalDateTime fecha);
 }
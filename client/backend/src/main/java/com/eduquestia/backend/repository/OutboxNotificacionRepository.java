@@ -0,0 +1,38 @@
+package com.eduquestia.backend.repository;
+
+import com.eduquestia.backend.entity.OutboxNotificacion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface OutboxNotificacionRepository extends JpaRepository<OutboxNotificacion, UUID> {
+
+    @Query(value = "SELECT id FROM grupo_03.outbox_notificaciones " +
+            "WHERE estado = 'PENDIENTE' AND proximo_intento <= :ahora " +
+            "ORDER BY proximo_intento LIMIT :limite",
+            nativeQuery = true)
+    List<UUID> findIdsPendientes(@Param("ahora") LocalDateTime ahora, @Param("limite") int limite);
+
+    /**
+     * Bloquea el registro para procesarlo; si otra instancia ya lo tiene, no devuelve nada
+     */
+    @Query(value = "SELECT * FROM grupo_03.outbox_notificaciones " +
+            "WHERE id = :id AND estado = 'PENDIENTE' FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    Optional<OutboxNotificacion> bloquearPendiente(@Param("id") UUID id);
+
+    @Query("SELECT MIN(o.fechaCreacion) FROM OutboxNotificacion o WHERE o.estado = 'PENDIENTE'")
+    Optional<LocalDateTime> findFechaPendienteMasAntigua();
+
+    @Modifying
+    @Query("DELETE FROM OutboxNotificacion o WHERE o.estado = 'PROCESADO' AND o.fechaProcesado < :limite")
+    int eliminarProcesadosAntesDe(@Param("limite") LocalDateTime limite);
+}
@@ -1,11 +1,19 @@
 package com.eduquestia.backend.repository;
 
 import com.eduquestia.backend.entity.ProgresoMision;
+import com.eduquestia.backend.repository.projection.ConteoPorIdView;
+import com.eduquestia.backend.repository.projection.MisionEstudianteView;
+import com.eduquestia.backend.repository.projection.PerfilVersionView;
+import com.eduquestia.backend.repository.projection.ProgresoEstudianteView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,15 +27,150 @@ public interface ProgresoMisionRepository extends JpaRepository<ProgresoMision,
 
     List<ProgresoMision> findByEstudianteId(UUID estudianteId);
 
-    @Query("SELECT p FROM ProgresoMision p " +
-           "JOIN FETCH p.mision m " +
-           "JOIN FETCH m.curso c " +
-           "WHERE p.estudiante.id = :estudianteId")
-    List<ProgresoMision> findByEstudianteIdWithMisionAndCurso(@Param("estudianteId") UUID estudianteId);
+    /**
+     * Marca la misión como completada solo si todavía no lo estaba. Entre peticiones
+     * concurrentes del mismo estudiante exactamente una obtiene 1; el resto espera
+     * el bloqueo de la fila y obtiene 0.
+     */
+    @Modifying
+    @Query("UPDATE ProgresoMision p SET p.completada = true, p.porcentajeCompletado = 100, " +
+           "p.fechaCompletado = :fecha, p.ultimaActividad = :fecha, p.fechaActualizacion = :fecha " +
+           "WHERE p.mision.id = :misionId AND p.estudiante.id = :estudianteId AND p.completada = false")
+    int marcarCompletada(@Param("misionId") UUID misionId,
+                         @Param("estudianteId") UUID estudianteId,
+                         @Param("fecha") LocalDateTime fecha);
+
+    String MISIONES_ESTUDIANTE = "SELECT m.id AS id, m.titulo AS titulo, m.descripcion AS descripcion, " +
+           "m.categoria AS categoria, m.dificultad AS dificultad, " +
+           "m.puntosRecompensa AS puntosRecompensa, m.experienciaRecompensa AS experienciaRecompensa, " +
+           "m.fechaInicio AS fechaInicio, m.fechaLimite AS fechaLimite, m.activo AS activo, " +
+           "c.nombre AS cursoNombre, p.porcentajeCompletado AS porcentajeCompletado, " +
+           "p.completada AS completada, p.fechaCompletado AS fechaCompletado, " +
+           "e.estado AS estadoEntrega, e.puntosObtenidos AS puntosObtenidos, " +
+           "p.ultimaActividad AS ultimaActividad " +
+           "FROM ProgresoMision p " +
+           "JOIN p.mision m " +
+           "JOIN m.curso c " +
+           "LEFT JOIN EntregaMision e ON e.mision.id = m.id AND e.estudiante.id = p.estudiante.id " +
+           "WHERE p.estudiante.id = :estudianteId " +
+           "AND (:completada IS NULL OR p.completada = :completada) " +
+           "AND (:misionActiva IS NULL OR m.activo = :misionActiva) " +
+           "AND (CAST(:venceDesde AS LocalDateTime) IS NULL OR m.fechaLimite >= :venceDesde) " +
+           "AND (CAST(:venceHasta AS LocalDateTime) IS NULL OR m.fechaLimite < :venceHasta) ";
+
+    /**
+     * Misiones del estudiante con curso, progreso y entrega en una sola consulta.
+     * Los filtros son opcionales (null = sin filtro); la ventana de fecha límite es [venceDesde, venceHasta).
+     * Con Limit.unlimited() devuelve todas.
+     */
+    @Query(MISIONES_ESTUDIANTE + "ORDER BY m.fechaLimite ASC, m.id ASC")
+    List<MisionEstudianteView> findMisionesEstudiante(@Param("estudianteId") UUID estudianteId,
+                                                      @Param("completada") Boolean completada,
+                                                      @Param("misionActiva") Boolean misionActiva,
+                                                      @Param("venceDesde") LocalDateTime venceDesde,
+                                                      @Param("venceHasta") LocalDateTime venceHasta,
+                                                      Limit limite);
+
+    /**
+     * Página siguiente a la clave (fechaLimite, id) de la última misión devuelta
+     */
+    @Query(MISIONES_ESTUDIANTE + "AND (m.fechaLimite, m.id) > (:fechaLimite, :id) " +
+           "ORDER BY m.fechaLimite ASC, m.id ASC")
+    List<MisionEstudianteView> findMisionesEstudianteDespues(@Param("estudianteId") UUID estudianteId,
+                                                             @Param("completada") Boolean completada,
+                                                             @Param("misionActiva") Boolean misionActiva,
+                                                             @Param("venceDesde") LocalDateTime venceDesde,
+                                                             @Param("venceHasta") LocalDateTime venceHasta,
+                                                             @Param("fechaLimite") LocalDateTime fechaLimite,
+                                                             @Param("id") UUID id,
+                                                             Limit limite);
+
+    String PROGRESO_ESTUDIANTES = "SELECT p.estudiante.id AS estudianteId, u.nombreCompleto AS nombreCompleto, " +
+           "u.avatarUrl AS avatarUrl, p.porcentajeCompletado AS porcentajeCompletado, " +
+           "p.completada AS completada, p.ultimaActividad AS ultimaActividad " +
+           "FROM ProgresoMision p " +
+           "JOIN p.estudiante u " +
+           "WHERE p.mision.id = :misionId " +
+           "AND (:completada IS NULL OR p.completada = :completada) " +
+           "AND p.porcentajeCompletado BETWEEN :porcentajeMinimo AND :porcentajeMaximo ";
+
+    /**
+     * Progreso de los estudiantes de la misión por estado (completadas, en progreso, sin iniciar),
+     * a partir de la clave (completada, porcentaje, estudiante) exclusiva.
+     * Los filtros de estado se expresan con completada (null = todas) y el rango de porcentaje.
+     */
+    @Query(PROGRESO_ESTUDIANTES +
+           "AND (p.completada, p.porcentajeCompletado, p.estudiante.id) < (:completadaAntes, :porcentajeAntes, :estudianteAntes) " +
+           "ORDER BY p.completada DESC, p.porcentajeCompletado DESC, p.estudiante.id DESC")
+    List<ProgresoEstudianteView> findProgresoEstudiantesPorEstado(@Param("misionId") UUID misionId,
+                                                                  @Param("completada") Boolean completada,
+                                                                  @Param("porcentajeMinimo") int porcentajeMinimo,
+                                                                  @Param("porcentajeMaximo") int porcentajeMaximo,
+                                                                  @Param("completadaAntes") boolean completadaAntes,
+                                                                  @Param("porcentajeAntes") int porcentajeAntes,
+                                                                  @Param("estudianteAntes") UUID estudianteAntes,
+                                                                  Limit limite);
+
+    @Query(PROGRESO_ESTUDIANTES +
+           "AND (p.porcentajeCompletado, p.estudiante.id) < (:porcentajeAntes, :estudianteAntes) " +
+           "ORDER BY p.porcentajeCompletado DESC, p.estudiante.id DESC")
+    List<ProgresoEstudianteView> findProgresoEstudiantesPorPorcentaje(@Param("misionId") UUID misionId,
+                                                                      @Param("completada") Boolean completada,
+                                                                      @Param("porcentajeMinimo") int porcentajeMinimo,
+                                                                      @Param("porcentajeMaximo") int porcentajeMaximo,
+                                                                      @Param("porcentajeAntes") int porcentajeAntes,
+                                                                      @Param("estudianteAntes") UUID estudianteAntes,
+                                                                      Limit limite);
+
+    @Query(PROGRESO_ESTUDIANTES +
+           "AND (p.ultimaActividad, p.estudiante.id) < (:actividadAntes, :estudianteAntes) " +
+           "ORDER BY p.ultimaActividad DESC, p.estudiante.id DESC")
+    List<ProgresoEstudianteView> findProgresoEstudiantesPorActividad(@Param("misionId") UUID misionId,
+                                                                     @Param("completada") Boolean completada,
+                                                                     @Param("porcentajeMinimo") int porcentajeMinimo,
+                                                                     @Param("porcentajeMaximo") int porcentajeMaximo,
+                                                                     @Param("actividadAntes") LocalDateTime actividadAntes,
+                                                                     @Param("estudianteAntes") UUID estudianteAntes,
+                                                                     Limit limite);
+
+    @Query("SELECT p.estudiante.id FROM ProgresoMision p " +
+           "WHERE p.mision.id = :misionId AND p.estudiante.id IN :estudiantesIds")
+    List<UUID> findEstudiantesIdsAsignados(@Param("misionId") UUID misionId,
+                                           @Param("estudiantesIds") Collection<UUID> estudiantesIds);
+
+    @Query("SELECT p.mision.id FROM ProgresoMision p " +
+           "WHERE p.estudiante.id = :estudianteId AND p.mision.id IN :misionesIds AND p.completada = true")
+    List<UUID> findMisionesIdsCompletadas(@Param("estudianteId") UUID estudianteId,
+                                          @Param("misionesIds") Collection<UUID> misionesIds);
+
+    @Query("SELECT p.estudiante.id FROM ProgresoMision p " +
+           "WHERE p.mision.id = :misionId AND p.completada = false")
+    List<UUID> findEstudiantesIdsPendientes(@Param("misionId") UUID misionId);
+
+    /**
+     * Versión del perfil gamificado del estudiante en una sola consulta: puntos
+     * (suma de entregas), misiones completadas y últimas marcas de tiempo
+     */
+    @Query(value = "SELECT e.puntos AS puntos, p.completadas AS completadas, " +
+            "concat_ws('|', e.ultima, p.ultima, l.total, l.ultima) AS marcas " +
+            "FROM (SELECT CAST(COALESCE(SUM(puntos_obtenidos) FILTER (WHERE puntos_obtenidos > 0), 0) AS INTEGER) AS puntos, " +
+            "             MAX(fecha_actualizacion) AS ultima " +
+            "      FROM grupo_03.entregas_mision WHERE estudiante_id = :estudianteId) e, " +
+            "     (SELECT CAST(COUNT(*) FILTER (WHERE completada) AS INTEGER) AS completadas, " +
+            "             MAX(fecha_actualizacion) AS ultima " +
+            "      FROM grupo_03.progreso_mision WHERE estudiante_id = :estudianteId) p, " +
+            "     (SELECT COUNT(*) AS total, MAX(fecha_obtenido) AS ultima " +
+            "      FROM grupo_03.logros_estudiante WHERE estudiante_id = :estudianteId) l",
+            nativeQuery = true)
+    PerfilVersionView findVersionPerfil(@Param("estudianteId") UUID estudianteId);
 
     @Query("SELECT COUNT(p) FROM ProgresoMision p WHERE p.mision.id = :misionId AND p.completada = true")
     Long countCompletadosByMision(@Param("misionId") UUID misionId);
 
+    @Query("SELECT p.mision.id AS id, COUNT(p) AS total FROM ProgresoMision p " +
+           "WHERE p.mision.id IN :misionesIds AND p.completada = true GROUP BY p.mision.id")
+    List<ConteoPorIdView> countCompletadosPorMisiones(@Param("misionesIds") Collection<UUID> misionesIds);
+
     @Query("SELECT COUNT(p) FROM ProgresoMision p WHERE p.mision.id = :misionId " +
             "AND p.completada = false AND p.porcentajeCompletado > 0")
     Long countEnProgresoByMision(@Param("misionId") UUID misionId);
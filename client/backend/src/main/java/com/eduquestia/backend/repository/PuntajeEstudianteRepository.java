@@ -0,0 +1,110 @@
+package com.eduquestia.backend.repository;
+
+import com.eduquestia.backend.entity.PuntajeEstudiante;
+import com.eduquestia.backend.repository.projection.PuntajeInscripcionView;
+import com.eduquestia.backend.repository.projection.PuntajeRankingView;
+import com.eduquestia.backend.repository.projection.PuntajeTotalesView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface PuntajeEstudianteRepository extends JpaRepository<PuntajeEstudiante, UUID> {
+
+    /**
+     * Suma puntos y misiones completadas al acumulado del estudiante,
+     * creando la fila si todavía no existe (upsert atómico).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO grupo_03.puntajes_estudiante " +
+            "(estudiante_id, puntos_totales, misiones_completadas, fecha_actualizacion) " +
+            "VALUES (:estudianteId, :puntos, :completadas, :fecha) " +
+            "ON CONFLICT (estudiante_id) DO UPDATE SET " +
+            "puntos_totales = puntajes_estudiante.puntos_totales + EXCLUDED.puntos_totales, " +
+            "misiones_completadas = puntajes_estudiante.misiones_completadas + EXCLUDED.misiones_completadas, " +
+            "fecha_actualizacion = EXCLUDED.fecha_actualizacion",
+            nativeQuery = true)
+    int acumular(@Param("estudianteId") UUID estudianteId,
+                 @Param("puntos") int puntos,
+                 @Param("completadas") int completadas,
+                 @Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Lee los totales directamente de la base de datos (no del contexto de persistencia),
+     * para ver el resultado de {@link #acumular} dentro de la misma transacción.
+     */
+    @Query("SELECT p.puntosTotales AS puntosTotales, p.misionesCompletadas AS misionesCompletadas " +
+            "FROM PuntajeEstudiante p WHERE p.estudianteId = :estudianteId")
+    Optional<PuntajeTotalesView> findTotalesByEstudianteId(@Param("estudianteId") UUID estudianteId);
+
+    @Modifying
+    @Query(value = "DELETE FROM grupo_03.puntajes_estudiante", nativeQuery = true)
+    int eliminarTodos();
+
+    /**
+     * Recalcula todos los acumulados a partir de entregas_mision y progreso_mision.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO grupo_03.puntajes_estudiante " +
+            "(estudiante_id, puntos_totales, misiones_completadas, fecha_actualizacion) " +
+            "SELECT COALESCE(e.estudiante_id, p.estudiante_id), COALESCE(e.puntos, 0), COALESCE(p.completadas, 0), :fecha " +
+            "FROM (SELECT estudiante_id, SUM(puntos_obtenidos) AS puntos FROM grupo_03.entregas_mision " +
+            "      WHERE puntos_obtenidos > 0 GROUP BY estudiante_id) e " +
+            "FULL OUTER JOIN (SELECT estudiante_id, COUNT(*) AS completadas FROM grupo_03.progreso_mision " +
+            "      WHERE completada = true GROUP BY estudiante_id) p " +
+            "ON p.estudiante_id = e.estudiante_id",
+            nativeQuery = true)
+    int reconstruirDesdeEntregas(@Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Totales actuales de los estudiantes que completaron alguna misión desde la fecha dada
+     */
+    @Query(value = "SELECT u.id AS estudianteId, u.nombre_completo AS nombreCompleto, " +
+            "COALESCE(p.puntos_totales, 0) AS puntosTotales, " +
+            "COALESCE(p.misiones_completadas, 0) AS misionesCompletadas " +
+            "FROM grupo_03.usuario u LEFT JOIN grupo_03.puntajes_estudiante p ON p.estudiante_id = u.id " +
+            "WHERE u.id IN (SELECT pm.estudiante_id FROM grupo_03.progreso_mision pm " +
+            "               WHERE pm.completada = true AND pm.fecha_completado >= :desde)",
+            nativeQuery = true)
+    List<PuntajeRankingView> findTotalesConMisionesCompletadasDesde(@Param("desde") LocalDateTime desde);
+
+    @Query("SELECT u.id AS estudianteId, u.nombreCompleto AS nombreCompleto, " +
+            "COALESCE(p.puntosTotales, 0) AS puntosTotales, " +
+            "COALESCE(p.misionesCompletadas, 0) AS misionesCompletadas " +
+            "FROM Usuario u LEFT JOIN PuntajeEstudiante p ON p.estudianteId = u.id " +
+            "WHERE u.rol = 'estudiante' AND u.activo = true " +
+            "ORDER BY COALESCE(p.puntosTotales, 0) DESC, COALESCE(p.misionesCompletadas, 0) DESC, u.id")
+    List<PuntajeRankingView> findRankingGlobal();
+
+    @Query("SELECT i.curso.id AS cursoId, u.id AS estudianteId, " +
+            "COALESCE(p.puntosTotales, 0) AS puntosTotales, " +
+            "COALESCE(p.misionesCompletadas, 0) AS misionesCompletadas " +
+            "FROM Inscripcion i JOIN i.estudiante u " +
+            "LEFT JOIN PuntajeEstudiante p ON p.estudianteId = u.id " +
+            "WHERE i.estado = 'activo'")
+    List<PuntajeInscripcionView> findPuntajesInscripcionesActivas();
+
+    @Query("SELECT i.curso.id AS cursoId, u.id AS estudianteId, " +
+            "COALESCE(p.puntosTotales, 0) AS puntosTotales, " +
+            "COALESCE(p.misionesCompletadas, 0) AS misionesCompletadas " +
+            "FROM Inscripcion i JOIN i.estudiante u " +
+            "LEFT JOIN PuntajeEstudiante p ON p.estudianteId = u.id " +
+            "WHERE i.curso.id = :cursoId AND i.estado = 'activo'")
+    List<PuntajeInscripcionView> findPuntajesInscripcionesActivasByCursoId(@Param("cursoId") UUID cursoId);
+
+    @Query("SELECT i.curso.id AS cursoId, u.id AS estudianteId, " +
+            "COALESCE(p.puntosTotales, 0) AS puntosTotales, " +
+            "COALESCE(p.misionesCompletadas, 0) AS misionesCompletadas " +
+            "FROM Inscripcion i JOIN i.estudiante u " +
+            "LEFT JOIN PuntajeEstudiante p ON p.estudianteId = u.id " +
+            "WHERE i.curso.id = :cursoId AND u.id = :estudianteId AND i.estado = 'activo'")
+    Optional<PuntajeInscripcionView> findPuntajeInscripcionActiva(@Param("cursoId") UUID cursoId,
+                                                                  @Param("estudianteId") UUID estudianteId);
+}
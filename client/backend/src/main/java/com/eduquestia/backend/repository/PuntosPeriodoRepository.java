@@ -0,0 +1,89 @@
+package com.eduquestia.backend.repository;
+
+import com.eduquestia.backend.entity.PuntosPeriodo;
+import com.eduquestia.backend.repository.projection.RankingPeriodoView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PuntosPeriodoRepository extends JpaRepository<PuntosPeriodo, PuntosPeriodo.Clave> {
+
+    /**
+     * Suma puntos al acumulado diario del estudiante en el curso (upsert atómico)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO grupo_03.puntos_periodo (estudiante_id, curso_id, granularidad, inicio, puntos) " +
+            "VALUES (:estudianteId, :cursoId, 'DIA', :dia, :puntos) " +
+            "ON CONFLICT (estudiante_id, curso_id, granularidad, inicio) DO UPDATE SET " +
+            "puntos = puntos_periodo.puntos + EXCLUDED.puntos",
+            nativeQuery = true)
+    int sumarDia(@Param("estudianteId") UUID estudianteId,
+                 @Param("cursoId") UUID cursoId,
+                 @Param("dia") LocalDate dia,
+                 @Param("puntos") int puntos);
+
+    /**
+     * Consolida los acumulados diarios anteriores a {@code limite} en acumulados mensuales.
+     * {@code limite} debe ser el primer día de un mes para no partir meses.
+     * Los días se borran y se suman en la misma sentencia (DELETE ... RETURNING): si dos
+     * consolidaciones se cruzan, la segunda espera los bloqueos de la primera y ya no
+     * encuentra esos días, así cada día se suma a su mes una sola vez.
+     * Devuelve la cantidad de acumulados mensuales creados o actualizados.
+     */
+    @Modifying
+    @Query(value = "WITH dias AS (" +
+            "  DELETE FROM grupo_03.puntos_periodo " +
+            "  WHERE granularidad = 'DIA' AND inicio < :limite " +
+            "  RETURNING estudiante_id, curso_id, inicio, puntos) " +
+            "INSERT INTO grupo_03.puntos_periodo (estudiante_id, curso_id, granularidad, inicio, puntos) " +
+            "SELECT estudiante_id, curso_id, 'MES', CAST(date_trunc('month', inicio) AS DATE), SUM(puntos) " +
+            "FROM dias " +
+            "GROUP BY estudiante_id, curso_id, CAST(date_trunc('month', inicio) AS DATE) " +
+            "ON CONFLICT (estudiante_id, curso_id, granularidad, inicio) DO UPDATE SET " +
+            "puntos = puntos_periodo.puntos + EXCLUDED.puntos",
+            nativeQuery = true)
+    int consolidarMeses(@Param("limite") LocalDate limite);
+
+    /**
+     * Ranking de un curso por puntos ganados en [desde, hasta), sumando acumulados
+     * (diarios y mensuales) en lugar de movimientos
+     */
+    @Query(value = "SELECT t.estudiante_id AS estudianteId, u.nombre_completo AS nombreCompleto, t.puntos AS puntos, " +
+            "CAST(RANK() OVER (ORDER BY t.puntos DESC) AS INTEGER) AS posicion " +
+            "FROM (SELECT estudiante_id, CAST(SUM(puntos) AS INTEGER) AS puntos " +
+            "      FROM grupo_03.puntos_periodo " +
+            "      WHERE curso_id = :cursoId AND inicio >= :desde AND inicio < :hasta " +
+            "      GROUP BY estudiante_id HAVING SUM(puntos) > 0) t " +
+            "JOIN grupo_03.usuario u ON u.id = t.estudiante_id " +
+            "ORDER BY posicion, t.estudiante_id " +
+            "LIMIT :limite",
+            nativeQuery = true)
+    List<RankingPeriodoView> findRankingPorCurso(@Param("cursoId") UUID cursoId,
+                                                 @Param("desde") LocalDate desde,
+                                                 @Param("hasta") LocalDate hasta,
+                                                 @Param("limite") int limite);
+
+    /**
+     * Ranking global por puntos ganados en [desde, hasta), sumando todos los cursos
+     */
+    @Query(value = "SELECT t.estudiante_id AS estudianteId, u.nombre_completo AS nombreCompleto, t.puntos AS puntos, " +
+            "CAST(RANK() OVER (ORDER BY t.puntos DESC) AS INTEGER) AS posicion " +
+            "FROM (SELECT estudiante_id, CAST(SUM(puntos) AS INTEGER) AS puntos " +
+            "      FROM grupo_03.puntos_periodo " +
+            "      WHERE inicio >= :desde AND inicio < :hasta " +
+            "      GROUP BY estudiante_id HAVING SUM(puntos) > 0) t " +
+            "JOIN grupo_03.usuario u ON u.id = t.estudiante_id " +
+            "ORDER BY posicion, t.estudiante_id " +
+            "LIMIT :limite",
+            nativeQuery = true)
+    List<RankingPeriodoView> findRankingGlobal(@Param("desde") LocalDate desde,
+                                               @Param("hasta") LocalDate hasta,
+                                               @Param("limite") int limite);
+}
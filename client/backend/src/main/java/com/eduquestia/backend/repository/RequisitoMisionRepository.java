@@ -0,0 +1,39 @@
+package com.eduquestia.backend.repository;
+
+import com.eduquestia.backend.entity.RequisitoMision;
+import com.eduquestia.backend.repository.projection.AristaRequisitoView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RequisitoMisionRepository extends JpaRepository<RequisitoMision, UUID> {
+
+    @Query("SELECT r.requisito.id FROM RequisitoMision r WHERE r.mision.id = :misionId")
+    List<UUID> findRequisitosIds(@Param("misionId") UUID misionId);
+
+    @Query("SELECT r.mision.id AS misionId, r.requisito.id AS requisitoId FROM RequisitoMision r " +
+           "WHERE r.mision.curso.id = :cursoId")
+    List<AristaRequisitoView> findAristasByCursoId(@Param("cursoId") UUID cursoId);
+
+    /**
+     * Aristas de todos los cursos en los que el estudiante tiene misiones asignadas
+     */
+    @Query("SELECT r.mision.id AS misionId, r.requisito.id AS requisitoId FROM RequisitoMision r " +
+           "WHERE r.mision.curso.id IN (SELECT p.mision.curso.id FROM ProgresoMision p " +
+           "                            WHERE p.estudiante.id = :estudianteId)")
+    List<AristaRequisitoView> findAristasEstudiante(@Param("estudianteId") UUID estudianteId);
+
+    @Modifying
+    @Query("DELETE FROM RequisitoMision r WHERE r.mision.id = :misionId")
+    int deleteByMisionId(@Param("misionId") UUID misionId);
+
+    @Modifying
+    @Query("DELETE FROM RequisitoMision r WHERE r.mision.id = :misionId OR r.requisito.id = :misionId")
+    int deleteAristasDeMision(@Param("misionId") UUID misionId);
+}
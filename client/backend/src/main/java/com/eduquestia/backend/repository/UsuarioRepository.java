@@ -1,9 +1,16 @@
 package com.eduquestia.backend.repository;
 
 import com.eduquestia.backend.entity.Usuario;
+import com.eduquestia.backend.repository.projection.UsuarioNombreView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,4 +21,16 @@ public interface UsuarioRepository extends JpaRepository<Usuario, UUID> {
     Optional<Usuario> findByUsername(String username);
     List<Usuario> findByRol(String rol);
     List<Usuario> findByRolAndActivoTrue(String rol);
+
+    @Query("SELECT u.id AS id, u.nombreCompleto AS nombreCompleto FROM Usuario u WHERE u.id IN :ids")
+    List<UsuarioNombreView> findNombresByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Registra el login sin cargar ni reescribir el usuario completo; transacción propia
+     * porque el login no abre una
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Usuario u SET u.ultimoAcceso = :fecha, u.lastLogin = :fecha WHERE u.id = :id")
+    int actualizarUltimoAcceso(@Param("id") UUID id, @Param("fecha") OffsetDateTime fecha);
 }
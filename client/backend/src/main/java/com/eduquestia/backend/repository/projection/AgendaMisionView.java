@@ -0,0 +1,8 @@
+package com.eduquestia.backend.repository.projection;
+
+/**
+ * Fila de la agenda de un estudiante: plazo de la misión y si ya la completó.
+ */
+public interface AgendaMisionView extends PlazoAgendaView {
+    Boolean getCompletada();
+}
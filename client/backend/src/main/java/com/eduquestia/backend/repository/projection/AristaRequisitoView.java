@@ -0,0 +1,11 @@
+package com.eduquestia.backend.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Arista del grafo de requisitos: la misión exige haber completado el requisito.
+ */
+public interface AristaRequisitoView {
+    UUID getMisionId();
+    UUID getRequisitoId();
+}
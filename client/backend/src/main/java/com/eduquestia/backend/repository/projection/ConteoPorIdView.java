@@ -0,0 +1,11 @@
+package com.eduquestia.backend.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Fila de un conteo agrupado: id de la entidad agrupada y su total.
+ */
+public interface ConteoPorIdView {
+    UUID getId();
+    Long getTotal();
+}
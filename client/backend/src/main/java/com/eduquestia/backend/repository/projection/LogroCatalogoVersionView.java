@@ -0,0 +1,12 @@
+package com.eduquestia.backend.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Firma barata del catálogo de logros: si cambia, hay que recargarlo.
+ */
+public interface LogroCatalogoVersionView {
+    Long getTotal();
+    LocalDateTime getUltimaCreacion();
+    LocalDateTime getUltimaActualizacion();
+}
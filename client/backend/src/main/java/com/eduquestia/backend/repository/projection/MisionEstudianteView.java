@@ -0,0 +1,32 @@
+package com.eduquestia.backend.repository.projection;
+
+import com.eduquestia.backend.entity.enums.CategoriaMision;
+import com.eduquestia.backend.entity.enums.DificultadMision;
+import com.eduquestia.backend.entity.enums.EstadoEntrega;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Fila plana del listado de misiones de un estudiante: misión, curso, progreso
+ * y entrega en una sola consulta. Los campos de la entrega son null si aún no existe.
+ */
+public interface MisionEstudianteView {
+    UUID getId();
+    String getTitulo();
+    String getDescripcion();
+    CategoriaMision getCategoria();
+    DificultadMision getDificultad();
+    Integer getPuntosRecompensa();
+    Integer getExperienciaRecompensa();
+    LocalDateTime getFechaInicio();
+    LocalDateTime getFechaLimite();
+    Boolean getActivo();
+    String getCursoNombre();
+    Integer getPorcentajeCompletado();
+    Boolean getCompletada();
+    LocalDateTime getFechaCompletado();
+    EstadoEntrega getEstadoEntrega();
+    Integer getPuntosObtenidos();
+    LocalDateTime getUltimaActividad();
+}
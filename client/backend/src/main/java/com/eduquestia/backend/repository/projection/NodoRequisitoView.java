@@ -0,0 +1,14 @@
+package com.eduquestia.backend.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Misión de un curso del estudiante, en el orden topológico del curso. Como
+ * requisito está satisfecha si el estudiante la completó o si no puede completarla
+ * (misión inactiva o sin asignar al estudiante).
+ */
+public interface NodoRequisitoView {
+    UUID getId();
+    UUID getCursoId();
+    Boolean getSatisfecha();
+}
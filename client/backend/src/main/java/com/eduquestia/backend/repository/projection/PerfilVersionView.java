@@ -0,0 +1,12 @@
+package com.eduquestia.backend.repository.projection;
+
+/**
+ * Datos baratos que determinan el perfil gamificado de un estudiante: si no
+ * cambian, el perfil tampoco (salvo la posición en el ranking, que se calcula aparte).
+ */
+public interface PerfilVersionView {
+    Integer getPuntos();
+    Integer getCompletadas();
+    // Últimas fechas de entrega, progreso y logro, y número de logros
+    String getMarcas();
+}
@@ -0,0 +1,22 @@
+package com.eduquestia.backend.repository.projection;
+
+import com.eduquestia.backend.entity.enums.CategoriaMision;
+import com.eduquestia.backend.entity.enums.DificultadMision;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Fecha límite de una misión activa con los datos que muestra la agenda (misión y curso).
+ */
+public interface PlazoAgendaView {
+    UUID getId();
+    String getTitulo();
+    CategoriaMision getCategoria();
+    DificultadMision getDificultad();
+    Integer getPuntosRecompensa();
+    LocalDateTime getFechaInicio();
+    LocalDateTime getFechaLimite();
+    UUID getCursoId();
+    String getCursoNombre();
+}
@@ -0,0 +1,12 @@
+package com.eduquestia.backend.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Fecha límite de una misión activa, para programar su vencimiento y recordatorios.
+ */
+public interface PlazoMisionView {
+    UUID getId();
+    LocalDateTime getFechaLimite();
+}
@@ -0,0 +1,16 @@
+package com.eduquestia.backend.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Progreso de un estudiante en una misión junto con su nombre y avatar (una sola consulta con join)
+ */
+public interface ProgresoEstudianteView {
+    UUID getEstudianteId();
+    String getNombreCompleto();
+    String getAvatarUrl();
+    Integer getPorcentajeCompletado();
+    Boolean getCompletada();
+    LocalDateTime getUltimaActividad();
+}
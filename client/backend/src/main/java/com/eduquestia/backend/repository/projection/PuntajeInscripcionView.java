@@ -0,0 +1,13 @@
+package com.eduquestia.backend.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Puntaje acumulado de un estudiante dentro de una inscripción activa.
+ */
+public interface PuntajeInscripcionView {
+    UUID getCursoId();
+    UUID getEstudianteId();
+    Integer getPuntosTotales();
+    Integer getMisionesCompletadas();
+}
@@ -0,0 +1,14 @@
+package com.eduquestia.backend.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Fila de ranking: solo los campos necesarios para construir
+ * un RankingEstudianteResponse, sin cargar la entidad Usuario.
+ */
+public interface PuntajeRankingView {
+    UUID getEstudianteId();
+    String getNombreCompleto();
+    Integer getPuntosTotales();
+    Integer getMisionesCompletadas();
+}
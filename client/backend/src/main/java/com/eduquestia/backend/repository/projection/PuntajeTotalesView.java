@@ -0,0 +1,9 @@
+package com.eduquestia.backend.repository.projection;
+
+/**
+ * Totales actuales del acumulado de un estudiante.
+ */
+public interface PuntajeTotalesView {
+    Integer getPuntosTotales();
+    Integer getMisionesCompletadas();
+}
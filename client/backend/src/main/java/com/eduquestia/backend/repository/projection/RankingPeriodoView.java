@@ -0,0 +1,13 @@
+package com.eduquestia.backend.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Fila de un ranking por periodo: puntos ganados dentro de la ventana y posición (RANK())
+ */
+public interface RankingPeriodoView {
+    UUID getEstudianteId();
+    String getNombreCompleto();
+    Integer getPuntos();
+    Integer getPosicion();
+}
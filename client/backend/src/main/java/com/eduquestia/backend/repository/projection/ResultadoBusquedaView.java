@@ -0,0 +1,11 @@
+package com.eduquestia.backend.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Misión encontrada por la búsqueda de texto y su relevancia (ts_rank).
+ */
+public interface ResultadoBusquedaView {
+    UUID getId();
+    Float getRelevancia();
+}
@@ -0,0 +1,11 @@
+package com.eduquestia.backend.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Id y nombre de un usuario, sin cargar el resto de la entidad (ni el hash de contraseña).
+ */
+public interface UsuarioNombreView {
+    UUID getId();
+    String getNombreCompleto();
+}
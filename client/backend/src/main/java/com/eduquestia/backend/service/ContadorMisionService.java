@@ -0,0 +1,111 @@
+package com.eduquestia.backend.service;
+
+import com.eduquestia.backend.entity.ContadorMision;
+import com.eduquestia.backend.repository.ContadorMisionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Mantiene los contadores de estudiantes por misión (tabla contadores_mision).
+ * Los incrementos se unen a la transacción del llamador, de modo que se
+ * confirman o revierten junto con el cambio de progreso que los origina.
+ * La reconciliación periódica corrige cualquier desviación respecto de progreso_mision.
+ */
+@Service
+@Transactional
+@Slf4j
+public class ContadorMisionService {
+
+    private static final int MISIONES_POR_LOTE = 500;
+
+    private final ContadorMisionRepository contadorRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter contadorReparados;
+
+    public ContadorMisionService(ContadorMisionRepository contadorRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.contadorRepository = contadorRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.contadorReparados = meterRegistry.counter("misiones.contadores.reparados");
+    }
+
+    /**
+     * Registra estudiantes recién asignados a la misión (crea la fila de contadores si no existe)
+     */
+    public void registrarAsignados(UUID misionId, int cantidad) {
+        contadorRepository.sumarAsignados(misionId, cantidad, LocalDateTime.now());
+    }
+
+    /**
+     * Registra que un estudiante completó la misión
+     */
+    public void registrarCompletado(UUID misionId) {
+        LocalDateTime ahora = LocalDateTime.now();
+        if (contadorRepository.registrarCompletado(misionId, ahora) == 0) {
+            // Misión anterior a los contadores: se calcula su fila completa
+            contadorRepository.bloquear(List.of(misionId));
+            contadorRepository.recalcular(List.of(misionId), ahora);
+        }
+    }
+
+    /**
+     * Contadores de la misión; una misión sin fila todavía no tiene estudiantes asignados
+     */
+    @Transactional(readOnly = true)
+    public ContadorMision obtener(UUID misionId) {
+        return contadorRepository.findById(misionId).orElseGet(() -> {
+            ContadorMision vacio = new ContadorMision();
+            vacio.setMisionId(misionId);
+            return vacio;
+        });
+    }
+
+    /**
+     * Recalcula los contadores de todas las misiones desde progreso_mision, por lotes.
+     * Cada lote bloquea sus filas de contadores antes de contar, así los incrementos
+     * concurrentes esperan y se aplican sobre el valor ya corregido.
+     */
+    @Scheduled(cron = "${misiones.contadores.reconciliar-cron:0 45 3 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int reconciliar() {
+        int reparados = 0;
+        UUID despues = new UUID(0L, 0L);
+
+        while (true) {
+            UUID desde = despues;
+            List<UUID> misionesIds = transactionTemplate.execute(status ->
+                    contadorRepository.findIdsMisionesDespues(desde, Limit.of(MISIONES_POR_LOTE)));
+            if (misionesIds.isEmpty()) {
+                break;
+            }
+            reparados += transactionTemplate.execute(status -> {
+                contadorRepository.bloquear(misionesIds);
+                return contadorRepository.recalcular(misionesIds, LocalDateTime.now());
+            });
+            despues = misionesIds.get(misionesIds.size() - 1);
+        }
+
+        int huerfanos = transactionTemplate.execute(status -> contadorRepository.eliminarHuerfanos());
+
+        contadorReparados.increment(reparados);
+        if (reparados > 0 || huerfanos > 0) {
+            log.warn("Contadores de misión reconciliados: {} corregidos, {} huérfanos eliminados", reparados, huerfanos);
+        } else {
+            log.info("Contadores de misión reconciliados: sin desviaciones");
+        }
+        return reparados;
+    }
+}
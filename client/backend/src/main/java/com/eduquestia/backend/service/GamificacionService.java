@@ -1,8 +1,13 @@
 package com.eduquestia.backend.service;
 
 import com.eduquestia.backend.dto.response.PerfilGamificadoResponse;
+import com.eduquestia.backend.entity.Logro;
+import com.eduquestia.backend.dto.response.RankingPeriodoResponse;
 import com.eduquestia.backend.dto.response.RankingResponse;
+import com.eduquestia.backend.dto.response.RankingVecindadResponse;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 public interface GamificacionService {
@@ -11,21 +16,68 @@ public interface GamificacionService {
      * Obtiene el perfil gamificado completo del estudiante
      */
     PerfilGamificadoResponse obtenerPerfilGamificado(UUID estudianteId);
+
+    /**
+     * Obtiene el perfil gamificado cuando quien llama ya calculó su versión
+     * (por ejemplo, para el ETag), así no se vuelve a calcular
+     */
+    default PerfilGamificadoResponse obtenerPerfilGamificado(UUID estudianteId, String version) {
+        return obtenerPerfilGamificado(estudianteId);
+    }
+
+    /**
+     * Versión del perfil gamificado: cambia cuando cambia cualquier dato del perfil
+     * (puntos, misiones, logros, catálogo de logros o posición en el ranking)
+     */
+    String obtenerVersionPerfil(UUID estudianteId);
     
     /**
      * Verifica y otorga logros al estudiante cuando gana puntos
+     * (evaluación completa contra su puntaje acumulado actual)
      */
     void verificarYOtorgarLogros(UUID estudianteId);
+
+    /**
+     * Otorga solo los logros cuyos umbrales se cruzaron al pasar de los totales
+     * anteriores a los nuevos. Devuelve los logros otorgados.
+     */
+    List<Logro> otorgarLogrosAlcanzados(UUID estudianteId,
+                                        int puntosAnteriores, int puntosNuevos,
+                                        int completadasAnteriores, int completadasNuevas);
     
     /**
      * Obtiene el ranking de estudiantes en un curso
      */
     RankingResponse obtenerRankingPorCurso(UUID cursoId);
+
+    /**
+     * Obtiene una página del ranking de un curso (top K / cursor)
+     */
+    RankingResponse obtenerRankingPorCurso(UUID cursoId, Integer limite, String despues);
     
+    /**
+     * Obtiene la posición del estudiante en su curso junto con los vecinos
+     * que tiene por arriba y por abajo (hasta {@code radio} en cada lado)
+     */
+    RankingVecindadResponse obtenerRankingAlrededorDeEstudiante(UUID cursoId, UUID estudianteId, Integer radio);
+
     /**
      * Obtiene el ranking global de todos los estudiantes
      */
     RankingResponse obtenerRankingGlobal();
+
+    /**
+     * Obtiene una página del ranking global (top K / cursor)
+     */
+    RankingResponse obtenerRankingGlobal(Integer limite, String despues);
+
+    /**
+     * Obtiene el ranking por puntos ganados en un periodo: "semana" (actual),
+     * "mes" (actual) o personalizado entre {@code desde} y {@code hasta} (inclusive).
+     * Con {@code cursoId} null se suman los puntos de todos los cursos.
+     */
+    RankingPeriodoResponse obtenerRankingPorPeriodo(UUID cursoId, String periodo,
+                                                    LocalDate desde, LocalDate hasta, Integer limite);
     
     /**
      * Calcula el nivel basado en puntos
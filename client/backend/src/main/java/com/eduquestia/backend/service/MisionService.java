@@ -3,12 +3,18 @@ package com.eduquestia.backend.service;
 import com.eduquestia.backend.dto.request.CompletarMisionRequest;
 import com.eduquestia.backend.dto.request.MisionCreateRequest;
 import com.eduquestia.backend.dto.request.MisionUpdateRequest;
+import com.eduquestia.backend.dto.response.AgendaMisionResponse;
+import com.eduquestia.backend.dto.response.AsignacionMisionResponse;
+import com.eduquestia.backend.dto.response.EstudianteProgresoResponse;
 import com.eduquestia.backend.dto.response.MisionEstudianteResponse;
 import com.eduquestia.backend.dto.response.MisionListResponse;
 import com.eduquestia.backend.dto.response.MisionProgresoResponse;
 import com.eduquestia.backend.dto.response.MisionResponse;
+import com.eduquestia.backend.dto.response.PaginaResponse;
 import com.eduquestia.backend.entity.enums.CategoriaMision;
+import com.eduquestia.backend.entity.enums.DificultadMision;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,24 +24,60 @@ public interface MisionService {
 
     MisionResponse obtenerMisionPorId(UUID misionId);
 
+    String obtenerVersionMision(UUID misionId);
+
     List<MisionListResponse> listarMisionesPorProfesor(UUID profesorId);
 
     List<MisionListResponse> listarMisionesPorCurso(UUID cursoId);
 
     List<MisionListResponse> listarMisionesPorCursoYCategoria(UUID cursoId, CategoriaMision categoria);
 
+    // Listados paginados por clave (fecha límite, id): limite y cursor opcionales
+    PaginaResponse<MisionListResponse> listarMisionesPorProfesor(UUID profesorId, Integer limite, String despues);
+
+    PaginaResponse<MisionListResponse> listarMisionesPorCurso(UUID cursoId, CategoriaMision categoria,
+                                                             Integer limite, String despues);
+
+    // Búsqueda de texto en título, descripción y contenidos de las misiones del profesor, por relevancia
+    PaginaResponse<MisionListResponse> buscarMisiones(UUID profesorId, String texto, UUID cursoId,
+                                                      CategoriaMision categoria, DificultadMision dificultad,
+                                                      Integer limite, String despues);
+
     MisionResponse actualizarMision(UUID misionId, MisionUpdateRequest request, UUID profesorId);
 
     void eliminarMision(UUID misionId, UUID profesorId);
 
     MisionProgresoResponse obtenerProgresoMision(UUID misionId, UUID profesorId);
 
-    void asignarMisionAEstudiantes(UUID misionId, List<UUID> estudiantesIds, UUID profesorId);
+    // Progreso por estudiante paginado: estado (completada, en_progreso, no_iniciada) y orden (estado, porcentaje, actividad) opcionales
+    PaginaResponse<EstudianteProgresoResponse> listarProgresoEstudiantes(UUID misionId, UUID profesorId, String estado,
+                                                                        String orden, Integer limite, String despues);
+
+    AsignacionMisionResponse asignarMisionAEstudiantes(UUID misionId, List<UUID> estudiantesIds, UUID profesorId);
 
     // Métodos para estudiantes
     List<MisionEstudianteResponse> listarMisionesPorEstudiante(UUID estudianteId);
 
+    List<MisionEstudianteResponse> listarMisionesPorEstudiante(UUID estudianteId, String estado,
+                                                               LocalDate venceDesde, LocalDate venceHasta);
+
+    PaginaResponse<MisionEstudianteResponse> listarMisionesPorEstudiante(UUID estudianteId, String estado,
+                                                                         LocalDate venceDesde, LocalDate venceHasta,
+                                                                         Integer limite, String despues);
+
+    // Fechas límite de las misiones activas de los cursos del estudiante entre dos fechas (ambas incluidas)
+    List<AgendaMisionResponse> listarAgendaEstudiante(UUID estudianteId, LocalDate desde, LocalDate hasta);
+
+    // Misiones activas sin completar cuyos requisitos (directos e indirectos) ya completó el estudiante;
+    // los requisitos inactivos o sin asignar no bloquean
+    List<MisionEstudianteResponse> listarMisionesDesbloqueadas(UUID estudianteId);
+
     MisionEstudianteResponse completarMision(UUID misionId, CompletarMisionRequest request, UUID estudianteId);
+
+    // Igual que completarMision, pero si la misión ya se completó con la misma clave devuelve
+    // la respuesta reconstruida desde la entrega guardada en lugar de rechazar el reintento
+    MisionEstudianteResponse completarMision(UUID misionId, CompletarMisionRequest request, UUID estudianteId,
+                                             String claveIdempotencia);
     
     Integer obtenerPuntosTotalesEstudiante(UUID estudianteId);
 }
@@ -1,16 +1,23 @@
 package com.eduquestia.backend.service;
 
+import com.eduquestia.backend.entity.Logro;
 import com.eduquestia.backend.entity.Mision;
 import com.eduquestia.backend.entity.Notificacion;
+import com.eduquestia.backend.entity.OutboxNotificacion;
 import com.eduquestia.backend.entity.Usuario;
 import com.eduquestia.backend.entity.enums.TipoNotificacion;
 import com.eduquestia.backend.repository.NotificacionRepository;
+import com.eduquestia.backend.repository.OutboxNotificacionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.UUID;
 
 @Service
 @Transactional
@@ -19,31 +26,120 @@ import java.time.format.DateTimeFormatter;
 public class NotificacionService {
 
     private final NotificacionRepository notificacionRepository;
+    private final OutboxNotificacionRepository outboxRepository;
 
-    public void crearNotificacionNuevaMision(Usuario estudiante, Mision mision) {
+    /**
+     * Registra en el outbox una notificación de misión nueva para todos los
+     * estudiantes del curso. La transacción del profesor escribe una sola fila;
+     * el despachador crea las notificaciones individuales después del commit.
+     */
+    public void encolarNotificacionNuevaMision(Mision mision) {
+        OutboxNotificacion registro = registroNuevaMision(mision);
+        registro.setCursoId(mision.getCurso().getId());
+
+        outboxRepository.save(registro);
+
+        log.info("Notificación de misión {} encolada para el curso {}", mision.getId(), mision.getCurso().getId());
+    }
+
+    /**
+     * Registra en el outbox una notificación de misión nueva solo para los
+     * estudiantes indicados (asignación manual de una misión)
+     */
+    public void encolarNotificacionNuevaMision(Mision mision, Collection<UUID> estudiantesIds) {
+        OutboxNotificacion registro = registroNuevaMision(mision);
+        registro.setDestinatarios(estudiantesIds.toArray(UUID[]::new));
+
+        outboxRepository.save(registro);
+
+        log.info("Notificación de misión {} encolada para {} estudiantes", mision.getId(), estudiantesIds.size());
+    }
+
+    /**
+     * Registra en el outbox un recordatorio de la fecha límite para los
+     * estudiantes que todavía no completaron la misión
+     */
+    public void encolarRecordatorioMision(Mision mision, Duration antelacion, Collection<UUID> estudiantesIds) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+        OutboxNotificacion registro = new OutboxNotificacion();
+        registro.setTipo(TipoNotificacion.MISION_POR_VENCER);
+        registro.setTitulo("Misión por vencer");
+        registro.setMensaje(String.format(
+                "La misión '%s' del curso %s vence en %s (%s)",
+                mision.getTitulo(),
+                mision.getCurso().getNombre(),
+                describirAntelacion(antelacion),
+                mision.getFechaLimite().format(formatter)
+        ));
+        registro.setReferenciaId(mision.getId());
+        registro.setDestinatarios(estudiantesIds.toArray(UUID[]::new));
+        registro.setProximoIntento(LocalDateTime.now());
+
+        outboxRepository.save(registro);
+
+        log.info("Recordatorio de misión {} encolado para {} estudiantes", mision.getId(), estudiantesIds.size());
+    }
+
+    public void crearNotificacionLogroDesbloqueado(Usuario estudiante, Logro logro) {
         try {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+            Notificacion notificacion = new Notificacion();
+            notificacion.setUsuario(estudiante);
+            notificacion.setTipo(TipoNotificacion.LOGRO_DESBLOQUEADO);
+            notificacion.setTitulo("¡Logro desbloqueado!");
+            notificacion.setMensaje(String.format("Has obtenido el logro '%s'", logro.getNombre()));
+            notificacion.setReferenciaId(logro.getId());
+            notificacion.setLeida(false);
+
+            notificacionRepository.save(notificacion);
+
+            log.info("Notificación de logro creada para estudiante: {} logro: {}",
+                    estudiante.getId(), logro.getId());
+        } catch (Exception e) {
+            log.error("Error al crear notificación de logro para estudiante: {}", estudiante.getId(), e);
+        }
+    }
 
+    public void crearNotificacionNivelSubido(Usuario estudiante, int nivel) {
+        try {
             Notificacion notificacion = new Notificacion();
             notificacion.setUsuario(estudiante);
-            notificacion.setTipo(TipoNotificacion.MISION_NUEVA);
-            notificacion.setTitulo("Nueva misión disponible");
-            notificacion.setMensaje(String.format(
-                    "Se ha asignado la misión '%s' en el curso %s. Fecha límite: %s",
-                    mision.getTitulo(),
-                    mision.getCurso().getNombre(),
-                    mision.getFechaLimite().format(formatter)
-            ));
-            notificacion.setReferenciaId(mision.getId());
+            notificacion.setTipo(TipoNotificacion.NIVEL_SUBIDO);
+            notificacion.setTitulo("¡Subiste de nivel!");
+            notificacion.setMensaje(String.format("Has alcanzado el nivel %d", nivel));
             notificacion.setLeida(false);
 
             notificacionRepository.save(notificacion);
 
-            log.info("Notificación creada para estudiante: {} sobre misión: {}",
-                    estudiante.getId(), mision.getId());
+            log.info("Notificación de nivel {} creada para estudiante: {}", nivel, estudiante.getId());
         } catch (Exception e) {
-            log.error("Error al crear notificación para estudiante: {}", estudiante.getId(), e);
-            // No lanzamos excepción para no afectar el flujo principal
+            log.error("Error al crear notificación de nivel para estudiante: {}", estudiante.getId(), e);
+        }
+    }
+
+    private OutboxNotificacion registroNuevaMision(Mision mision) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+        OutboxNotificacion registro = new OutboxNotificacion();
+        registro.setTipo(TipoNotificacion.MISION_NUEVA);
+        registro.setTitulo("Nueva misión disponible");
+        registro.setMensaje(String.format(
+                "Se ha asignado la misión '%s' en el curso %s. Fecha límite: %s",
+                mision.getTitulo(),
+                mision.getCurso().getNombre(),
+                mision.getFechaLimite().format(formatter)
+        ));
+        registro.setReferenciaId(mision.getId());
+        registro.setProximoIntento(LocalDateTime.now());
+        return registro;
+    }
+
+    private String describirAntelacion(Duration antelacion) {
+        if (antelacion.toHours() > 0 && antelacion.toMinutesPart() == 0) {
+            long horas = antelacion.toHours();
+            return horas == 1 ? "1 hora" : horas + " horas";
         }
+        long minutos = antelacion.toMinutes();
+        return minutos == 1 ? "1 minuto" : minutos + " minutos";
     }
 }
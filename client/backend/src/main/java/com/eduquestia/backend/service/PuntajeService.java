@@ -0,0 +1,150 @@
+package com.eduquestia.backend.service;
+
+import com.eduquestia.backend.entity.MovimientoPuntos;
+import com.eduquestia.backend.entity.enums.TipoMovimientoPuntos;
+import com.eduquestia.backend.repository.MovimientoPuntosRepository;
+import com.eduquestia.backend.repository.PuntajeEstudianteRepository;
+import com.eduquestia.backend.repository.PuntosPeriodoRepository;
+import com.eduquestia.backend.repository.projection.PuntajeTotalesView;
+import com.eduquestia.backend.service.ranking.RankingEnMemoria;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Mantiene el acumulado de puntos por estudiante (tabla puntajes_estudiante),
+ * el libro de movimientos de puntos (movimientos_puntos) y los acumulados por
+ * periodo (puntos_periodo) usados por los rankings semanales y mensuales.
+ * Todos los métodos se unen a la transacción del llamador, de modo que los
+ * acumulados se confirman o revierten junto con la entrega que los origina.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class PuntajeService {
+
+    private final PuntajeEstudianteRepository puntajeRepository;
+    private final MovimientoPuntosRepository movimientoRepository;
+    private final PuntosPeriodoRepository puntosPeriodoRepository;
+    private final RankingEnMemoria rankingEnMemoria;
+
+    @Value("${gamificacion.puntos-periodo.retencion-dias:90}")
+    private int retencionDias;
+
+    /**
+     * Registra una misión completada y los puntos otorgados por ella.
+     * Devuelve los totales resultantes; los rankings en memoria los actualiza
+     * el procesador del evento MisionCompletada.
+     */
+    public PuntajeTotalesView registrarMisionCompletada(UUID estudianteId, UUID misionId, UUID cursoId, int puntos) {
+        LocalDateTime ahora = LocalDateTime.now();
+        puntajeRepository.acumular(estudianteId, puntos, 1, ahora);
+        registrarMovimiento(estudianteId, misionId, cursoId, TipoMovimientoPuntos.MISION_COMPLETADA, puntos, ahora);
+        return leerTotales(estudianteId);
+    }
+
+    /**
+     * Registra un ajuste de puntos sobre una entrega ya completada
+     * (por ejemplo, cuando el profesor califica y cambia los puntos obtenidos)
+     */
+    public void registrarAjustePuntos(UUID estudianteId, UUID misionId, UUID cursoId,
+                                      int puntosAnteriores, int puntosNuevos) {
+        int diferencia = puntosNuevos - puntosAnteriores;
+        if (diferencia != 0) {
+            LocalDateTime ahora = LocalDateTime.now();
+            puntajeRepository.acumular(estudianteId, diferencia, 0, ahora);
+            registrarMovimiento(estudianteId, misionId, cursoId, TipoMovimientoPuntos.AJUSTE_CALIFICACION, diferencia, ahora);
+            publicarEnRanking(estudianteId);
+        }
+    }
+
+    /**
+     * Reconstruye todos los acumulados a partir de entregas_mision y progreso_mision
+     */
+    public int reconstruir() {
+        log.info("Reconstruyendo acumulados de puntaje desde entregas_mision");
+
+        puntajeRepository.eliminarTodos();
+        int filas = puntajeRepository.reconstruirDesdeEntregas(LocalDateTime.now());
+
+        log.info("Acumulados de puntaje reconstruidos: {} estudiantes", filas);
+        despuesDelCommit(rankingEnMemoria::recargar);
+        return filas;
+    }
+
+    /**
+     * Consolida en acumulados mensuales los acumulados diarios de meses completos
+     * más antiguos que gamificacion.puntos-periodo.retencion-dias. Puede correr en
+     * varias instancias a la vez: cada día se consolida una sola vez.
+     */
+    @Scheduled(cron = "${gamificacion.puntos-periodo.consolidar-cron:0 30 3 * * *}")
+    public void consolidarPeriodos() {
+        LocalDate limite = inicioAcumuladosDiarios();
+        int meses = puntosPeriodoRepository.consolidarMeses(limite);
+        log.info("Acumulados por periodo consolidados antes de {}: {} meses actualizados", limite, meses);
+    }
+
+    /**
+     * Primer día con acumulados diarios: antes solo hay acumulados por mes completo
+     */
+    public LocalDate inicioAcumuladosDiarios() {
+        return LocalDate.now().minusDays(retencionDias).withDayOfMonth(1);
+    }
+
+    /**
+     * Agrega el movimiento al libro de puntos y al acumulado diario del curso
+     */
+    private void registrarMovimiento(UUID estudianteId, UUID misionId, UUID cursoId,
+                                     TipoMovimientoPuntos tipo, int puntos, LocalDateTime fecha) {
+        if (puntos == 0) {
+            return;
+        }
+        MovimientoPuntos movimiento = new MovimientoPuntos();
+        movimiento.setEstudianteId(estudianteId);
+        movimiento.setCursoId(cursoId);
+        movimiento.setMisionId(misionId);
+        movimiento.setTipo(tipo);
+        movimiento.setPuntos(puntos);
+        movimiento.setFecha(fecha);
+        movimientoRepository.save(movimiento);
+
+        puntosPeriodoRepository.sumarDia(estudianteId, cursoId, fecha.toLocalDate(), puntos);
+    }
+
+    /**
+     * Lleva los totales recién acumulados a los rankings en memoria una vez confirmada la transacción
+     */
+    private void publicarEnRanking(UUID estudianteId) {
+        PuntajeTotalesView totales = leerTotales(estudianteId);
+        despuesDelCommit(() -> rankingEnMemoria.actualizarEstudiante(
+                estudianteId, totales.getPuntosTotales(), totales.getMisionesCompletadas()));
+    }
+
+    private PuntajeTotalesView leerTotales(UUID estudianteId) {
+        return puntajeRepository.findTotalesByEstudianteId(estudianteId)
+                .orElseThrow(() -> new IllegalStateException("Acumulado no encontrado para estudiante " + estudianteId));
+    }
+
+    private void despuesDelCommit(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,173 @@
+package com.eduquestia.backend.service.agenda;
+
+import com.eduquestia.backend.event.PlazoMisionModificado;
+import com.eduquestia.backend.repository.MisionRepository;
+import com.eduquestia.backend.repository.projection.PlazoAgendaView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Índice en memoria de las fechas límite de las misiones activas de cada curso,
+ * para la agenda de los estudiantes ({@code misiones.agenda.indice.habilitado}).
+ *
+ * Cada curso guarda sus misiones ordenadas por (fecha límite, id) y responde una
+ * ventana [desde, hasta) con dos búsquedas binarias, así desplazar el calendario
+ * no vuelve a consultar las misiones. Los cursos se cargan la primera vez que se
+ * piden (todos los que faltan en una consulta) y se descartan al confirmarse un
+ * cambio de alguna de sus misiones ({@link PlazoMisionModificado}), al superar
+ * {@code ttl-ms} (cambios hechos desde otra instancia) o por LRU.
+ *
+ * Las filas se comparten entre peticiones: quien las obtiene no debe modificarlas.
+ */
+@Component
+public class IndiceAgendaCursos {
+
+    private static final Comparator<PlazoAgendaView> POR_FECHA_LIMITE =
+            Comparator.comparing(PlazoAgendaView::getFechaLimite).thenComparing(PlazoAgendaView::getId);
+
+    // Misiones activas de un curso en orden (fechaLimite, id); fechas[i] es la fecha límite de misiones[i]
+    private record PlazosCurso(LocalDateTime[] fechas, List<PlazoAgendaView> misiones, long cargadoEn) {
+
+        static PlazosCurso de(List<PlazoAgendaView> misiones, long cargadoEn) {
+            LocalDateTime[] fechas = new LocalDateTime[misiones.size()];
+            for (int i = 0; i < fechas.length; i++) {
+                fechas[i] = misiones.get(i).getFechaLimite();
+            }
+            return new PlazosCurso(fechas, List.copyOf(misiones), cargadoEn);
+        }
+
+        List<PlazoAgendaView> entre(LocalDateTime desde, LocalDateTime hasta) {
+            return misiones.subList(primeraDesde(desde), primeraDesde(hasta));
+        }
+
+        // Primera posición con fecha límite >= fecha
+        private int primeraDesde(LocalDateTime fecha) {
+            int bajo = 0;
+            int alto = fechas.length;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (fechas[medio].isBefore(fecha)) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            return bajo;
+        }
+    }
+
+    private final MisionRepository misionRepository;
+    private final boolean habilitado;
+    private final long ttlMs;
+    private final Map<UUID, PlazosCurso> cursos;
+    // Cambia con cada invalidación: una carga que se cruzó con una no se guarda
+    private long generacion;
+
+    private final Counter aciertos;
+    private final Counter fallos;
+
+    public IndiceAgendaCursos(
+            MisionRepository misionRepository,
+            MeterRegistry meterRegistry,
+            @Value("${misiones.agenda.indice.habilitado:true}") boolean habilitado,
+            @Value("${misiones.agenda.indice.max-cursos:1000}") int maxCursos,
+            @Value("${misiones.agenda.indice.ttl-ms:60000}") long ttlMs) {
+        this.misionRepository = misionRepository;
+        this.habilitado = habilitado;
+        this.ttlMs = ttlMs;
+        this.cursos = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, PlazosCurso> mayor) {
+                return size() > maxCursos;
+            }
+        };
+        this.aciertos = meterRegistry.counter("cache.aciertos", "cache", "agenda_cursos");
+        this.fallos = meterRegistry.counter("cache.fallos", "cache", "agenda_cursos");
+        Gauge.builder("cache.entradas", this, IndiceAgendaCursos::tamano)
+                .tag("cache", "agenda_cursos")
+                .register(meterRegistry);
+    }
+
+    public boolean habilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Misiones activas de los cursos que vencen en [desde, hasta), ordenadas por (fecha límite, id)
+     */
+    public List<PlazoAgendaView> entre(Collection<UUID> cursosIds, LocalDateTime desde, LocalDateTime hasta) {
+        long ahora = System.currentTimeMillis();
+        Map<UUID, PlazosCurso> indices = new HashMap<>(cursosIds.size() * 2);
+        List<UUID> faltantes = new ArrayList<>();
+        long generacionCarga;
+        synchronized (cursos) {
+            generacionCarga = generacion;
+            for (UUID cursoId : cursosIds) {
+                PlazosCurso plazos = cursos.get(cursoId);
+                if (plazos != null && ahora - plazos.cargadoEn() < ttlMs) {
+                    indices.put(cursoId, plazos);
+                } else {
+                    faltantes.add(cursoId);
+                }
+            }
+        }
+        aciertos.increment(indices.size());
+
+        if (!faltantes.isEmpty()) {
+            fallos.increment(faltantes.size());
+            Map<UUID, List<PlazoAgendaView>> porCurso = new HashMap<>();
+            for (UUID cursoId : faltantes) {
+                porCurso.put(cursoId, new ArrayList<>());
+            }
+            // Ya vienen ordenadas por (fecha límite, id)
+            for (PlazoAgendaView plazo : misionRepository.findPlazosAgendaPorCursos(faltantes)) {
+                porCurso.get(plazo.getCursoId()).add(plazo);
+            }
+            synchronized (cursos) {
+                for (Map.Entry<UUID, List<PlazoAgendaView>> curso : porCurso.entrySet()) {
+                    PlazosCurso plazos = PlazosCurso.de(curso.getValue(), ahora);
+                    indices.put(curso.getKey(), plazos);
+                    if (generacion == generacionCarga) {
+                        cursos.put(curso.getKey(), plazos);
+                    }
+                }
+            }
+        }
+
+        List<PlazoAgendaView> resultado = new ArrayList<>();
+        for (PlazosCurso plazos : indices.values()) {
+            resultado.addAll(plazos.entre(desde, hasta));
+        }
+        resultado.sort(POR_FECHA_LIMITE);
+        return resultado;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alModificarPlazo(PlazoMisionModificado evento) {
+        synchronized (cursos) {
+            generacion++;
+            cursos.remove(evento.cursoId());
+        }
+    }
+
+    public int tamano() {
+        synchronized (cursos) {
+            return cursos.size();
+        }
+    }
+}
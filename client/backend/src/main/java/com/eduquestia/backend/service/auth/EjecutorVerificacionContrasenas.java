@@ -0,0 +1,159 @@
+package com.eduquestia.backend.service.auth;
+
+import com.eduquestia.backend.exceptions.DemasiadasSolicitudesException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecuta la verificación de contraseñas del login en un pool propio, del
+ * tamaño de las CPU ({@code auth.hash.hilos}, 0 = una por CPU) y con una cola
+ * acotada ({@code auth.hash.cola}).
+ *
+ * Antes de encolar se admite la verificación por cuenta y por IP de origen
+ * ({@code auth.hash.max-por-cuenta}, {@code auth.hash.max-por-ip}
+ * verificaciones simultáneas). Si la admisión falla, la cola está llena o la
+ * espera supera {@code auth.hash.espera-maxima-ms}, se responde 429 de
+ * inmediato. Así una ráfaga de logins ocupa como mucho hilos + cola hilos de
+ * Tomcat esperando, y el resto de endpoints sigue atendiéndose.
+ */
+@Component
+public class EjecutorVerificacionContrasenas {
+
+    private static final String MENSAJE_OCUPADO = "Demasiados inicios de sesión en curso, reintenta en unos segundos";
+
+    private final VerificadorContrasenas verificador;
+    private final ThreadPoolExecutor ejecutor;
+    private final long esperaMaximaMs;
+    private final LimitadorConcurrencia<String> porCuenta;
+    private final LimitadorConcurrencia<String> porIp;
+
+    private final Timer tiempoEnCola;
+    private final Counter rechazosCola;
+    private final Counter rechazosCuenta;
+    private final Counter rechazosIp;
+    private final Counter rechazosEspera;
+
+    public EjecutorVerificacionContrasenas(
+            VerificadorContrasenas verificador,
+            MeterRegistry meterRegistry,
+            @Value("${auth.hash.hilos:0}") int hilos,
+            @Value("${auth.hash.cola:64}") int cola,
+            @Value("${auth.hash.espera-maxima-ms:10000}") long esperaMaximaMs,
+            @Value("${auth.hash.max-por-cuenta:2}") int maxPorCuenta,
+            @Value("${auth.hash.max-por-ip:32}") int maxPorIp) {
+        this.verificador = verificador;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.porCuenta = new LimitadorConcurrencia<>(maxPorCuenta);
+        this.porIp = new LimitadorConcurrencia<>(maxPorIp);
+
+        int tamano = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        AtomicInteger numero = new AtomicInteger();
+        this.ejecutor = new ThreadPoolExecutor(tamano, tamano, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(cola),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "verificacion-contrasenas-" + numero.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.hash.cola", ejecutor, e -> e.getQueue().size())
+                .description("Verificaciones de contraseña esperando un hilo")
+                .register(meterRegistry);
+        Gauge.builder("auth.hash.cola.capacidad", ejecutor, e -> e.getQueue().size() + e.getQueue().remainingCapacity())
+                .register(meterRegistry);
+        Gauge.builder("auth.hash.activos", ejecutor, ThreadPoolExecutor::getActiveCount)
+                .description("Verificaciones de contraseña en ejecución")
+                .register(meterRegistry);
+        this.tiempoEnCola = Timer.builder("auth.hash.espera")
+                .description("Tiempo en cola antes de verificar la contraseña")
+                .register(meterRegistry);
+        this.rechazosCola = meterRegistry.counter("auth.hash.rechazos", "motivo", "cola");
+        this.rechazosCuenta = meterRegistry.counter("auth.hash.rechazos", "motivo", "cuenta");
+        this.rechazosIp = meterRegistry.counter("auth.hash.rechazos", "motivo", "ip");
+        this.rechazosEspera = meterRegistry.counter("auth.hash.rechazos", "motivo", "espera");
+    }
+
+    /**
+     * Verifica la contraseña en el pool y espera el resultado; lanza
+     * {@link DemasiadasSolicitudesException} si no se admite o no termina a tiempo
+     */
+    public boolean verificar(String cuenta, String ip, String contrasena, String hash) {
+        String claveCuenta = cuenta.toLowerCase(Locale.ROOT);
+        if (!porCuenta.adquirir(claveCuenta)) {
+            rechazosCuenta.increment();
+            throw new DemasiadasSolicitudesException("Demasiados intentos simultáneos para esta cuenta");
+        }
+        try {
+            if (!porIp.adquirir(ip)) {
+                rechazosIp.increment();
+                throw new DemasiadasSolicitudesException(MENSAJE_OCUPADO);
+            }
+            try {
+                return ejecutarEnPool(contrasena, hash);
+            } finally {
+                porIp.liberar(ip);
+            }
+        } finally {
+            porCuenta.liberar(claveCuenta);
+        }
+    }
+
+    private boolean ejecutarEnPool(String contrasena, String hash) {
+        long encolada = System.nanoTime();
+        Future<Boolean> resultado;
+        try {
+            resultado = ejecutor.submit(() -> {
+                tiempoEnCola.record(System.nanoTime() - encolada, TimeUnit.NANOSECONDS);
+                return verificador.verifyPassword(contrasena, hash);
+            });
+        } catch (RejectedExecutionException e) {
+            rechazosCola.increment();
+            throw new DemasiadasSolicitudesException(MENSAJE_OCUPADO);
+        }
+
+        try {
+            return resultado.get(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Si aún no empezó, se saca de la cola para no ocupar la plaza hasta que llegue su turno
+            resultado.cancel(false);
+            ejecutor.purge();
+            rechazosEspera.increment();
+            throw new DemasiadasSolicitudesException(MENSAJE_OCUPADO);
+        } catch (InterruptedException e) {
+            resultado.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new DemasiadasSolicitudesException(MENSAJE_OCUPADO);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error verificando la contraseña", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        ejecutor.shutdown();
+        try {
+            if (!ejecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                ejecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            ejecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.eduquestia.backend.service.auth;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Limita las operaciones simultáneas por clave (cuenta, IP). Solo guarda las
+ * claves con operaciones en curso, así su tamaño está acotado por la carga y
+ * no necesita limpieza.
+ */
+public class LimitadorConcurrencia<K> {
+
+    private final int maximo;
+    private final ConcurrentHashMap<K, Integer> enCurso = new ConcurrentHashMap<>();
+
+    public LimitadorConcurrencia(int maximo) {
+        if (maximo <= 0) {
+            throw new IllegalArgumentException("El máximo de operaciones simultáneas debe ser positivo");
+        }
+        this.maximo = maximo;
+    }
+
+    /**
+     * Admite una operación más para la clave si no alcanzó el máximo; cada
+     * adquisición admitida debe cerrarse con {@link #liberar}
+     */
+    public boolean adquirir(K clave) {
+        boolean[] admitida = {false};
+        enCurso.compute(clave, (k, actual) -> {
+            int operaciones = actual == null ? 0 : actual;
+            if (operaciones >= maximo) {
+                return actual;
+            }
+            admitida[0] = true;
+            return operaciones + 1;
+        });
+        return admitida[0];
+    }
+
+    public void liberar(K clave) {
+        enCurso.computeIfPresent(clave, (k, actual) -> actual > 1 ? actual - 1 : null);
+    }
+
+    public int claves() {
+        return enCurso.size();
+    }
+}
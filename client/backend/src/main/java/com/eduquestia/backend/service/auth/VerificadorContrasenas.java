@@ -0,0 +1,125 @@
+package com.eduquestia.backend.service.auth;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.mindrot.jbcrypt.BCrypt;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.InvalidKeySpecException;
+
+/**
+ * Verificación de contraseñas contra los hashes que guarda el admin-backend (Django).
+ * Es trabajo de CPU deliberadamente costoso: en el login se ejecuta en
+ * {@link EjecutorVerificacionContrasenas}, nunca en el hilo de la petición.
+ */
+@Component
+@Slf4j
+public class VerificadorContrasenas {
+
+    /**
+     * Verifica contraseña soportando múltiples formatos:
+     * - BCrypt puro (Spring Boot/Django custom): $2a$, $2b$, $2y$
+     * - Django bcrypt_pure: bcrypt_pure$$2b$12$...
+     * - Django pbkdf2_sha256: pbkdf2_sha256$...
+     * - Django bcrypt_sha256: bcrypt_sha256$$2b$12$... (bcrypt sobre el SHA-256 en hex de la contraseña)
+     */
+    public boolean verifyPassword(String plainPassword, String hashedPassword) {
+        if (hashedPassword == null || plainPassword == null) {
+            return false;
+        }
+
+        // Extraer el hash BCrypt puro si tiene prefijo de Django
+        String bcryptHash = hashedPassword;
+        
+        if (hashedPassword.startsWith("bcrypt_pure$") || hashedPassword.startsWith("bcrypt_sha256$")) {
+            // Formato Django: bcrypt_pure$$2a$12$hash o bcrypt_sha256$$2b$12$hash
+            // Extraer solo la parte BCrypt ($2a$12$hash o $2b$12$hash)
+            // El hash tiene formato: bcrypt_pure$$2a$12$... (doble $)
+            int firstDollar = hashedPassword.indexOf('$');
+            if (firstDollar != -1) {
+                // Buscar el segundo $ después del prefijo
+                int secondDollar = hashedPassword.indexOf('$', firstDollar + 1);
+                if (secondDollar != -1 && secondDollar + 1 < hashedPassword.length()) {
+                    // Extraer desde el segundo $ (que es el inicio del hash BCrypt: $2a$...)
+                    bcryptHash = hashedPassword.substring(secondDollar);
+                    log.debug("Hash Django detectado, extrayendo BCrypt puro: {}...", 
+                        bcryptHash.substring(0, Math.min(20, bcryptHash.length())));
+                }
+            }
+        }
+        
+        // Detectar formato de hash
+        if (bcryptHash.startsWith("$2a$") || 
+            bcryptHash.startsWith("$2b$") || 
+            bcryptHash.startsWith("$2y$")) {
+            // BCrypt hash puro
+            log.debug("Verificando con BCrypt");
+            if (hashedPassword.startsWith("bcrypt_sha256$")) {
+                // Django aplica SHA-256 antes de bcrypt para no truncar contraseñas de más de 72 bytes
+                return BCrypt.checkpw(DigestUtils.sha256Hex(plainPassword), bcryptHash);
+            }
+            return BCrypt.checkpw(plainPassword, bcryptHash);
+        } 
+        else if (hashedPassword.startsWith("pbkdf2_sha256$")) {
+            // Django pbkdf2_sha256 hash (fallback para contraseñas antiguas)
+            log.debug("Verificando contraseña con formato Django pbkdf2_sha256");
+            return verifyDjangoPbkdf2Password(plainPassword, hashedPassword);
+        }
+        else {
+            // Formato desconocido
+            log.warn("Formato de hash desconocido: {}", hashedPassword.substring(0, Math.min(20, hashedPassword.length())));
+            return false;
+        }
+    }
+
+    /**
+     * Verifica contraseñas en formato Django pbkdf2_sha256
+     * Formato: pbkdf2_sha256$iterations$salt$hash
+     */
+    private boolean verifyDjangoPbkdf2Password(String plainPassword, String hashedPassword) {
+        try {
+            // Parsear el hash de Django
+            String[] parts = hashedPassword.split("\\$");
+            if (parts.length != 4) {
+                log.error("Formato de hash Django inválido: {}", hashedPassword);
+                return false;
+            }
+
+            // parts[0] = pbkdf2_sha256 (algoritmo)
+            int iterations = Integer.parseInt(parts[1]);
+            String salt = parts[2];
+            String expectedHash = parts[3];
+
+            // Generar hash con los mismos parámetros
+            PBEKeySpec spec = new PBEKeySpec(
+                plainPassword.toCharArray(),
+                salt.getBytes(),
+                iterations,
+                256 // 256 bits = 32 bytes
+            );
+
+            SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+            byte[] hash = factory.generateSecret(spec).getEncoded();
+            String computedHash = Base64.encodeBase64String(hash);
+
+            // Comparar el hash generado con el esperado
+            boolean matches = computedHash.equals(expectedHash);
+            
+            if (matches) {
+                log.debug("Contraseña Django verificada correctamente");
+            } else {
+                log.warn("Contraseña Django no coincide");
+            }
+            
+            return matches;
+
+        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+            log.error("Error al verificar contraseña Django: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.eduquestia.backend.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Caché en memoria con coalescencia de peticiones (single-flight):
+ * las llamadas concurrentes con la misma clave comparten un único cálculo en curso.
+ *
+ * Un resultado se sirve como fresco durante {@code ttlMs}. Después, y durante
+ * {@code obsoletoMs} más, se sigue sirviendo mientras se recalcula en segundo plano
+ * (stale-while-revalidate); pasado ese margen la entrada se considera vencida.
+ * Los errores no se guardan: todos los que esperaban el cálculo reciben la excepción.
+ */
+@Slf4j
+public class CacheCoalescente<K, V> {
+
+    private final class Entrada {
+        private final CompletableFuture<V> valor = new CompletableFuture<>();
+        private final AtomicBoolean revalidando = new AtomicBoolean();
+        private volatile long calculadoEn;
+    }
+
+    private final String nombre;
+    private final long ttlMs;
+    private final long obsoletoMs;
+    private final Executor revalidacion;
+    private final Map<K, Entrada> entradas = new ConcurrentHashMap<>();
+
+    private final Counter aciertos;
+    private final Counter fallos;
+    private final Counter coalescidas;
+    private final Counter revalidaciones;
+
+    public CacheCoalescente(String nombre, long ttlMs, long obsoletoMs,
+                            Executor revalidacion, MeterRegistry meterRegistry) {
+        this.nombre = nombre;
+        this.ttlMs = ttlMs;
+        this.obsoletoMs = obsoletoMs;
+        this.revalidacion = revalidacion;
+        this.aciertos = meterRegistry.counter("cache.aciertos", "cache", nombre);
+        this.fallos = meterRegistry.counter("cache.fallos", "cache", nombre);
+        this.coalescidas = meterRegistry.counter("cache.coalescidas", "cache", nombre);
+        this.revalidaciones = meterRegistry.counter("cache.revalidaciones", "cache", nombre);
+        Gauge.builder("cache.entradas", entradas, Map::size)
+                .tag("cache", nombre)
+                .register(meterRegistry);
+    }
+
+    public V obtener(K clave, Supplier<V> calculo) {
+        if (ttlMs <= 0) {
+            return calculo.get();
+        }
+
+        Entrada actual = entradas.get(clave);
+        if (actual != null) {
+            if (!actual.valor.isDone()) {
+                coalescidas.increment();
+                return esperar(actual);
+            }
+            if (!actual.valor.isCompletedExceptionally()) {
+                long edad = System.currentTimeMillis() - actual.calculadoEn;
+                if (edad < ttlMs) {
+                    aciertos.increment();
+                    return actual.valor.join();
+                }
+                if (edad < ttlMs + obsoletoMs) {
+                    aciertos.increment();
+                    revalidar(clave, actual, calculo);
+                    return actual.valor.join();
+                }
+            }
+        }
+
+        // Sin entrada utilizable: solo el hilo que instala la nueva entrada calcula
+        Entrada nueva = new Entrada();
+        Entrada instalada = entradas.compute(clave, (k, existente) ->
+                existente == null || existente == actual ? nueva : existente);
+
+        if (instalada != nueva) {
+            coalescidas.increment();
+            return esperar(instalada);
+        }
+
+        fallos.increment();
+        calcular(clave, nueva, calculo);
+        return esperar(nueva);
+    }
+
+    public void invalidar(K clave) {
+        entradas.remove(clave);
+    }
+
+    public void invalidarTodo() {
+        entradas.clear();
+    }
+
+    /**
+     * Elimina las entradas ya vencidas (fuera del margen de obsolescencia)
+     */
+    public void purgar() {
+        long limite = System.currentTimeMillis() - ttlMs - obsoletoMs;
+        entradas.values().removeIf(e -> e.valor.isDone() && e.calculadoEn < limite);
+    }
+
+    private void revalidar(K clave, Entrada actual, Supplier<V> calculo) {
+        if (!actual.revalidando.compareAndSet(false, true)) {
+            return;
+        }
+        revalidaciones.increment();
+        Entrada nueva = new Entrada();
+        try {
+            revalidacion.execute(() -> {
+                try {
+                    V valor = calculo.get();
+                    nueva.calculadoEn = System.currentTimeMillis();
+                    nueva.valor.complete(valor);
+                    entradas.replace(clave, actual, nueva);
+                } catch (Exception e) {
+                    log.warn("Error al revalidar la caché {} para {}: {}", nombre, clave, e.getMessage());
+                    actual.revalidando.set(false);
+                }
+            });
+        } catch (Exception e) {
+            // Executor saturado: se seguirá sirviendo el valor obsoleto hasta el siguiente intento
+            actual.revalidando.set(false);
+        }
+    }
+
+    private void calcular(K clave, Entrada entrada, Supplier<V> calculo) {
+        try {
+            V valor = calculo.get();
+            entrada.calculadoEn = System.currentTimeMillis();
+            entrada.valor.complete(valor);
+        } catch (RuntimeException | Error e) {
+            entradas.remove(clave, entrada);
+            entrada.valor.completeExceptionally(e);
+        }
+    }
+
+    private V esperar(Entrada entrada) {
+        try {
+            return entrada.valor.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
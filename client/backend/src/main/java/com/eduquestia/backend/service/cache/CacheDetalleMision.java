@@ -0,0 +1,66 @@
+package com.eduquestia.backend.service.cache;
+
+import com.eduquestia.backend.dto.response.MisionResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Detalle completo de misiones ({@link MisionResponse} con contenidos y criterios),
+ * indexado por id y validado contra la versión de la misión
+ * (MisionRepository.findVersionById).
+ *
+ * Los DTO son mutables, así que el detalle guardado nunca sale de la caché: cada
+ * lectura recibe su propia copia.
+ */
+@Component
+public class CacheDetalleMision {
+
+    private final CacheVersionada<UUID, MisionResponse> cache;
+
+    public CacheDetalleMision(
+            MeterRegistry meterRegistry,
+            @Value("${misiones.cache.detalle.max-entradas:1000}") int maxEntradas,
+            @Value("${misiones.cache.detalle.ttl-ms:600000}") long ttlMs) {
+        this.cache = new CacheVersionada<>("mision_detalle", maxEntradas, ttlMs, meterRegistry);
+    }
+
+    public MisionResponse obtener(UUID misionId, String version, Supplier<MisionResponse> carga) {
+        return copiar(cache.obtener(misionId, version, carga));
+    }
+
+    /**
+     * Descarta el detalle de la misión cuando confirma la transacción que la modifica
+     */
+    public void invalidar(UUID misionId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidar(misionId);
+                }
+            });
+        } else {
+            cache.invalidar(misionId);
+        }
+    }
+
+    private static MisionResponse copiar(MisionResponse mision) {
+        return mision.toBuilder()
+                .requisitosIds(mision.getRequisitosIds() != null ? new ArrayList<>(mision.getRequisitosIds()) : null)
+                .contenidos(mision.getContenidos() != null
+                        ? mision.getContenidos().stream().map(c -> c.toBuilder().build()).collect(Collectors.toList())
+                        : null)
+                .criterios(mision.getCriterios() != null
+                        ? mision.getCriterios().stream().map(c -> c.toBuilder().build()).collect(Collectors.toList())
+                        : null)
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.eduquestia.backend.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Caché en memoria acotada (LRU) cuyas entradas guardan la versión del dato del
+ * que se construyeron. Una lectura solo acierta si la versión pedida coincide
+ * con la guardada y la entrada no superó {@code ttlMs}; así un cambio hecho por
+ * otra instancia o fuera de la aplicación se detecta sin esperar a la invalidación.
+ *
+ * Los valores se comparten entre peticiones: quien los obtiene no debe modificarlos.
+ */
+public class CacheVersionada<K, V> {
+
+    private record Entrada<V>(Object version, V valor, long guardadoEn) {
+    }
+
+    private final long ttlMs;
+    private final Map<K, Entrada<V>> entradas;
+
+    private final Counter aciertos;
+    private final Counter fallos;
+    private final Counter desalojos;
+
+    public CacheVersionada(String nombre, int maxEntradas, long ttlMs, MeterRegistry meterRegistry) {
+        this.ttlMs = ttlMs;
+        this.desalojos = meterRegistry.counter("cache.desalojos", "cache", nombre);
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> mayor) {
+                if (size() > maxEntradas) {
+                    desalojos.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.aciertos = meterRegistry.counter("cache.aciertos", "cache", nombre);
+        this.fallos = meterRegistry.counter("cache.fallos", "cache", nombre);
+        Gauge.builder("cache.entradas", this, CacheVersionada::tamano)
+                .tag("cache", nombre)
+                .register(meterRegistry);
+        Gauge.builder("cache.tasa_aciertos", this, CacheVersionada::tasaAciertos)
+                .tag("cache", nombre)
+                .description("Aciertos sobre lecturas totales desde el arranque")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Devuelve el valor guardado para la clave si corresponde a {@code version};
+     * si no, lo construye con {@code carga} y lo guarda con esa versión
+     */
+    public V obtener(K clave, Object version, Supplier<V> carga) {
+        if (ttlMs > 0) {
+            Entrada<V> entrada;
+            synchronized (entradas) {
+                entrada = entradas.get(clave);
+            }
+            if (entrada != null && Objects.equals(entrada.version(), version)
+                    && System.currentTimeMillis() - entrada.guardadoEn() < ttlMs) {
+                aciertos.increment();
+                return entrada.valor();
+            }
+        }
+
+        fallos.increment();
+        V valor = carga.get();
+        if (ttlMs > 0 && valor != null) {
+            synchronized (entradas) {
+                entradas.put(clave, new Entrada<>(version, valor, System.currentTimeMillis()));
+            }
+        }
+        return valor;
+    }
+
+    public void invalidar(K clave) {
+        synchronized (entradas) {
+            entradas.remove(clave);
+        }
+    }
+
+    public int tamano() {
+        synchronized (entradas) {
+            return entradas.size();
+        }
+    }
+
+    private double tasaAciertos() {
+        double total = aciertos.count() + fallos.count();
+        return total == 0 ? 0 : aciertos.count() / total;
+    }
+}
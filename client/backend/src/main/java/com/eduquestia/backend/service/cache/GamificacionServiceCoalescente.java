@@ -0,0 +1,158 @@
+package com.eduquestia.backend.service.cache;
+
+import com.eduquestia.backend.dto.response.PerfilGamificadoResponse;
+import com.eduquestia.backend.dto.response.RankingPeriodoResponse;
+import com.eduquestia.backend.dto.response.RankingResponse;
+import com.eduquestia.backend.dto.response.RankingVecindadResponse;
+import com.eduquestia.backend.entity.Logro;
+import com.eduquestia.backend.service.GamificacionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Capa delante de GamificacionService para los endpoints de lectura más concurridos
+ * (perfil y rankings): las peticiones idénticas simultáneas comparten un solo cálculo
+ * y el resultado se reutiliza durante gamificacion.cache.ttl-ms, sirviéndose obsoleto
+ * mientras se revalida durante gamificacion.cache.obsoleto-ms más.
+ * Los perfiles se indexan además por su versión, así un cambio del estudiante
+ * nunca devuelve el perfil anterior (ni lo asocia a un ETag nuevo).
+ * El resto de operaciones se delega sin cambios.
+ */
+@Service
+@Primary
+public class GamificacionServiceCoalescente implements GamificacionService {
+
+    private record ClaveRanking(UUID cursoId, Integer limite, String despues) {
+    }
+
+    private record ClavePerfil(UUID estudianteId, String version) {
+    }
+
+    private final GamificacionService delegado;
+    private final ThreadPoolExecutor revalidacion;
+    private final CacheCoalescente<ClavePerfil, PerfilGamificadoResponse> perfiles;
+    private final CacheCoalescente<ClaveRanking, RankingResponse> rankings;
+
+    public GamificacionServiceCoalescente(
+            @Qualifier("gamificacionServiceImpl") GamificacionService delegado,
+            MeterRegistry meterRegistry,
+            @Value("${gamificacion.cache.ttl-ms:2000}") long ttlMs,
+            @Value("${gamificacion.cache.obsoleto-ms:10000}") long obsoletoMs) {
+        this.delegado = delegado;
+        AtomicInteger numeroHilo = new AtomicInteger();
+        this.revalidacion = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(256),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "gamificacion-cache-" + numeroHilo.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                });
+        this.perfiles = new CacheCoalescente<>("gamificacion_perfil", ttlMs, obsoletoMs, revalidacion, meterRegistry);
+        this.rankings = new CacheCoalescente<>("gamificacion_ranking", ttlMs, obsoletoMs, revalidacion, meterRegistry);
+    }
+
+    @Override
+    public PerfilGamificadoResponse obtenerPerfilGamificado(UUID estudianteId) {
+        return obtenerPerfilGamificado(estudianteId, delegado.obtenerVersionPerfil(estudianteId));
+    }
+
+    @Override
+    public PerfilGamificadoResponse obtenerPerfilGamificado(UUID estudianteId, String version) {
+        return perfiles.obtener(new ClavePerfil(estudianteId, version),
+                () -> delegado.obtenerPerfilGamificado(estudianteId));
+    }
+
+    @Override
+    public String obtenerVersionPerfil(UUID estudianteId) {
+        return delegado.obtenerVersionPerfil(estudianteId);
+    }
+
+    @Override
+    public RankingResponse obtenerRankingPorCurso(UUID cursoId) {
+        return rankings.obtener(new ClaveRanking(cursoId, null, null),
+                () -> delegado.obtenerRankingPorCurso(cursoId));
+    }
+
+    @Override
+    public RankingResponse obtenerRankingPorCurso(UUID cursoId, Integer limite, String despues) {
+        // La clave distingue la lista completa (null, null) de una página
+        return rankings.obtener(new ClaveRanking(cursoId, limite != null ? limite : 0, despues),
+                () -> delegado.obtenerRankingPorCurso(cursoId, limite, despues));
+    }
+
+    @Override
+    public RankingResponse obtenerRankingGlobal() {
+        return rankings.obtener(new ClaveRanking(null, null, null),
+                () -> delegado.obtenerRankingGlobal());
+    }
+
+    @Override
+    public RankingResponse obtenerRankingGlobal(Integer limite, String despues) {
+        return rankings.obtener(new ClaveRanking(null, limite != null ? limite : 0, despues),
+                () -> delegado.obtenerRankingGlobal(limite, despues));
+    }
+
+    @Override
+    public void verificarYOtorgarLogros(UUID estudianteId) {
+        delegado.verificarYOtorgarLogros(estudianteId);
+    }
+
+    @Override
+    public List<Logro> otorgarLogrosAlcanzados(UUID estudianteId,
+                                               int puntosAnteriores, int puntosNuevos,
+                                               int completadasAnteriores, int completadasNuevas) {
+        // Los logros nuevos cambian la versión del perfil: no hace falta invalidarlo
+        return delegado.otorgarLogrosAlcanzados(estudianteId,
+                puntosAnteriores, puntosNuevos, completadasAnteriores, completadasNuevas);
+    }
+
+    @Override
+    public RankingVecindadResponse obtenerRankingAlrededorDeEstudiante(UUID cursoId, UUID estudianteId, Integer radio) {
+        return delegado.obtenerRankingAlrededorDeEstudiante(cursoId, estudianteId, radio);
+    }
+
+    @Override
+    public RankingPeriodoResponse obtenerRankingPorPeriodo(UUID cursoId, String periodo,
+                                                           LocalDate desde, LocalDate hasta, Integer limite) {
+        return delegado.obtenerRankingPorPeriodo(cursoId, periodo, desde, hasta, limite);
+    }
+
+    @Override
+    public Integer calcularNivel(Integer puntos) {
+        return delegado.calcularNivel(puntos);
+    }
+
+    @Override
+    public String obtenerNombreNivel(Integer nivel) {
+        return delegado.obtenerNombreNivel(nivel);
+    }
+
+    @Override
+    public Integer calcularPuntosParaSiguienteNivel(Integer puntos) {
+        return delegado.calcularPuntosParaSiguienteNivel(puntos);
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purgar() {
+        perfiles.purgar();
+        rankings.purgar();
+    }
+
+    @PreDestroy
+    public void detener() {
+        revalidacion.shutdownNow();
+    }
+}
@@ -0,0 +1,338 @@
+package com.eduquestia.backend.service.gamificacion;
+
+import com.eduquestia.backend.entity.Logro;
+import com.eduquestia.backend.entity.Usuario;
+import com.eduquestia.backend.event.MisionCompletada;
+import com.eduquestia.backend.repository.PuntajeEstudianteRepository;
+import com.eduquestia.backend.repository.UsuarioRepository;
+import com.eduquestia.backend.repository.projection.PuntajeRankingView;
+import com.eduquestia.backend.service.GamificacionService;
+import com.eduquestia.backend.service.NotificacionService;
+import com.eduquestia.backend.service.ranking.RankingEnMemoria;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Procesa las misiones completadas fuera de la transacción de la entrega:
+ * logros alcanzados, notificaciones y actualización de los rankings en memoria.
+ *
+ * Los eventos se reciben después del commit y se agrupan por estudiante; cada
+ * estudiante con eventos pendientes ocupa como mucho un trabajo en el pool, que
+ * procesa todos sus eventos acumulados como un solo lote. Si el lote falla se
+ * reintenta con espera exponencial hasta {@code gamificacion.eventos.max-intentos}.
+ * Cuando la cola del pool está llena, el trabajo se reprograma en el ejecutor de
+ * reintentos en lugar de correr en el hilo HTTP o programado que publicó el evento.
+ *
+ * Los eventos solo viven en memoria: los que se pierden al reiniciar (o al
+ * descartar un lote) los recupera una reconciliación periódica que vuelve a
+ * evaluar logros y ranking de los estudiantes que completaron misiones desde la
+ * pasada anterior, leyendo sus totales de la base de datos.
+ */
+@Component
+@Slf4j
+public class ProcesadorMisionesCompletadas {
+
+    // Una misión completada justo antes de la pasada anterior puede confirmarse después de ella
+    private static final long MARGEN_RECONCILIACION_SEGUNDOS = 60;
+
+    private final GamificacionService gamificacionService;
+    private final NotificacionService notificacionService;
+    private final UsuarioRepository usuarioRepository;
+    private final PuntajeEstudianteRepository puntajeRepository;
+    private final RankingEnMemoria rankingEnMemoria;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int maxIntentos;
+    private final long esperaReintentoMs;
+
+    private final ThreadPoolExecutor trabajadores;
+    private final ScheduledExecutorService reintentos;
+
+    private final Map<UUID, Deque<MisionCompletada>> pendientesPorEstudiante = new ConcurrentHashMap<>();
+    private final AtomicInteger eventosPendientes = new AtomicInteger();
+    private volatile LocalDateTime ultimaReconciliacion;
+
+    private final Counter contadorProcesados;
+    private final Counter contadorReintentos;
+    private final Counter contadorDescartados;
+    private final Counter contadorRechazados;
+    private final Counter contadorReconciliados;
+
+    public ProcesadorMisionesCompletadas(
+            GamificacionService gamificacionService,
+            NotificacionService notificacionService,
+            UsuarioRepository usuarioRepository,
+            PuntajeEstudianteRepository puntajeRepository,
+            RankingEnMemoria rankingEnMemoria,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${gamificacion.eventos.hilos:4}") int hilos,
+            @Value("${gamificacion.eventos.capacidad-cola:10000}") int capacidadCola,
+            @Value("${gamificacion.eventos.max-intentos:5}") int maxIntentos,
+            @Value("${gamificacion.eventos.espera-reintento-ms:500}") long esperaReintentoMs,
+            @Value("${gamificacion.eventos.reconciliar-ventana-inicial-ms:86400000}") long ventanaInicialMs) {
+        this.gamificacionService = gamificacionService;
+        this.notificacionService = notificacionService;
+        this.usuarioRepository = usuarioRepository;
+        this.puntajeRepository = puntajeRepository;
+        this.rankingEnMemoria = rankingEnMemoria;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxIntentos = maxIntentos;
+        this.esperaReintentoMs = esperaReintentoMs;
+        // La primera pasada cubre lo que pudo quedar sin procesar antes del reinicio
+        this.ultimaReconciliacion = LocalDateTime.now().minusNanos(ventanaInicialMs * 1_000_000);
+
+        AtomicInteger numeroHilo = new AtomicInteger();
+        this.trabajadores = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(capacidadCola),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "gamificacion-" + numeroHilo.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                (tarea, pool) -> reprogramar(tarea));
+        this.reintentos = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "gamificacion-reintentos");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+
+        Gauge.builder("gamificacion.eventos.pendientes", eventosPendientes, AtomicInteger::get)
+                .description("Misiones completadas pendientes de procesar")
+                .register(meterRegistry);
+        Gauge.builder("gamificacion.eventos.estudiantes", pendientesPorEstudiante, Map::size)
+                .description("Estudiantes con misiones completadas pendientes")
+                .register(meterRegistry);
+        Gauge.builder("gamificacion.eventos.cola", trabajadores, pool -> pool.getQueue().size())
+                .description("Lotes en cola del pool de gamificación")
+                .register(meterRegistry);
+        this.contadorProcesados = meterRegistry.counter("gamificacion.eventos.procesados");
+        this.contadorReintentos = meterRegistry.counter("gamificacion.eventos.reintentos");
+        this.contadorDescartados = meterRegistry.counter("gamificacion.eventos.descartados");
+        this.contadorRechazados = meterRegistry.counter("gamificacion.eventos.rechazados");
+        this.contadorReconciliados = meterRegistry.counter("gamificacion.eventos.reconciliados");
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alCompletarMision(MisionCompletada evento) {
+        encolar(evento);
+    }
+
+    public void encolar(MisionCompletada evento) {
+        UUID estudianteId = evento.estudianteId();
+        boolean[] primero = {false};
+        pendientesPorEstudiante.compute(estudianteId, (id, cola) -> {
+            if (cola == null) {
+                cola = new ArrayDeque<>();
+                primero[0] = true;
+            }
+            cola.addLast(evento);
+            return cola;
+        });
+        eventosPendientes.incrementAndGet();
+
+        // Si el estudiante ya tenía eventos, el trabajo en curso también procesará este
+        if (primero[0]) {
+            trabajadores.execute(() -> procesarEstudiante(estudianteId, 0));
+        }
+    }
+
+    public int eventosPendientes() {
+        return eventosPendientes.get();
+    }
+
+    /**
+     * Cola del pool llena: el trabajo vuelve a intentarse desde el ejecutor de
+     * reintentos tras la espera base, sin ocupar el hilo que publicó el evento.
+     * Al detener la aplicación se descarta; la reconciliación lo recupera.
+     */
+    private void reprogramar(Runnable tarea) {
+        contadorRechazados.increment();
+        if (reintentos.isShutdown()) {
+            log.warn("Pool de gamificación detenido, el trabajo queda para la reconciliación");
+            return;
+        }
+        reintentos.schedule(() -> trabajadores.execute(tarea), esperaReintentoMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Vuelve a evaluar logros y ranking de los estudiantes que completaron misiones
+     * desde la pasada anterior y no tienen eventos pendientes en memoria. Parte de
+     * los totales guardados, así que solo otorga (y notifica) los logros que faltan;
+     * las subidas de nivel perdidas no se notifican.
+     */
+    @Scheduled(initialDelayString = "${gamificacion.eventos.reconciliar-ms:300000}",
+            fixedDelayString = "${gamificacion.eventos.reconciliar-ms:300000}")
+    public void reconciliar() {
+        LocalDateTime inicio = LocalDateTime.now();
+        LocalDateTime desde = ultimaReconciliacion.minusSeconds(MARGEN_RECONCILIACION_SEGUNDOS);
+
+        int reconciliados = 0;
+        for (PuntajeRankingView totales : puntajeRepository.findTotalesConMisionesCompletadasDesde(desde)) {
+            UUID estudianteId = totales.getEstudianteId();
+            if (pendientesPorEstudiante.containsKey(estudianteId)) {
+                continue;
+            }
+            try {
+                if (reconciliarEstudiante(estudianteId, totales.getPuntosTotales(), totales.getMisionesCompletadas())) {
+                    reconciliados++;
+                }
+            } catch (Exception e) {
+                log.warn("Error reconciliando la gamificación del estudiante {}: {}", estudianteId, e.getMessage());
+            }
+        }
+
+        ultimaReconciliacion = inicio;
+        if (reconciliados > 0) {
+            contadorReconciliados.increment(reconciliados);
+            log.info("Reconciliación de gamificación: {} estudiantes con logros pendientes desde {}", reconciliados, desde);
+        }
+    }
+
+    private boolean reconciliarEstudiante(UUID estudianteId, int puntos, int completadas) {
+        rankingEnMemoria.actualizarEstudiante(estudianteId, puntos, completadas);
+
+        List<Logro> otorgados = transactionTemplate.execute(status -> {
+            List<Logro> nuevos = gamificacionService.otorgarLogrosAlcanzados(estudianteId, 0, puntos, 0, completadas);
+            Usuario estudiante = usuarioRepository.getReferenceById(estudianteId);
+            for (Logro logro : nuevos) {
+                notificacionService.crearNotificacionLogroDesbloqueado(estudiante, logro);
+            }
+            return nuevos;
+        });
+        return otorgados != null && !otorgados.isEmpty();
+    }
+
+    /**
+     * Procesa en lotes los eventos del estudiante hasta vaciar su cola.
+     * La entrada del estudiante solo se elimina del mapa cuando ya no quedan
+     * eventos, así nunca hay dos trabajos concurrentes para el mismo estudiante.
+     */
+    private void procesarEstudiante(UUID estudianteId, int intento) {
+        List<MisionCompletada> lote;
+        while ((lote = tomarLote(estudianteId)) != null) {
+            try {
+                procesarLote(estudianteId, lote);
+                eventosPendientes.addAndGet(-lote.size());
+                contadorProcesados.increment(lote.size());
+                intento = 0;
+            } catch (Exception e) {
+                if (intento + 1 >= maxIntentos) {
+                    log.error("Descartando {} misiones completadas del estudiante {} tras {} intentos: {}",
+                            lote.size(), estudianteId, maxIntentos, e.getMessage(), e);
+                    eventosPendientes.addAndGet(-lote.size());
+                    contadorDescartados.increment(lote.size());
+                    intento = 0;
+                    continue;
+                }
+
+                devolverLote(estudianteId, lote);
+                contadorReintentos.increment();
+                int siguiente = intento + 1;
+                long espera = esperaReintentoMs << intento;
+                log.warn("Error procesando misiones completadas del estudiante {} (intento {}), reintentando en {} ms: {}",
+                        estudianteId, siguiente, espera, e.getMessage());
+                reintentos.schedule(
+                        () -> trabajadores.execute(() -> procesarEstudiante(estudianteId, siguiente)),
+                        espera, TimeUnit.MILLISECONDS);
+                return;
+            }
+        }
+    }
+
+    private List<MisionCompletada> tomarLote(UUID estudianteId) {
+        List<MisionCompletada> lote = new ArrayList<>();
+        pendientesPorEstudiante.computeIfPresent(estudianteId, (id, cola) -> {
+            if (cola.isEmpty()) {
+                return null;
+            }
+            lote.addAll(cola);
+            cola.clear();
+            return cola;
+        });
+        return lote.isEmpty() ? null : lote;
+    }
+
+    private void devolverLote(UUID estudianteId, List<MisionCompletada> lote) {
+        pendientesPorEstudiante.compute(estudianteId, (id, cola) -> {
+            Deque<MisionCompletada> resultado = new ArrayDeque<>(lote);
+            if (cola != null) {
+                resultado.addAll(cola);
+            }
+            return resultado;
+        });
+    }
+
+    private void procesarLote(UUID estudianteId, List<MisionCompletada> lote) {
+        // El orden real de las entregas lo da el contador de misiones, no el de llegada
+        MisionCompletada primero = lote.stream()
+                .min(Comparator.comparingInt(MisionCompletada::misionesCompletadas)).orElseThrow();
+        MisionCompletada ultimo = lote.stream()
+                .max(Comparator.comparingInt(MisionCompletada::misionesCompletadas)).orElseThrow();
+
+        rankingEnMemoria.actualizarEstudiante(estudianteId, ultimo.puntosTotales(), ultimo.misionesCompletadas());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Logro> otorgados = gamificacionService.otorgarLogrosAlcanzados(estudianteId,
+                    primero.puntosAnteriores(), ultimo.puntosTotales(),
+                    primero.misionesCompletadasAnteriores(), ultimo.misionesCompletadas());
+
+            int nivelAnterior = gamificacionService.calcularNivel(primero.puntosAnteriores());
+            int nivelNuevo = gamificacionService.calcularNivel(ultimo.puntosTotales());
+            if (otorgados.isEmpty() && nivelNuevo <= nivelAnterior) {
+                return;
+            }
+
+            Usuario estudiante = usuarioRepository.getReferenceById(estudianteId);
+            for (Logro logro : otorgados) {
+                notificacionService.crearNotificacionLogroDesbloqueado(estudiante, logro);
+            }
+            if (nivelNuevo > nivelAnterior) {
+                notificacionService.crearNotificacionNivelSubido(estudiante, nivelNuevo);
+            }
+        });
+
+        log.debug("Procesadas {} misiones completadas del estudiante {}", lote.size(), estudianteId);
+    }
+
+    @PreDestroy
+    public void detener() {
+        reintentos.shutdownNow();
+        trabajadores.shutdown();
+        try {
+            if (!trabajadores.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Quedaron {} misiones completadas sin procesar al detener", eventosPendientes.get());
+                trabajadores.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            trabajadores.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.eduquestia.backend.service.idempotencia;
+
+import com.eduquestia.backend.dto.request.CompletarMisionRequest;
+import com.eduquestia.backend.dto.response.MisionEstudianteResponse;
+import com.eduquestia.backend.exceptions.ValidationException;
+import com.eduquestia.backend.service.MisionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Completar misión con cabecera {@code Idempotency-Key}: los reintentos del
+ * cliente con la misma clave devuelven la respuesta original sin volver a la base
+ * de datos. La respuesta se guarda cuando MisionService ya confirmó la transacción,
+ * así nunca se repite el resultado de una operación revertida. El registro en memoria
+ * es solo un atajo: la clave también queda en la entrega, y un reintento que llega a
+ * otra instancia o tras un reinicio recibe la respuesta reconstruida desde la base.
+ */
+@Component
+public class CompletarMisionIdempotente {
+
+    private static final int LONGITUD_MAXIMA_CLAVE = 255;
+
+    // La clave del cliente solo vale para el mismo estudiante y la misma misión
+    private record Clave(UUID estudianteId, UUID misionId, String claveIdempotencia) {
+    }
+
+    private final MisionService misionService;
+    private final RegistroIdempotencia<Clave, MisionEstudianteResponse> registro;
+
+    public CompletarMisionIdempotente(
+            MisionService misionService,
+            MeterRegistry meterRegistry,
+            @Value("${misiones.idempotencia.max-entradas:10000}") int maxEntradas,
+            @Value("${misiones.idempotencia.ttl-ms:86400000}") long ttlMs) {
+        this.misionService = misionService;
+        this.registro = new RegistroIdempotencia<>("completar_mision", maxEntradas, ttlMs, meterRegistry);
+    }
+
+    public MisionEstudianteResponse completarMision(UUID misionId, CompletarMisionRequest request,
+                                                    UUID estudianteId, String claveIdempotencia) {
+        if (claveIdempotencia == null) {
+            return misionService.completarMision(misionId, request, estudianteId);
+        }
+        if (claveIdempotencia.isBlank() || claveIdempotencia.length() > LONGITUD_MAXIMA_CLAVE) {
+            throw new ValidationException("Idempotency-Key inválida");
+        }
+        return registro.ejecutar(new Clave(estudianteId, misionId, claveIdempotencia),
+                () -> misionService.completarMision(misionId, request, estudianteId, claveIdempotencia));
+    }
+}
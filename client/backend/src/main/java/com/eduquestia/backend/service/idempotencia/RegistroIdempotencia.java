@@ -0,0 +1,115 @@
+package com.eduquestia.backend.service.idempotencia;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Registro acotado (LRU) de los resultados recientes de operaciones no
+ * idempotentes, indexado por la clave de idempotencia que envía el cliente.
+ *
+ * La primera petición con una clave ejecuta la operación; las repetidas reciben
+ * el mismo resultado sin volver a ejecutarla, también si llegan mientras la
+ * primera sigue en curso (esperan a que termine). Un resultado se conserva
+ * durante {@code ttlMs} o hasta que lo desaloja una clave más reciente. Los
+ * errores no se guardan: quienes esperaban reciben la excepción y un reintento
+ * posterior vuelve a ejecutar la operación.
+ */
+public class RegistroIdempotencia<K, V> {
+
+    private static final class Entrada<V> {
+        private final CompletableFuture<V> resultado = new CompletableFuture<>();
+        private volatile long guardadoEn;
+    }
+
+    private final long ttlMs;
+    private final Map<K, Entrada<V>> entradas;
+
+    private final Counter ejecutadas;
+    private final Counter repetidas;
+    private final Counter desalojos;
+
+    public RegistroIdempotencia(String nombre, int maxEntradas, long ttlMs, MeterRegistry meterRegistry) {
+        this.ttlMs = ttlMs;
+        this.desalojos = meterRegistry.counter("idempotencia.desalojos", "operacion", nombre);
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> mayor) {
+                if (size() > maxEntradas) {
+                    desalojos.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.ejecutadas = meterRegistry.counter("idempotencia.ejecutadas", "operacion", nombre);
+        this.repetidas = meterRegistry.counter("idempotencia.repetidas", "operacion", nombre);
+        Gauge.builder("idempotencia.entradas", this, RegistroIdempotencia::tamano)
+                .tag("operacion", nombre)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Devuelve el resultado guardado para la clave o, si no hay ninguno vigente,
+     * ejecuta la operación y guarda su resultado
+     */
+    public V ejecutar(K clave, Supplier<V> operacion) {
+        Entrada<V> nueva = new Entrada<>();
+        Entrada<V> existente;
+        synchronized (entradas) {
+            existente = entradas.get(clave);
+            if (existente != null && existente.resultado.isDone()
+                    && System.currentTimeMillis() - existente.guardadoEn >= ttlMs) {
+                existente = null;
+            }
+            if (existente == null) {
+                entradas.put(clave, nueva);
+            }
+        }
+
+        if (existente != null) {
+            repetidas.increment();
+            return esperar(existente);
+        }
+
+        ejecutadas.increment();
+        try {
+            V valor = operacion.get();
+            nueva.guardadoEn = System.currentTimeMillis();
+            nueva.resultado.complete(valor);
+            return valor;
+        } catch (RuntimeException | Error e) {
+            synchronized (entradas) {
+                entradas.remove(clave, nueva);
+            }
+            nueva.resultado.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public int tamano() {
+        synchronized (entradas) {
+            return entradas.size();
+        }
+    }
+
+    private V esperar(Entrada<V> entrada) {
+        try {
+            return entrada.resultado.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -3,16 +3,31 @@ package com.eduquestia.backend.service.impl;
 import com.eduquestia.backend.dto.response.LogroResponse;
 import com.eduquestia.backend.dto.response.PerfilGamificadoResponse;
 import com.eduquestia.backend.dto.response.RankingEstudianteResponse;
+import com.eduquestia.backend.dto.response.RankingPeriodoResponse;
 import com.eduquestia.backend.dto.response.RankingResponse;
+import com.eduquestia.backend.dto.response.RankingVecindadResponse;
 import com.eduquestia.backend.entity.*;
+import com.eduquestia.backend.exceptions.ResourceNotFoundException;
+import com.eduquestia.backend.exceptions.ValidationException;
 import com.eduquestia.backend.repository.*;
+import com.eduquestia.backend.repository.projection.PerfilVersionView;
+import com.eduquestia.backend.repository.projection.PuntajeTotalesView;
+import com.eduquestia.backend.repository.projection.RankingPeriodoView;
+import com.eduquestia.backend.repository.projection.UsuarioNombreView;
 import com.eduquestia.backend.service.GamificacionService;
 import com.eduquestia.backend.service.MisionService;
+import com.eduquestia.backend.service.PuntajeService;
+import com.eduquestia.backend.service.logros.EvaluadorLogros;
+import com.eduquestia.backend.service.ranking.ArbolRanking;
+import com.eduquestia.backend.service.ranking.RankingEnMemoria;
+import com.eduquestia.backend.util.Cursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -23,13 +38,32 @@ import java.util.stream.Collectors;
 @Slf4j
 public class GamificacionServiceImpl implements GamificacionService {
 
+    private static final int LIMITE_RANKING_POR_DEFECTO = 20;
+    private static final int LIMITE_RANKING_MAXIMO = 100;
+    private static final int RADIO_RANKING_POR_DEFECTO = 5;
+    private static final int RADIO_RANKING_MAXIMO = 50;
+    private static final int NOMBRES_POR_CONSULTA = 1000;
+
     private final UsuarioRepository usuarioRepository;
     private final ProgresoMisionRepository progresoRepository;
     private final LogroRepository logroRepository;
     private final LogroEstudianteRepository logroEstudianteRepository;
-    private final InscripcionRepository inscripcionRepository;
     private final MisionService misionService;
     private final CursoRepository cursoRepository;
+    private final PuntajeEstudianteRepository puntajeRepository;
+    private final PuntosPeriodoRepository puntosPeriodoRepository;
+    private final PuntajeService puntajeService;
+    private final RankingEnMemoria rankingEnMemoria;
+    private final EvaluadorLogros evaluadorLogros;
+
+    @Override
+    @Transactional(readOnly = true)
+    public String obtenerVersionPerfil(UUID estudianteId) {
+        PerfilVersionView version = progresoRepository.findVersionPerfil(estudianteId);
+        Integer posicion = posicionGlobal(estudianteId, version.getPuntos(), version.getCompletadas());
+        return version.getPuntos() + "|" + version.getCompletadas() + "|" + posicion + "|"
+                + version.getMarcas() + "|" + evaluadorLogros.versionCatalogo();
+    }
 
     @Override
     @Transactional(readOnly = true)
@@ -76,8 +110,8 @@ public class GamificacionServiceImpl implements GamificacionService {
                 })
                 .collect(Collectors.toList());
 
-        // Calcular posición en ranking global (opcional, puede ser costoso)
-        Integer posicionRanking = null; // Se puede calcular si es necesario
+        // Posición en el ranking global: O(log n) sobre el ranking en memoria
+        Integer posicionRanking = posicionGlobal(estudianteId, puntosTotales, misionesCompletadas);
 
         return PerfilGamificadoResponse.builder()
                 .puntosTotales(puntosTotales)
@@ -91,65 +125,77 @@ public class GamificacionServiceImpl implements GamificacionService {
                 .build();
     }
 
+    /**
+     * Posición en el ranking global en memoria. Si el estudiante todavía no está
+     * se devuelve la que tendría con su puntaje, sin incorporarlo al ranking.
+     */
+    private int posicionGlobal(UUID estudianteId, int puntos, int completadas) {
+        return rankingEnMemoria.posicionGlobal(estudianteId)
+                .orElseGet(() -> rankingEnMemoria.global().posicionPara(puntos, completadas));
+    }
+
     @Override
     public void verificarYOtorgarLogros(UUID estudianteId) {
         log.info("Verificando logros para estudiante: {}", estudianteId);
 
-        Integer puntosTotales = misionService.obtenerPuntosTotalesEstudiante(estudianteId);
-        List<ProgresoMision> progresos = progresoRepository.findByEstudianteId(estudianteId);
-        Integer misionesCompletadas = (int) progresos.stream()
-                .filter(ProgresoMision::getCompletada)
-                .count();
+        java.util.Objects.requireNonNull(estudianteId, "ID de estudiante no puede ser null");
+        PuntajeTotalesView totales = puntajeRepository.findTotalesByEstudianteId(estudianteId).orElse(null);
+        int puntos = totales != null ? totales.getPuntosTotales() : 0;
+        int completadas = totales != null ? totales.getMisionesCompletadas() : 0;
 
-        // Obtener todos los logros que aún no ha obtenido
-        List<LogroEstudiante> logrosObtenidos = logroEstudianteRepository.findByEstudianteId(estudianteId);
-        Set<UUID> logrosObtenidosIds = logrosObtenidos.stream()
-                .map(le -> le.getLogro().getId())
-                .collect(Collectors.toSet());
+        otorgarLogros(estudianteId, evaluadorLogros.logrosAlcanzados(
+                null, new EvaluadorLogros.Totales(puntos, calcularNivel(puntos), completadas)));
+    }
 
-        List<Logro> logrosDisponibles = logroRepository.findByActivoTrueOrderByPuntosRequeridosAsc();
+    @Override
+    public List<Logro> otorgarLogrosAlcanzados(UUID estudianteId,
+                                               int puntosAnteriores, int puntosNuevos,
+                                               int completadasAnteriores, int completadasNuevas) {
+        log.info("Verificando logros para estudiante: {} (puntos {} -> {}, misiones {} -> {})",
+                estudianteId, puntosAnteriores, puntosNuevos, completadasAnteriores, completadasNuevas);
 
         java.util.Objects.requireNonNull(estudianteId, "ID de estudiante no puede ser null");
-        Usuario estudiante = usuarioRepository.findById(estudianteId)
-                .orElseThrow(() -> new RuntimeException("Estudiante no encontrado"));
+        EvaluadorLogros.Totales anteriores = new EvaluadorLogros.Totales(
+                puntosAnteriores, calcularNivel(puntosAnteriores), completadasAnteriores);
+        EvaluadorLogros.Totales nuevos = new EvaluadorLogros.Totales(
+                puntosNuevos, calcularNivel(puntosNuevos), completadasNuevas);
 
-        Integer nivel = calcularNivel(puntosTotales);
+        return otorgarLogros(estudianteId, evaluadorLogros.logrosAlcanzados(anteriores, nuevos));
+    }
 
-        for (Logro logro : logrosDisponibles) {
-            // Si ya lo tiene, saltar
-            if (logrosObtenidosIds.contains(logro.getId())) {
-                continue;
-            }
+    /**
+     * Inserta en un solo lote los logros alcanzados que el estudiante todavía no tenía
+     */
+    private List<Logro> otorgarLogros(UUID estudianteId, List<Logro> alcanzados) {
+        if (alcanzados.isEmpty()) {
+            return List.of();
+        }
 
-            boolean cumpleRequisitos = true;
+        Set<UUID> yaObtenidos = new HashSet<>(logroEstudianteRepository.findLogrosIdsObtenidos(
+                estudianteId, alcanzados.stream().map(Logro::getId).toList()));
 
-            // Verificar puntos requeridos
-            if (logro.getPuntosRequeridos() != null && puntosTotales < logro.getPuntosRequeridos()) {
-                cumpleRequisitos = false;
-            }
+        Usuario estudiante = usuarioRepository.getReferenceById(estudianteId);
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Logro> otorgados = new ArrayList<>();
+        List<LogroEstudiante> nuevos = new ArrayList<>();
 
-            // Verificar nivel requerido
-            if (logro.getNivelRequerido() != null && nivel < logro.getNivelRequerido()) {
-                cumpleRequisitos = false;
+        for (Logro logro : alcanzados) {
+            if (yaObtenidos.contains(logro.getId())) {
+                continue;
             }
+            LogroEstudiante logroEstudiante = new LogroEstudiante();
+            logroEstudiante.setEstudiante(estudiante);
+            logroEstudiante.setLogro(logroRepository.getReferenceById(logro.getId()));
+            logroEstudiante.setFechaObtenido(ahora);
+            nuevos.add(logroEstudiante);
+            otorgados.add(logro);
+        }
 
-            // Verificar misiones completadas requeridas
-            if (logro.getMisionesCompletadasRequeridas() != null && 
-                misionesCompletadas < logro.getMisionesCompletadasRequeridas()) {
-                cumpleRequisitos = false;
-            }
+        logroEstudianteRepository.saveAll(nuevos);
+        otorgados.forEach(logro ->
+                log.info("Logro '{}' otorgado a estudiante {}", logro.getNombre(), estudianteId));
 
-            if (cumpleRequisitos) {
-                // Otorgar logro
-                LogroEstudiante logroEstudiante = new LogroEstudiante();
-                logroEstudiante.setEstudiante(estudiante);
-                logroEstudiante.setLogro(logro);
-                logroEstudiante.setFechaObtenido(LocalDateTime.now());
-                
-                logroEstudianteRepository.save(logroEstudiante);
-                log.info("Logro '{}' otorgado a estudiante {}", logro.getNombre(), estudianteId);
-            }
-        }
+        return otorgados;
     }
 
     @Override
@@ -159,112 +205,270 @@ public class GamificacionServiceImpl implements GamificacionService {
 
         java.util.Objects.requireNonNull(cursoId, "ID de curso no puede ser null");
         Curso curso = cursoRepository.findById(cursoId)
-                .orElseThrow(() -> new RuntimeException("Curso no encontrado"));
+                .orElseThrow(() -> new ResourceNotFoundException("Curso no encontrado con ID: " + cursoId));
 
-        // Obtener todas las inscripciones activas del curso
-        List<Inscripcion> inscripciones = inscripcionRepository.findByCursoId(cursoId)
-                .stream()
-                .filter(i -> "activo".equals(i.getEstado()))
-                .collect(Collectors.toList());
+        // Misma fuente que la versión paginada y el ranking alrededor del estudiante:
+        // el ranking en memoria del curso, cargado desde puntajes_estudiante
+        ArbolRanking ranking = rankingEnMemoria.curso(cursoId);
+        List<RankingEstudianteResponse> rankingEstudiantes =
+                construirRanking(ranking, ranking.rango(0, ranking.tamano()), 0);
 
-        List<RankingEstudianteResponse> rankingEstudiantes = new ArrayList<>();
+        return RankingResponse.builder()
+                .cursoId(cursoId)
+                .cursoNombre(curso.getNombre())
+                .estudiantes(rankingEstudiantes)
+                .totalEstudiantes(rankingEstudiantes.size())
+                .build();
+    }
 
-        for (Inscripcion inscripcion : inscripciones) {
-            UUID estudianteId = inscripcion.getEstudiante().getId();
-            
-            Integer puntosTotales = misionService.obtenerPuntosTotalesEstudiante(estudianteId);
-            Integer nivel = calcularNivel(puntosTotales);
-            
-            List<ProgresoMision> progresos = progresoRepository.findByEstudianteId(estudianteId);
-            Integer misionesCompletadas = (int) progresos.stream()
-                    .filter(ProgresoMision::getCompletada)
-                    .count();
+    @Override
+    @Transactional(readOnly = true)
+    public RankingResponse obtenerRankingGlobal() {
+        log.info("Obteniendo ranking global");
 
-            rankingEstudiantes.add(RankingEstudianteResponse.builder()
-                    .estudianteId(estudianteId)
-                    .nombreEstudiante(inscripcion.getEstudiante().getNombreCompleto())
-                    .puntosTotales(puntosTotales)
-                    .nivel(nivel)
-                    .nombreNivel(obtenerNombreNivel(nivel))
-                    .misionesCompletadas(misionesCompletadas)
-                    .posicion(0) // Se establecerá después
-                    .build());
+        // Misma fuente que la versión paginada y la posición del perfil: el ranking global en memoria
+        ArbolRanking ranking = rankingEnMemoria.global();
+        List<RankingEstudianteResponse> rankingEstudiantes =
+                construirRanking(ranking, ranking.rango(0, ranking.tamano()), 0);
+
+        return RankingResponse.builder()
+                .cursoId(null)
+                .cursoNombre("Ranking Global")
+                .estudiantes(rankingEstudiantes)
+                .totalEstudiantes(rankingEstudiantes.size())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RankingResponse obtenerRankingPorCurso(UUID cursoId, Integer limite, String despues) {
+        log.info("Obteniendo página de ranking para curso: {} (limit={}, after={})", cursoId, limite, despues);
+
+        java.util.Objects.requireNonNull(cursoId, "ID de curso no puede ser null");
+        Curso curso = cursoRepository.findById(cursoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Curso no encontrado con ID: " + cursoId));
+
+        return paginarRanking(rankingEnMemoria.curso(cursoId), limite, despues)
+                .cursoId(cursoId)
+                .cursoNombre(curso.getNombre())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RankingResponse obtenerRankingGlobal(Integer limite, String despues) {
+        log.info("Obteniendo página de ranking global (limit={}, after={})", limite, despues);
+
+        return paginarRanking(rankingEnMemoria.global(), limite, despues)
+                .cursoId(null)
+                .cursoNombre("Ranking Global")
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RankingPeriodoResponse obtenerRankingPorPeriodo(UUID cursoId, String periodo,
+                                                           LocalDate desde, LocalDate hasta, Integer limite) {
+        log.info("Obteniendo ranking por periodo (curso={}, periodo={}, desde={}, hasta={})",
+                cursoId, periodo, desde, hasta);
+
+        String curso = null;
+        if (cursoId != null) {
+            curso = cursoRepository.findById(cursoId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Curso no encontrado con ID: " + cursoId))
+                    .getNombre();
         }
 
-        // Ordenar por puntos (descendente) y luego por misiones completadas
-        rankingEstudiantes.sort((a, b) -> {
-            int comparacion = b.getPuntosTotales().compareTo(a.getPuntosTotales());
-            if (comparacion == 0) {
-                comparacion = b.getMisionesCompletadas().compareTo(a.getMisionesCompletadas());
+        // Ventana [inicio, fin] en días completos
+        LocalDate hoy = LocalDate.now();
+        String tipo = periodo != null ? periodo.toLowerCase() : (desde != null || hasta != null ? "personalizado" : "semana");
+        LocalDate inicio;
+        LocalDate fin;
+        switch (tipo) {
+            case "semana" -> {
+                inicio = hoy.with(DayOfWeek.MONDAY);
+                fin = inicio.plusDays(6);
+            }
+            case "mes" -> {
+                inicio = hoy.withDayOfMonth(1);
+                fin = hoy.withDayOfMonth(hoy.lengthOfMonth());
             }
-            return comparacion;
-        });
+            case "personalizado" -> {
+                if (desde == null || hasta == null) {
+                    throw new ValidationException("Para un periodo personalizado se requieren 'desde' y 'hasta'");
+                }
+                if (hasta.isBefore(desde)) {
+                    throw new ValidationException("'hasta' no puede ser anterior a 'desde'");
+                }
+                validarVentanaConsolidada(desde, hasta);
+                inicio = desde;
+                fin = hasta;
+            }
+            default -> throw new ValidationException("Periodo no válido: " + periodo + " (semana, mes o personalizado)");
+        }
+
+        int tamano = limite == null
+                ? LIMITE_RANKING_POR_DEFECTO
+                : Math.max(1, Math.min(limite, LIMITE_RANKING_MAXIMO));
+
+        List<RankingPeriodoView> filas = cursoId != null
+                ? puntosPeriodoRepository.findRankingPorCurso(cursoId, inicio, fin.plusDays(1), tamano)
+                : puntosPeriodoRepository.findRankingGlobal(inicio, fin.plusDays(1), tamano);
+
+        List<RankingEstudianteResponse> estudiantes = filas.stream()
+                .map(fila -> RankingEstudianteResponse.builder()
+                        .estudianteId(fila.getEstudianteId())
+                        .nombreEstudiante(fila.getNombreCompleto())
+                        .puntosTotales(fila.getPuntos())
+                        .posicion(fila.getPosicion())
+                        .build())
+                .collect(Collectors.toList());
+
+        return RankingPeriodoResponse.builder()
+                .cursoId(cursoId)
+                .cursoNombre(curso != null ? curso : "Ranking Global")
+                .periodo(tipo)
+                .desde(inicio)
+                .hasta(fin)
+                .estudiantes(estudiantes)
+                .build();
+    }
 
-        // Asignar posiciones
-        for (int i = 0; i < rankingEstudiantes.size(); i++) {
-            rankingEstudiantes.get(i).setPosicion(i + 1);
+    /**
+     * Antes de puntajeService.inicioAcumuladosDiarios() los puntos solo se guardan
+     * por mes: una ventana que empieza o termina a mitad de uno de esos meses
+     * sumaría el mes entero o lo omitiría, así que se rechaza
+     */
+    private void validarVentanaConsolidada(LocalDate desde, LocalDate hasta) {
+        LocalDate inicioDiario = puntajeService.inicioAcumuladosDiarios();
+        LocalDate finExclusivo = hasta.plusDays(1);
+        boolean partido = (desde.isBefore(inicioDiario) && desde.getDayOfMonth() != 1)
+                || (finExclusivo.isBefore(inicioDiario) && finExclusivo.getDayOfMonth() != 1);
+        if (partido) {
+            throw new ValidationException("Antes de " + inicioDiario + " los puntos se guardan por mes: "
+                    + "'desde' debe ser el primer día de un mes y 'hasta' el último");
         }
+    }
+
+    /**
+     * Lee una página del ranking en memoria a partir del cursor, sin ordenar la lista completa
+     */
+    private RankingResponse.RankingResponseBuilder paginarRanking(
+            ArbolRanking ranking, Integer limite, String despues) {
+        int tamanoPagina = limite == null
+                ? LIMITE_RANKING_POR_DEFECTO
+                : Math.max(1, Math.min(limite, LIMITE_RANKING_MAXIMO));
+
+        int desde = 0;
+        if (despues != null && !despues.isBlank()) {
+            desde = ranking.indiceDespuesDe(decodificarCursorRanking(despues));
+        }
+
+        List<ArbolRanking.Entrada> entradas = ranking.rango(desde, tamanoPagina + 1);
+        boolean hayMas = entradas.size() > tamanoPagina;
+        if (hayMas) {
+            entradas = entradas.subList(0, tamanoPagina);
+        }
+
+        List<RankingEstudianteResponse> rankingEstudiantes = construirRanking(ranking, entradas, desde);
+        ArbolRanking.Entrada ultima = entradas.isEmpty() ? null : entradas.get(entradas.size() - 1);
+
+        String siguienteCursor = hayMas
+                ? Cursor.codificar(ultima.puntos(), ultima.completadas(), ultima.estudianteId())
+                : null;
 
         return RankingResponse.builder()
-                .cursoId(cursoId)
-                .cursoNombre(curso.getNombre())
                 .estudiantes(rankingEstudiantes)
-                .totalEstudiantes(rankingEstudiantes.size())
-                .build();
+                .totalEstudiantes(ranking.tamano())
+                .siguienteCursor(siguienteCursor);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public RankingResponse obtenerRankingGlobal() {
-        log.info("Obteniendo ranking global");
+    public RankingVecindadResponse obtenerRankingAlrededorDeEstudiante(UUID cursoId, UUID estudianteId, Integer radio) {
+        log.info("Obteniendo ranking alrededor del estudiante {} en curso {}", estudianteId, cursoId);
 
-        // Obtener todos los estudiantes activos
-        List<Usuario> estudiantes = usuarioRepository.findByRolAndActivoTrue("estudiante");
+        java.util.Objects.requireNonNull(cursoId, "ID de curso no puede ser null");
+        Curso curso = cursoRepository.findById(cursoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Curso no encontrado con ID: " + cursoId));
 
-        List<RankingEstudianteResponse> rankingEstudiantes = new ArrayList<>();
+        ArbolRanking.Entrada entrada = rankingEnMemoria.entradaEnCurso(cursoId, estudianteId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "El estudiante " + estudianteId + " no tiene una inscripción activa en el curso"));
+        ArbolRanking ranking = rankingEnMemoria.curso(cursoId);
 
-        for (Usuario estudiante : estudiantes) {
-            UUID estudianteId = estudiante.getId();
-            
-            Integer puntosTotales = misionService.obtenerPuntosTotalesEstudiante(estudianteId);
-            Integer nivel = calcularNivel(puntosTotales);
-            
-            List<ProgresoMision> progresos = progresoRepository.findByEstudianteId(estudianteId);
-            Integer misionesCompletadas = (int) progresos.stream()
-                    .filter(ProgresoMision::getCompletada)
-                    .count();
+        int radioEfectivo = radio == null
+                ? RADIO_RANKING_POR_DEFECTO
+                : Math.max(0, Math.min(radio, RADIO_RANKING_MAXIMO));
+
+        // Índice del propio estudiante y ventana [indice - radio, indice + radio]
+        int indice = ranking.indiceDespuesDe(entrada) - 1;
+        int desde = Math.max(0, indice - radioEfectivo);
+        List<ArbolRanking.Entrada> ventana = ranking.rango(desde, indice - desde + radioEfectivo + 1);
+
+        return RankingVecindadResponse.builder()
+                .cursoId(cursoId)
+                .cursoNombre(curso.getNombre())
+                .estudianteId(estudianteId)
+                .posicion(ranking.posicion(estudianteId))
+                .totalEstudiantes(ranking.tamano())
+                .estudiantes(construirRanking(ranking, ventana, desde))
+                .build();
+    }
+
+    /**
+     * Convierte entradas consecutivas del ranking en memoria (a partir del índice {@code desde})
+     * en respuestas con posición. Solo se consultan los nombres de esas entradas.
+     */
+    private List<RankingEstudianteResponse> construirRanking(
+            ArbolRanking ranking, List<ArbolRanking.Entrada> entradas, int desde) {
+        // Por lotes: el ranking completo puede superar el límite de parámetros de una consulta
+        Map<UUID, String> nombres = new HashMap<>(entradas.size());
+        for (int i = 0; i < entradas.size(); i += NOMBRES_POR_CONSULTA) {
+            List<UUID> ids = entradas.subList(i, Math.min(i + NOMBRES_POR_CONSULTA, entradas.size())).stream()
+                    .map(ArbolRanking.Entrada::estudianteId)
+                    .toList();
+            for (UsuarioNombreView usuario : usuarioRepository.findNombresByIdIn(ids)) {
+                nombres.put(usuario.getId(), usuario.getNombreCompleto());
+            }
+        }
+
+        List<RankingEstudianteResponse> rankingEstudiantes = new ArrayList<>(entradas.size());
+        ArbolRanking.Entrada anterior = null;
+        int posicion = 0;
+
+        for (int i = 0; i < entradas.size(); i++) {
+            ArbolRanking.Entrada entrada = entradas.get(i);
+            if (anterior == null) {
+                posicion = ranking.posicionPara(entrada.puntos(), entrada.completadas());
+            } else if (anterior.puntos() != entrada.puntos() || anterior.completadas() != entrada.completadas()) {
+                posicion = desde + i + 1;
+            }
+            Integer nivel = calcularNivel(entrada.puntos());
 
             rankingEstudiantes.add(RankingEstudianteResponse.builder()
-                    .estudianteId(estudianteId)
-                    .nombreEstudiante(estudiante.getNombreCompleto())
-                    .puntosTotales(puntosTotales)
+                    .estudianteId(entrada.estudianteId())
+                    .nombreEstudiante(nombres.get(entrada.estudianteId()))
+                    .puntosTotales(entrada.puntos())
                     .nivel(nivel)
                     .nombreNivel(obtenerNombreNivel(nivel))
-                    .misionesCompletadas(misionesCompletadas)
-                    .posicion(0) // Se establecerá después
+                    .misionesCompletadas(entrada.completadas())
+                    .posicion(posicion)
                     .build());
+            anterior = entrada;
         }
 
-        // Ordenar por puntos (descendente)
-        rankingEstudiantes.sort((a, b) -> {
-            int comparacion = b.getPuntosTotales().compareTo(a.getPuntosTotales());
-            if (comparacion == 0) {
-                comparacion = b.getMisionesCompletadas().compareTo(a.getMisionesCompletadas());
-            }
-            return comparacion;
-        });
+        return rankingEstudiantes;
+    }
 
-        // Asignar posiciones
-        for (int i = 0; i < rankingEstudiantes.size(); i++) {
-            rankingEstudiantes.get(i).setPosicion(i + 1);
+    private ArbolRanking.Entrada decodificarCursorRanking(String cursor) {
+        String[] partes = Cursor.decodificar(cursor, 3);
+        try {
+            return new ArbolRanking.Entrada(
+                    UUID.fromString(partes[2]), Integer.parseInt(partes[0]), Integer.parseInt(partes[1]));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Cursor inválido");
         }
-
-        return RankingResponse.builder()
-                .cursoId(null)
-                .cursoNombre("Ranking Global")
-                .estudiantes(rankingEstudiantes)
-                .totalEstudiantes(rankingEstudiantes.size())
-                .build();
     }
 
     @Override
@@ -8,22 +8,58 @@ import com.eduquestia.backend.dto.request.MisionUpdateRequest;
 import com.eduquestia.backend.dto.response.*;
 import com.eduquestia.backend.entity.*;
 import com.eduquestia.backend.entity.enums.CategoriaMision;
+import com.eduquestia.backend.entity.enums.DificultadMision;
 import com.eduquestia.backend.entity.enums.EstadoEntrega;
+import com.eduquestia.backend.event.MisionCompletada;
+import com.eduquestia.backend.event.PlazoMisionModificado;
 import com.eduquestia.backend.exceptions.ResourceNotFoundException;
 import com.eduquestia.backend.exceptions.UnauthorizedException;
 import com.eduquestia.backend.exceptions.ValidationException;
 import com.eduquestia.backend.repository.*;
-import com.eduquestia.backend.service.GamificacionService;
+import com.eduquestia.backend.repository.projection.AgendaMisionView;
+import com.eduquestia.backend.repository.projection.AristaRequisitoView;
+import com.eduquestia.backend.repository.projection.ConteoPorIdView;
+import com.eduquestia.backend.repository.projection.MisionEstudianteView;
+import com.eduquestia.backend.repository.projection.NodoRequisitoView;
+import com.eduquestia.backend.repository.projection.PlazoAgendaView;
+import com.eduquestia.backend.repository.projection.ProgresoEstudianteView;
+import com.eduquestia.backend.repository.projection.PuntajeTotalesView;
+import com.eduquestia.backend.repository.projection.ResultadoBusquedaView;
+import com.eduquestia.backend.service.ContadorMisionService;
 import com.eduquestia.backend.service.MisionService;
 import com.eduquestia.backend.service.NotificacionService;
+import com.eduquestia.backend.service.PuntajeService;
+import com.eduquestia.backend.service.agenda.IndiceAgendaCursos;
+import com.eduquestia.backend.service.cache.CacheDetalleMision;
+import com.eduquestia.backend.service.requisitos.GrafoRequisitos;
+import com.eduquestia.backend.util.ConsultaBusqueda;
+import com.eduquestia.backend.util.Cursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.annotation.Lazy;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,6 +68,32 @@ import java.util.stream.Collectors;
 @SuppressWarnings("null")
 public class MisionServiceImpl implements MisionService {
 
+    private static final int LIMITE_PAGINA_POR_DEFECTO = 20;
+    private static final int LIMITE_PAGINA_MAXIMO = 100;
+
+    // Claves mayores que cualquier fila: primera página de los listados en orden descendente
+    private static final UUID ESTUDIANTE_MAXIMO = new UUID(-1L, -1L);
+    private static final int PORCENTAJE_MAXIMO = 100;
+    private static final LocalDateTime ACTIVIDAD_MAXIMA = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final UUID MISION_MAXIMA = new UUID(-1L, -1L);
+    private static final float RELEVANCIA_MAXIMA = Float.MAX_VALUE;
+
+    // Ventana máxima de la agenda del estudiante
+    private static final int AGENDA_DIAS_MAXIMOS = 366;
+
+    // Clave de orden de los listados de misiones, también usada como cursor
+    private record ClaveMision(LocalDateTime fechaLimite, UUID id) {
+    }
+
+    // Filtros del listado del estudiante ya resueltos; la ventana de fecha límite es [venceDesde, venceHasta)
+    private record FiltroMisionesEstudiante(Boolean completada, Boolean misionActiva,
+                                            LocalDateTime venceDesde, LocalDateTime venceHasta) {
+    }
+
+    // Estado de progreso expresado como completada (null = cualquiera) y rango de porcentaje
+    private record FiltroProgreso(Boolean completada, int porcentajeMinimo, int porcentajeMaximo) {
+    }
+
     private final MisionRepository misionRepository;
     private final UsuarioRepository usuarioRepository;
     private final CursoRepository cursoRepository;
@@ -40,8 +102,19 @@ public class MisionServiceImpl implements MisionService {
     private final InscripcionRepository inscripcionRepository;
     private final ProgresoMisionRepository progresoRepository;
     private final EntregaMisionRepository entregaRepository;
+    private final RequisitoMisionRepository requisitoRepository;
     private final NotificacionService notificacionService;
-    private final GamificacionService gamificacionService;
+    private final PuntajeService puntajeService;
+    private final ContadorMisionService contadorMisionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheDetalleMision cacheDetalleMision;
+    private final IndiceAgendaCursos indiceAgenda;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${misiones.fan-out.tamano-lote:200}")
+    private int tamanoLote;
 
     public MisionServiceImpl(
             MisionRepository misionRepository,
@@ -52,8 +125,13 @@ public class MisionServiceImpl implements MisionService {
             InscripcionRepository inscripcionRepository,
             ProgresoMisionRepository progresoRepository,
             EntregaMisionRepository entregaRepository,
+            RequisitoMisionRepository requisitoRepository,
             NotificacionService notificacionService,
-            @Lazy GamificacionService gamificacionService) {
+            PuntajeService puntajeService,
+            ContadorMisionService contadorMisionService,
+            ApplicationEventPublisher eventPublisher,
+            CacheDetalleMision cacheDetalleMision,
+            IndiceAgendaCursos indiceAgenda) {
         this.misionRepository = misionRepository;
         this.usuarioRepository = usuarioRepository;
         this.cursoRepository = cursoRepository;
@@ -62,8 +140,13 @@ public class MisionServiceImpl implements MisionService {
         this.inscripcionRepository = inscripcionRepository;
         this.progresoRepository = progresoRepository;
         this.entregaRepository = entregaRepository;
+        this.requisitoRepository = requisitoRepository;
         this.notificacionService = notificacionService;
-        this.gamificacionService = gamificacionService;
+        this.puntajeService = puntajeService;
+        this.contadorMisionService = contadorMisionService;
+        this.eventPublisher = eventPublisher;
+        this.cacheDetalleMision = cacheDetalleMision;
+        this.indiceAgenda = indiceAgenda;
     }
 
     @Override
@@ -98,9 +181,15 @@ public class MisionServiceImpl implements MisionService {
         mision.setRequisitosPrevios(request.getRequisitosPrevios());
         mision.setActivo(true);
 
+        // Una misión nueva no tiene dependientes: al final del orden topológico del curso siempre es válida
+        mision.setOrdenRequisitos(misionRepository.findOrdenRequisitosMaximo(cursoId) + 1);
+
         // Guardar misión
         mision = misionRepository.save(mision);
 
+        // Requisitos: misiones existentes del mismo curso, no pueden formar un ciclo con la nueva
+        guardarRequisitos(mision, validarRequisitos(mision, request.getRequisitosIds()));
+
         // Crear contenidos
         if (request.getContenidos() != null && !request.getContenidos().isEmpty()) {
             crearContenidos(mision, request.getContenidos());
@@ -111,11 +200,20 @@ public class MisionServiceImpl implements MisionService {
             crearCriterios(mision, request.getCriterios());
         }
 
+        // Documento de búsqueda: título, descripción y texto de los contenidos
+        misionRepository.actualizarDocumentoBusqueda(mision.getId());
+
+        // Estudiantes del curso: una sola consulta para progreso y entregas
+        List<UUID> estudiantesIds = inscripcionRepository.findEstudiantesIdsByCursoId(cursoId);
+
         // Crear progreso inicial para todos los estudiantes del curso
-        crearProgresoInicialParaEstudiantes(mision);
+        crearProgresoInicialParaEstudiantes(mision, estudiantesIds);
 
-        // Crear notificaciones para estudiantes
-        notificarNuevaMision(mision);
+        // Notificar a los estudiantes (una fila en el outbox, se expande en segundo plano)
+        notificacionService.encolarNotificacionNuevaMision(mision);
+
+        // Programar vencimiento y recordatorios tras el commit
+        eventPublisher.publishEvent(new PlazoMisionModificado(mision.getId(), cursoId, mision.getFechaLimite()));
 
         log.info("Misión creada exitosamente con ID: {}", mision.getId());
 
@@ -127,10 +225,21 @@ public class MisionServiceImpl implements MisionService {
     public MisionResponse obtenerMisionPorId(UUID misionId) {
         log.info("Obteniendo misión con ID: {}", misionId);
 
-        Mision mision = misionRepository.findById(misionId)
-                .orElseThrow(() -> new ResourceNotFoundException("Misión no encontrada con ID: " + misionId));
+        String version = obtenerVersionMision(misionId);
 
-        return convertirAMisionResponse(mision);
+        return cacheDetalleMision.obtener(misionId, version, () -> {
+            Mision mision = misionRepository.findDetalleById(misionId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Misión no encontrada con ID: " + misionId));
+            return convertirAMisionResponse(mision, mision.getContenidos(),
+                    criteriosRepository.findByMisionIdOrderByOrdenAsc(misionId));
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String obtenerVersionMision(UUID misionId) {
+        return misionRepository.findVersionById(misionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Misión no encontrada con ID: " + misionId));
     }
 
     @Override
@@ -138,11 +247,25 @@ public class MisionServiceImpl implements MisionService {
     public List<MisionListResponse> listarMisionesPorProfesor(UUID profesorId) {
         log.info("Listando misiones del profesor: {}", profesorId);
 
-        List<Mision> misiones = misionRepository.findMisionesByProfesor(profesorId);
+        List<Mision> misiones = misionRepository.findMisionesByProfesor(profesorId, Limit.unlimited());
 
-        return misiones.stream()
-                .map(this::convertirAMisionListResponse)
-                .collect(Collectors.toList());
+        return convertirAMisionListResponses(misiones);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaResponse<MisionListResponse> listarMisionesPorProfesor(
+            UUID profesorId, Integer limite, String despues) {
+        log.info("Listando página de misiones del profesor: {} (limit={}, after={})", profesorId, limite, despues);
+
+        int tamano = tamanoPagina(limite);
+        ClaveMision clave = decodificarCursorMision(despues);
+        List<Mision> misiones = clave == null
+                ? misionRepository.findMisionesByProfesor(profesorId, Limit.of(tamano + 1))
+                : misionRepository.findMisionesByProfesorDespues(
+                        profesorId, clave.fechaLimite(), clave.id(), Limit.of(tamano + 1));
+
+        return paginarMisiones(misiones, tamano);
     }
 
     @Override
@@ -150,11 +273,9 @@ public class MisionServiceImpl implements MisionService {
     public List<MisionListResponse> listarMisionesPorCurso(UUID cursoId) {
         log.info("Listando misiones del curso: {}", cursoId);
 
-        List<Mision> misiones = misionRepository.findByCursoIdAndActivoTrue(cursoId);
+        List<Mision> misiones = misionRepository.findByCursoIdAndActivoTrue(cursoId, Limit.unlimited());
 
-        return misiones.stream()
-                .map(this::convertirAMisionListResponse)
-                .collect(Collectors.toList());
+        return convertirAMisionListResponses(misiones);
     }
 
     @Override
@@ -163,11 +284,78 @@ public class MisionServiceImpl implements MisionService {
             UUID cursoId, CategoriaMision categoria) {
         log.info("Listando misiones del curso: {} con categoría: {}", cursoId, categoria);
 
-        List<Mision> misiones = misionRepository.findByCursoIdAndCategoria(cursoId, categoria);
+        List<Mision> misiones = misionRepository.findByCursoIdAndCategoria(cursoId, categoria, Limit.unlimited());
 
-        return misiones.stream()
-                .map(this::convertirAMisionListResponse)
+        return convertirAMisionListResponses(misiones);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaResponse<MisionListResponse> listarMisionesPorCurso(
+            UUID cursoId, CategoriaMision categoria, Integer limite, String despues) {
+        log.info("Listando página de misiones del curso: {} (categoria={}, limit={}, after={})",
+                cursoId, categoria, limite, despues);
+
+        int tamano = tamanoPagina(limite);
+        ClaveMision clave = decodificarCursorMision(despues);
+        List<Mision> misiones;
+        if (categoria != null) {
+            misiones = clave == null
+                    ? misionRepository.findByCursoIdAndCategoria(cursoId, categoria, Limit.of(tamano + 1))
+                    : misionRepository.findByCursoIdAndCategoriaDespues(
+                            cursoId, categoria, clave.fechaLimite(), clave.id(), Limit.of(tamano + 1));
+        } else {
+            misiones = clave == null
+                    ? misionRepository.findByCursoIdAndActivoTrue(cursoId, Limit.of(tamano + 1))
+                    : misionRepository.findByCursoIdAndActivoTrueDespues(
+                            cursoId, clave.fechaLimite(), clave.id(), Limit.of(tamano + 1));
+        }
+
+        return paginarMisiones(misiones, tamano);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaResponse<MisionListResponse> buscarMisiones(
+            UUID profesorId, String texto, UUID cursoId, CategoriaMision categoria, DificultadMision dificultad,
+            Integer limite, String despues) {
+        log.info("Buscando misiones del profesor: {} (q={}, curso={}, categoria={}, dificultad={}, limit={}, after={})",
+                profesorId, texto, cursoId, categoria, dificultad, limite, despues);
+
+        String consulta = ConsultaBusqueda.tsquery(texto);
+        int tamano = tamanoPagina(limite);
+        float relevanciaAntes = RELEVANCIA_MAXIMA;
+        UUID idAntes = MISION_MAXIMA;
+        if (despues != null && !despues.isBlank()) {
+            String[] cursor = Cursor.decodificar(despues, 2);
+            try {
+                relevanciaAntes = Float.parseFloat(cursor[0]);
+                idAntes = UUID.fromString(cursor[1]);
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Cursor inválido");
+            }
+        }
+
+        // Coincidencias ordenadas por relevancia en el índice GIN; luego las misiones de la página con su curso
+        List<ResultadoBusquedaView> resultados = misionRepository.buscarMisiones(consulta, profesorId, cursoId,
+                categoria != null ? categoria.name() : null, dificultad != null ? dificultad.name() : null,
+                relevanciaAntes, idAntes, tamano + 1);
+        boolean hayMas = resultados.size() > tamano;
+        List<ResultadoBusquedaView> pagina = hayMas ? resultados.subList(0, tamano) : resultados;
+
+        Map<UUID, Mision> misionesPorId = new HashMap<>();
+        for (Mision mision : misionRepository.findConCursoByIdIn(
+                pagina.stream().map(ResultadoBusquedaView::getId).toList())) {
+            misionesPorId.put(mision.getId(), mision);
+        }
+        List<Mision> misiones = pagina.stream()
+                .map(resultado -> misionesPorId.get(resultado.getId()))
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+
+        ResultadoBusquedaView ultimo = hayMas ? pagina.get(pagina.size() - 1) : null;
+        return new PaginaResponse<>(convertirAMisionListResponses(misiones),
+                hayMas ? Cursor.codificar(ultimo.getRelevancia(), ultimo.getId()) : null);
     }
 
     @Override
@@ -183,6 +371,10 @@ public class MisionServiceImpl implements MisionService {
             throw new UnauthorizedException("No tienes permiso para actualizar esta misión");
         }
 
+        LocalDateTime fechaLimiteAnterior = mision.getFechaLimite();
+        String tituloAnterior = mision.getTitulo();
+        String descripcionAnterior = mision.getDescripcion();
+
         // Verificar si hay entregas enviadas
         Long entregasCount = entregaRepository.countByMisionId(misionId);
         if (entregasCount > 0) {
@@ -233,7 +425,25 @@ public class MisionServiceImpl implements MisionService {
             }
         }
 
+        if (request.getRequisitosIds() != null) {
+            reemplazarRequisitos(mision, request.getRequisitosIds());
+        }
+
         mision = misionRepository.save(mision);
+        cacheDetalleMision.invalidar(misionId);
+
+        if (!mision.getTitulo().equals(tituloAnterior) || !mision.getDescripcion().equals(descripcionAnterior)) {
+            misionRepository.actualizarDocumentoBusqueda(misionId);
+        }
+
+        // Fecha límite ampliada: las entregas vencidas vuelven a estar pendientes
+        if (!mision.getFechaLimite().equals(fechaLimiteAnterior)
+                && mision.getFechaLimite().isAfter(LocalDateTime.now())) {
+            entregaRepository.reabrirVencidas(misionId, LocalDateTime.now());
+        }
+        eventPublisher.publishEvent(Boolean.TRUE.equals(mision.getActivo())
+                ? new PlazoMisionModificado(misionId, mision.getCurso().getId(), mision.getFechaLimite())
+                : PlazoMisionModificado.sinPlazo(misionId, mision.getCurso().getId()));
 
         log.info("Misión actualizada exitosamente: {}", misionId);
 
@@ -261,8 +471,14 @@ public class MisionServiceImpl implements MisionService {
             );
         }
 
+        // Quitar la misión del grafo de requisitos; las que la exigían cambian de versión
+        misionRepository.actualizarVersionDependientes(misionId, LocalDateTime.now());
+        requisitoRepository.deleteAristasDeMision(misionId);
+
         // Eliminar progreso, contenidos y criterios (cascade)
         misionRepository.delete(mision);
+        cacheDetalleMision.invalidar(misionId);
+        eventPublisher.publishEvent(PlazoMisionModificado.sinPlazo(misionId, mision.getCurso().getId()));
 
         log.info("Misión eliminada exitosamente: {}", misionId);
     }
@@ -283,43 +499,130 @@ public class MisionServiceImpl implements MisionService {
             throw new UnauthorizedException("No tienes permiso para ver este progreso");
         }
 
-        // Obtener progreso de todos los estudiantes
-        List<ProgresoMision> progresos = progresoRepository.findByMisionId(misionId);
+        // Progreso de todos los estudiantes con nombre y avatar en una sola consulta
+        List<ProgresoEstudianteView> progresos = progresoRepository.findProgresoEstudiantesPorEstado(
+                misionId, null, 0, PORCENTAJE_MAXIMO, true, PORCENTAJE_MAXIMO + 1, ESTUDIANTE_MAXIMO, Limit.unlimited());
 
-        // Calcular estadísticas
-        Long completados = progresoRepository.countCompletadosByMision(misionId);
-        Long enProgreso = progresoRepository.countEnProgresoByMision(misionId);
-        Long totalEstudiantes = inscripcionRepository.countEstudiantesByCurso(mision.getCurso().getId());
-        Long noIniciados = totalEstudiantes - completados - enProgreso;
+        // Asignados y completados desde los contadores de la misión (sin contar progreso_mision);
+        // en progreso se cuenta sobre las filas ya cargadas
+        ContadorMision contador = contadorMisionService.obtener(misionId);
+        int totalEstudiantes = contador.getEstudiantesAsignados();
+        int completados = contador.getEstudiantesCompletados();
+        int enProgreso = (int) progresos.stream()
+                .filter(p -> !Boolean.TRUE.equals(p.getCompletada()) && p.getPorcentajeCompletado() > 0)
+                .count();
+        int noIniciados = Math.max(0, totalEstudiantes - completados - enProgreso);
 
         // Crear respuesta de progreso por estudiante
         List<EstudianteProgresoResponse> estudiantesProgreso = progresos.stream()
-                .map(progreso -> {
-                    String estado = determinarEstado(progreso);
-                    return EstudianteProgresoResponse.builder()
-                            .estudianteId(progreso.getEstudiante().getId())
-                            .nombreCompleto(progreso.getEstudiante().getNombreCompleto())
-                            .avatarUrl(progreso.getEstudiante().getAvatarUrl())
-                            .porcentajeCompletado(progreso.getPorcentajeCompletado())
-                            .estado(estado)
-                            .ultimaActividad(progreso.getUltimaActividad())
-                            .build();
-                })
+                .map(this::convertirAEstudianteProgresoResponse)
                 .collect(Collectors.toList());
 
         return MisionProgresoResponse.builder()
                 .misionId(misionId)
                 .titulo(mision.getTitulo())
-                .totalEstudiantes(totalEstudiantes.intValue())
-                .completados(completados.intValue())
-                .enProgreso(enProgreso.intValue())
-                .noIniciados(noIniciados.intValue())
+                .totalEstudiantes(totalEstudiantes)
+                .completados(completados)
+                .enProgreso(enProgreso)
+                .noIniciados(noIniciados)
                 .estudiantes(estudiantesProgreso)
                 .build();
     }
 
     @Override
-    public void asignarMisionAEstudiantes(
+    @Transactional(readOnly = true)
+    public PaginaResponse<EstudianteProgresoResponse> listarProgresoEstudiantes(
+            UUID misionId, UUID profesorId, String estado, String orden, Integer limite, String despues) {
+        log.info("Listando progreso de estudiantes de la misión: {} (estado={}, orden={}, limit={}, after={})",
+                misionId, estado, orden, limite, despues);
+
+        Mision mision = misionRepository.findById(misionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Misión no encontrada con ID: " + misionId));
+
+        // Verificar que el profesor sea el dueño
+        if (!mision.getProfesor().getId().equals(profesorId)) {
+            throw new UnauthorizedException("No tienes permiso para ver este progreso");
+        }
+
+        FiltroProgreso filtro = resolverFiltroProgreso(estado);
+        int tamano = tamanoPagina(limite);
+        String[] cursor;
+        List<ProgresoEstudianteView> filas;
+        Function<ProgresoEstudianteView, String> cursorDe;
+
+        // Orden descendente por la clave elegida y el id del estudiante; el cursor es la clave de la última fila
+        try {
+            switch (orden == null || orden.isBlank() ? "estado" : orden.toLowerCase()) {
+                case "estado" -> {
+                    cursor = despues != null ? Cursor.decodificar(despues, 3) : null;
+                    filas = progresoRepository.findProgresoEstudiantesPorEstado(misionId,
+                            filtro.completada(), filtro.porcentajeMinimo(), filtro.porcentajeMaximo(),
+                            cursor != null ? Boolean.parseBoolean(cursor[0]) : true,
+                            cursor != null ? Integer.parseInt(cursor[1]) : PORCENTAJE_MAXIMO + 1,
+                            cursor != null ? UUID.fromString(cursor[2]) : ESTUDIANTE_MAXIMO,
+                            Limit.of(tamano + 1));
+                    cursorDe = fila -> Cursor.codificar(
+                            fila.getCompletada(), fila.getPorcentajeCompletado(), fila.getEstudianteId());
+                }
+                case "porcentaje" -> {
+                    cursor = despues != null ? Cursor.decodificar(despues, 2) : null;
+                    filas = progresoRepository.findProgresoEstudiantesPorPorcentaje(misionId,
+                            filtro.completada(), filtro.porcentajeMinimo(), filtro.porcentajeMaximo(),
+                            cursor != null ? Integer.parseInt(cursor[0]) : PORCENTAJE_MAXIMO + 1,
+                            cursor != null ? UUID.fromString(cursor[1]) : ESTUDIANTE_MAXIMO,
+                            Limit.of(tamano + 1));
+                    cursorDe = fila -> Cursor.codificar(fila.getPorcentajeCompletado(), fila.getEstudianteId());
+                }
+                case "actividad" -> {
+                    cursor = despues != null ? Cursor.decodificar(despues, 2) : null;
+                    filas = progresoRepository.findProgresoEstudiantesPorActividad(misionId,
+                            filtro.completada(), filtro.porcentajeMinimo(), filtro.porcentajeMaximo(),
+                            cursor != null ? LocalDateTime.parse(cursor[0]) : ACTIVIDAD_MAXIMA,
+                            cursor != null ? UUID.fromString(cursor[1]) : ESTUDIANTE_MAXIMO,
+                            Limit.of(tamano + 1));
+                    cursorDe = fila -> Cursor.codificar(fila.getUltimaActividad(), fila.getEstudianteId());
+                }
+                default -> throw new ValidationException(
+                        "Orden no válido: " + orden + " (estado, porcentaje o actividad)");
+            }
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new ValidationException("Cursor inválido");
+        }
+
+        boolean hayMas = filas.size() > tamano;
+        List<ProgresoEstudianteView> pagina = hayMas ? filas.subList(0, tamano) : filas;
+
+        return new PaginaResponse<>(
+                pagina.stream().map(this::convertirAEstudianteProgresoResponse).collect(Collectors.toList()),
+                hayMas ? cursorDe.apply(pagina.get(pagina.size() - 1)) : null);
+    }
+
+    private FiltroProgreso resolverFiltroProgreso(String estado) {
+        if (estado == null || estado.isBlank()) {
+            return new FiltroProgreso(null, 0, PORCENTAJE_MAXIMO);
+        }
+        return switch (estado.toLowerCase()) {
+            case "completada" -> new FiltroProgreso(true, 0, PORCENTAJE_MAXIMO);
+            case "en_progreso" -> new FiltroProgreso(false, 1, PORCENTAJE_MAXIMO);
+            case "no_iniciada" -> new FiltroProgreso(false, 0, 0);
+            default -> throw new ValidationException(
+                    "Estado no válido: " + estado + " (completada, en_progreso o no_iniciada)");
+        };
+    }
+
+    private EstudianteProgresoResponse convertirAEstudianteProgresoResponse(ProgresoEstudianteView fila) {
+        return EstudianteProgresoResponse.builder()
+                .estudianteId(fila.getEstudianteId())
+                .nombreCompleto(fila.getNombreCompleto())
+                .avatarUrl(fila.getAvatarUrl())
+                .porcentajeCompletado(fila.getPorcentajeCompletado())
+                .estado(determinarEstado(fila.getCompletada(), fila.getPorcentajeCompletado()))
+                .ultimaActividad(fila.getUltimaActividad())
+                .build();
+    }
+
+    @Override
+    public AsignacionMisionResponse asignarMisionAEstudiantes(
             UUID misionId, List<UUID> estudiantesIds, UUID profesorId) {
         log.info("Asignando misión {} a {} estudiantes", misionId, estudiantesIds.size());
 
@@ -331,33 +634,45 @@ public class MisionServiceImpl implements MisionService {
             throw new UnauthorizedException("No tienes permiso para asignar esta misión");
         }
 
-        // Crear progreso y entrega para cada estudiante
-        for (UUID estudianteId : estudiantesIds) {
-            Usuario estudiante = usuarioRepository.findById(estudianteId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Estudiante no encontrado con ID: " + estudianteId));
-
-            // Verificar si ya existe progreso
-            if (progresoRepository.findByMisionIdAndEstudianteId(misionId, estudianteId).isEmpty()) {
-                ProgresoMision progreso = new ProgresoMision();
-                progreso.setMision(mision);
-                progreso.setEstudiante(estudiante);
-                progreso.setPorcentajeCompletado(0);
-                progreso.setCompletada(false);
-                progresoRepository.save(progreso);
-
-                // Crear entrada de entrega vacía
-                EntregaMision entrega = new EntregaMision();
-                entrega.setMision(mision);
-                entrega.setEstudiante(estudiante);
-                entrega.setEstado(EstadoEntrega.PENDIENTE);
-                entregaRepository.save(entrega);
-
-                // Crear notificación
-                notificacionService.crearNotificacionNuevaMision(estudiante, mision);
+        // Ids distintos, en el orden en que llegaron
+        Set<UUID> solicitados = new LinkedHashSet<>(estudiantesIds);
+        solicitados.remove(null);
+
+        Set<UUID> existentes = usuarioRepository.findAllById(solicitados).stream()
+                .map(Usuario::getId)
+                .collect(Collectors.toSet());
+        Set<UUID> yaAsignados = existentes.isEmpty()
+                ? Set.of()
+                : new HashSet<>(progresoRepository.findEstudiantesIdsAsignados(misionId, existentes));
+
+        List<UUID> asignados = new ArrayList<>();
+        List<UUID> omitidos = new ArrayList<>();
+        List<UUID> desconocidos = new ArrayList<>();
+        for (UUID estudianteId : solicitados) {
+            if (!existentes.contains(estudianteId)) {
+                desconocidos.add(estudianteId);
+            } else if (yaAsignados.contains(estudianteId)) {
+                omitidos.add(estudianteId);
+            } else {
+                asignados.add(estudianteId);
             }
         }
 
-        log.info("Misión asignada exitosamente a {} estudiantes", estudiantesIds.size());
+        if (!asignados.isEmpty()) {
+            crearProgresoInicialParaEstudiantes(mision, asignados);
+            notificacionService.encolarNotificacionNuevaMision(mision, asignados);
+        }
+
+        log.info("Misión {} asignada: {} nuevos, {} ya asignados, {} desconocidos",
+                misionId, asignados.size(), omitidos.size(), desconocidos.size());
+
+        return AsignacionMisionResponse.builder()
+                .misionId(misionId)
+                .solicitados(solicitados.size())
+                .asignados(asignados)
+                .omitidos(omitidos)
+                .desconocidos(desconocidos)
+                .build();
     }
 
     // ========== MÉTODOS AUXILIARES PRIVADOS ==========
@@ -381,6 +696,75 @@ public class MisionServiceImpl implements MisionService {
         }
     }
 
+    /**
+     * Requisitos sin repetir; todos deben ser otras misiones del mismo curso
+     */
+    private List<UUID> validarRequisitos(Mision mision, List<UUID> requisitosIds) {
+        if (requisitosIds == null || requisitosIds.isEmpty()) {
+            return List.of();
+        }
+        Set<UUID> requisitos = new LinkedHashSet<>(requisitosIds);
+        if (requisitos.contains(null)) {
+            throw new ValidationException("Los requisitos no pueden contener ids vacíos");
+        }
+        if (requisitos.contains(mision.getId())) {
+            throw new ValidationException("Una misión no puede ser requisito de sí misma");
+        }
+
+        List<UUID> delCurso = misionRepository.findIdsByCursoIdAndIdIn(mision.getCurso().getId(), requisitos);
+        if (delCurso.size() != requisitos.size()) {
+            requisitos.removeAll(delCurso);
+            throw new ValidationException("Los requisitos deben ser misiones del mismo curso: " + requisitos);
+        }
+        return new ArrayList<>(requisitos);
+    }
+
+    private void guardarRequisitos(Mision mision, List<UUID> requisitosIds) {
+        List<RequisitoMision> aristas = new ArrayList<>(requisitosIds.size());
+        for (UUID requisitoId : requisitosIds) {
+            aristas.add(new RequisitoMision(null, mision, misionRepository.getReferenceById(requisitoId)));
+        }
+        requisitoRepository.saveAll(aristas);
+    }
+
+    /**
+     * Reemplaza los requisitos de una misión existente. Rechaza el cambio si forma un
+     * ciclo y recalcula el orden topológico del curso, escribiendo solo las misiones
+     * que cambian de posición. Las misiones del curso se bloquean mientras tanto para
+     * que dos cambios simultáneos no puedan cerrar un ciclo entre ambos.
+     */
+    private void reemplazarRequisitos(Mision mision, List<UUID> requisitosIds) {
+        List<UUID> requisitos = validarRequisitos(mision, requisitosIds);
+        UUID cursoId = mision.getCurso().getId();
+
+        List<Mision> misionesCurso = misionRepository.findByCursoIdOrdenRequisitos(cursoId);
+
+        Map<UUID, List<UUID>> grafo = new HashMap<>();
+        for (AristaRequisitoView arista : requisitoRepository.findAristasByCursoId(cursoId)) {
+            if (!arista.getMisionId().equals(mision.getId())) {
+                grafo.computeIfAbsent(arista.getMisionId(), id -> new ArrayList<>()).add(arista.getRequisitoId());
+            }
+        }
+        grafo.put(mision.getId(), requisitos);
+
+        List<UUID> orden = GrafoRequisitos.ordenTopologico(
+                        misionesCurso.stream().map(Mision::getId).collect(Collectors.toList()), grafo)
+                .orElseThrow(() -> new ValidationException("Los requisitos forman un ciclo entre misiones del curso"));
+
+        Map<UUID, Mision> porId = misionesCurso.stream().collect(Collectors.toMap(Mision::getId, Function.identity()));
+        for (int i = 0; i < orden.size(); i++) {
+            Mision actual = porId.get(orden.get(i));
+            if (!Objects.equals(actual.getOrdenRequisitos(), i)) {
+                actual.setOrdenRequisitos(i);
+            }
+        }
+
+        requisitoRepository.deleteByMisionId(mision.getId());
+        guardarRequisitos(mision, requisitos);
+        // La versión de la misión cambia aunque no cambie ningún otro campo
+        mision.setFechaActualizacion(LocalDateTime.now());
+    }
+
     private void crearContenidos(Mision mision, List<ContenidoRequest> contenidosRequest) {
         for (ContenidoRequest req : contenidosRequest) {
             ContenidoMision contenido = new ContenidoMision();
@@ -406,46 +790,56 @@ public class MisionServiceImpl implements MisionService {
         }
     }
 
-    private void crearProgresoInicialParaEstudiantes(Mision mision) {
-        UUID cursoId = mision.getCurso().getId();
-        List<UUID> estudiantesIds = inscripcionRepository
-                .findEstudiantesIdsByCursoId(cursoId);
-
-        for (UUID estudianteId : estudiantesIds) {
-            usuarioRepository.findById(estudianteId).ifPresent(estudiante -> {
-                ProgresoMision progreso = new ProgresoMision();
-                progreso.setMision(mision);
-                progreso.setEstudiante(estudiante);
-                progreso.setPorcentajeCompletado(0);
-                progreso.setCompletada(false);
-                progresoRepository.save(progreso);
-
-                // Crear entrada de entrega vacía
-                EntregaMision entrega = new EntregaMision();
-                entrega.setMision(mision);
-                entrega.setEstudiante(estudiante);
-                entrega.setEstado(EstadoEntrega.PENDIENTE);
-                entregaRepository.save(entrega);
-            });
+    /**
+     * Crea el progreso y la entrega vacía de cada estudiante con inserciones en lote.
+     * Los estudiantes se referencian con proxies (sin SELECT por estudiante).
+     */
+    private void crearProgresoInicialParaEstudiantes(Mision mision, List<UUID> estudiantesIds) {
+        configurarLoteJdbc();
+
+        List<ProgresoMision> progresos = new ArrayList<>(estudiantesIds.size());
+        List<EntregaMision> entregas = new ArrayList<>(estudiantesIds.size());
+
+        for (Usuario estudiante : referenciasEstudiantes(estudiantesIds)) {
+            ProgresoMision progreso = new ProgresoMision();
+            progreso.setMision(mision);
+            progreso.setEstudiante(estudiante);
+            progreso.setPorcentajeCompletado(0);
+            progreso.setCompletada(false);
+            progresos.add(progreso);
+
+            // Crear entrada de entrega vacía
+            EntregaMision entrega = new EntregaMision();
+            entrega.setMision(mision);
+            entrega.setEstudiante(estudiante);
+            entrega.setEstado(EstadoEntrega.PENDIENTE);
+            entregas.add(entrega);
         }
-    }
 
-    private void notificarNuevaMision(Mision mision) {
-        UUID cursoId = mision.getCurso().getId();
-        List<UUID> estudiantesIds = inscripcionRepository
-                .findEstudiantesIdsByCursoId(cursoId);
+        progresoRepository.saveAll(progresos);
+        entregaRepository.saveAll(entregas);
+        contadorMisionService.registrarAsignados(mision.getId(), progresos.size());
+    }
 
+    private List<Usuario> referenciasEstudiantes(List<UUID> estudiantesIds) {
+        List<Usuario> estudiantes = new ArrayList<>(estudiantesIds.size());
         for (UUID estudianteId : estudiantesIds) {
-            usuarioRepository.findById(estudianteId).ifPresent(estudiante -> {
-                notificacionService.crearNotificacionNuevaMision(estudiante, mision);
-            });
+            estudiantes.add(usuarioRepository.getReferenceById(estudianteId));
         }
+        return estudiantes;
     }
 
-    private String determinarEstado(ProgresoMision progreso) {
-        if (progreso.getCompletada()) {
+    /**
+     * Tamaño de lote JDBC para las inserciones masivas de esta sesión
+     */
+    private void configurarLoteJdbc() {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(tamanoLote);
+    }
+
+    private String determinarEstado(Boolean completada, Integer porcentajeCompletado) {
+        if (completada) {
             return "completada";
-        } else if (progreso.getPorcentajeCompletado() > 0) {
+        } else if (porcentajeCompletado > 0) {
             return "en_progreso";
         } else {
             return "no_iniciada";
@@ -453,10 +847,13 @@ public class MisionServiceImpl implements MisionService {
     }
 
     private MisionResponse convertirAMisionResponse(Mision mision) {
-        // Obtener contenidos
-        List<ContenidoMision> contenidos = contenidoRepository
-                .findByMisionIdOrderByOrdenAsc(mision.getId());
+        return convertirAMisionResponse(mision,
+                contenidoRepository.findByMisionIdOrderByOrdenAsc(mision.getId()),
+                criteriosRepository.findByMisionIdOrderByOrdenAsc(mision.getId()));
+    }
 
+    private MisionResponse convertirAMisionResponse(Mision mision, List<ContenidoMision> contenidos,
+                                                    List<CriteriosEvaluacion> criterios) {
         List<ContenidoResponse> contenidosResponse = contenidos.stream()
                 .map(c -> ContenidoResponse.builder()
                         .id(c.getId())
@@ -468,10 +865,6 @@ public class MisionServiceImpl implements MisionService {
                         .build())
                 .collect(Collectors.toList());
 
-        // Obtener criterios
-        List<CriteriosEvaluacion> criterios = criteriosRepository
-                .findByMisionIdOrderByOrdenAsc(mision.getId());
-
         List<CriterioResponse> criteriosResponse = criterios.stream()
                 .map(c -> CriterioResponse.builder()
                         .id(c.getId())
@@ -499,6 +892,7 @@ public class MisionServiceImpl implements MisionService {
                 .fechaLimite(mision.getFechaLimite())
                 .activo(mision.getActivo())
                 .requisitosPrevios(mision.getRequisitosPrevios())
+                .requisitosIds(requisitoRepository.findRequisitosIds(mision.getId()))
                 .contenidos(contenidosResponse)
                 .criterios(criteriosResponse)
                 .fechaCreacion(mision.getFechaCreacion())
@@ -506,11 +900,71 @@ public class MisionServiceImpl implements MisionService {
                 .build();
     }
 
-    private MisionListResponse convertirAMisionListResponse(Mision mision) {
-        Long completados = progresoRepository.countCompletadosByMision(mision.getId());
-        Long totalEstudiantes = inscripcionRepository
-                .countEstudiantesByCurso(mision.getCurso().getId());
+    /**
+     * Convierte una lista de misiones (con el curso ya cargado) resolviendo los
+     * conteos de toda la lista con una consulta agrupada por misión y otra por curso
+     */
+    private List<MisionListResponse> convertirAMisionListResponses(List<Mision> misiones) {
+        if (misiones.isEmpty()) {
+            return List.of();
+        }
+
+        Set<UUID> misionesIds = new HashSet<>();
+        Set<UUID> cursosIds = new HashSet<>();
+        for (Mision mision : misiones) {
+            misionesIds.add(mision.getId());
+            cursosIds.add(mision.getCurso().getId());
+        }
+
+        Map<UUID, Long> completadosPorMision = aMapa(progresoRepository.countCompletadosPorMisiones(misionesIds));
+        Map<UUID, Long> estudiantesPorCurso = aMapa(inscripcionRepository.countEstudiantesPorCursos(cursosIds));
 
+        return misiones.stream()
+                .map(mision -> convertirAMisionListResponse(mision,
+                        completadosPorMision.getOrDefault(mision.getId(), 0L),
+                        estudiantesPorCurso.getOrDefault(mision.getCurso().getId(), 0L)))
+                .collect(Collectors.toList());
+    }
+
+    private Map<UUID, Long> aMapa(List<ConteoPorIdView> conteos) {
+        Map<UUID, Long> mapa = new HashMap<>(conteos.size() * 2);
+        for (ConteoPorIdView conteo : conteos) {
+            mapa.put(conteo.getId(), conteo.getTotal());
+        }
+        return mapa;
+    }
+
+    /**
+     * Convierte una página leída con un elemento de más (tamano + 1) en respuesta con cursor
+     */
+    private PaginaResponse<MisionListResponse> paginarMisiones(List<Mision> misiones, int tamano) {
+        boolean hayMas = misiones.size() > tamano;
+        List<Mision> pagina = hayMas ? misiones.subList(0, tamano) : misiones;
+        Mision ultima = hayMas ? pagina.get(pagina.size() - 1) : null;
+
+        return new PaginaResponse<>(convertirAMisionListResponses(pagina),
+                hayMas ? Cursor.codificar(ultima.getFechaLimite(), ultima.getId()) : null);
+    }
+
+    private int tamanoPagina(Integer limite) {
+        return limite == null
+                ? LIMITE_PAGINA_POR_DEFECTO
+                : Math.max(1, Math.min(limite, LIMITE_PAGINA_MAXIMO));
+    }
+
+    private ClaveMision decodificarCursorMision(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String[] partes = Cursor.decodificar(cursor, 2);
+        try {
+            return new ClaveMision(LocalDateTime.parse(partes[0]), UUID.fromString(partes[1]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new ValidationException("Cursor inválido");
+        }
+    }
+
+    private MisionListResponse convertirAMisionListResponse(Mision mision, Long completados, Long totalEstudiantes) {
         String descripcionResumida = mision.getDescripcion().length() > 150
                 ? mision.getDescripcion().substring(0, 147) + "..."
                 : mision.getDescripcion();
@@ -535,38 +989,180 @@ public class MisionServiceImpl implements MisionService {
     @Override
     @Transactional(readOnly = true)
     public List<MisionEstudianteResponse> listarMisionesPorEstudiante(UUID estudianteId) {
-        log.info("Listando misiones del estudiante: {}", estudianteId);
-
-        // Obtener todos los progresos del estudiante con JOIN FETCH para evitar lazy loading
-        List<ProgresoMision> progresos = progresoRepository.findByEstudianteIdWithMisionAndCurso(estudianteId);
-
-        return progresos.stream()
-                .map(progreso -> {
-                    Mision mision = progreso.getMision();
-                    EntregaMision entrega = entregaRepository
-                            .findByMisionIdAndEstudianteId(mision.getId(), estudianteId)
-                            .orElse(null);
-
-                    return MisionEstudianteResponse.builder()
-                            .id(mision.getId())
-                            .titulo(mision.getTitulo())
-                            .descripcion(mision.getDescripcion())
-                            .categoria(mision.getCategoria())
-                            .dificultad(mision.getDificultad())
-                            .puntosRecompensa(mision.getPuntosRecompensa())
-                            .experienciaRecompensa(mision.getExperienciaRecompensa())
-                            .fechaInicio(mision.getFechaInicio())
-                            .fechaLimite(mision.getFechaLimite())
-                            .activo(mision.getActivo())
-                            .cursoNombre(mision.getCurso().getNombre())
-                            .porcentajeCompletado(progreso.getPorcentajeCompletado())
-                            .completada(progreso.getCompletada())
-                            .fechaCompletado(progreso.getFechaCompletado())
-                            .estadoEntrega(entrega != null ? entrega.getEstado() : com.eduquestia.backend.entity.enums.EstadoEntrega.PENDIENTE)
-                            .puntosObtenidos(entrega != null && entrega.getPuntosObtenidos() != null ? entrega.getPuntosObtenidos() : 0)
-                            .ultimaActividad(progreso.getUltimaActividad())
-                            .build();
-                })
+        return listarMisionesPorEstudiante(estudianteId, null, null, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MisionEstudianteResponse> listarMisionesPorEstudiante(
+            UUID estudianteId, String estado, LocalDate venceDesde, LocalDate venceHasta) {
+        log.info("Listando misiones del estudiante: {} (estado={}, venceDesde={}, venceHasta={})",
+                estudianteId, estado, venceDesde, venceHasta);
+
+        FiltroMisionesEstudiante filtro = resolverFiltroEstudiante(estado, venceDesde, venceHasta);
+
+        // Misión, curso, progreso y entrega en una sola consulta; los filtros se aplican en la base
+        return progresoRepository.findMisionesEstudiante(estudianteId, filtro.completada(), filtro.misionActiva(),
+                        filtro.venceDesde(), filtro.venceHasta(), Limit.unlimited())
+                .stream()
+                .map(this::convertirAMisionEstudianteResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaResponse<MisionEstudianteResponse> listarMisionesPorEstudiante(
+            UUID estudianteId, String estado, LocalDate venceDesde, LocalDate venceHasta,
+            Integer limite, String despues) {
+        log.info("Listando página de misiones del estudiante: {} (estado={}, venceDesde={}, venceHasta={}, limit={}, after={})",
+                estudianteId, estado, venceDesde, venceHasta, limite, despues);
+
+        FiltroMisionesEstudiante filtro = resolverFiltroEstudiante(estado, venceDesde, venceHasta);
+        int tamano = tamanoPagina(limite);
+        ClaveMision clave = decodificarCursorMision(despues);
+
+        List<MisionEstudianteView> filas = clave == null
+                ? progresoRepository.findMisionesEstudiante(estudianteId, filtro.completada(), filtro.misionActiva(),
+                        filtro.venceDesde(), filtro.venceHasta(), Limit.of(tamano + 1))
+                : progresoRepository.findMisionesEstudianteDespues(estudianteId, filtro.completada(),
+                        filtro.misionActiva(), filtro.venceDesde(), filtro.venceHasta(),
+                        clave.fechaLimite(), clave.id(), Limit.of(tamano + 1));
+
+        boolean hayMas = filas.size() > tamano;
+        List<MisionEstudianteView> pagina = hayMas ? filas.subList(0, tamano) : filas;
+        MisionEstudianteView ultima = hayMas ? pagina.get(pagina.size() - 1) : null;
+
+        return new PaginaResponse<>(
+                pagina.stream().map(this::convertirAMisionEstudianteResponse).collect(Collectors.toList()),
+                hayMas ? Cursor.codificar(ultima.getFechaLimite(), ultima.getId()) : null);
+    }
+
+    private FiltroMisionesEstudiante resolverFiltroEstudiante(String estado, LocalDate venceDesde, LocalDate venceHasta) {
+        if (venceDesde != null && venceHasta != null && venceHasta.isBefore(venceDesde)) {
+            throw new ValidationException("'venceHasta' no puede ser anterior a 'venceDesde'");
+        }
+
+        // activas: sin completar y con la misión vigente; completadas: todas las completadas
+        Boolean completada = null;
+        Boolean misionActiva = null;
+        if (estado != null && !estado.isBlank()) {
+            switch (estado.toLowerCase()) {
+                case "activas" -> {
+                    completada = false;
+                    misionActiva = true;
+                }
+                case "completadas" -> completada = true;
+                default -> throw new ValidationException("Estado no válido: " + estado + " (activas o completadas)");
+            }
+        }
+
+        return new FiltroMisionesEstudiante(completada, misionActiva,
+                venceDesde != null ? venceDesde.atStartOfDay() : null,
+                venceHasta != null ? venceHasta.plusDays(1).atStartOfDay() : null);
+    }
+
+    private MisionEstudianteResponse convertirAMisionEstudianteResponse(MisionEstudianteView fila) {
+        return MisionEstudianteResponse.builder()
+                .id(fila.getId())
+                .titulo(fila.getTitulo())
+                .descripcion(fila.getDescripcion())
+                .categoria(fila.getCategoria())
+                .dificultad(fila.getDificultad())
+                .puntosRecompensa(fila.getPuntosRecompensa())
+                .experienciaRecompensa(fila.getExperienciaRecompensa())
+                .fechaInicio(fila.getFechaInicio())
+                .fechaLimite(fila.getFechaLimite())
+                .activo(fila.getActivo())
+                .cursoNombre(fila.getCursoNombre())
+                .porcentajeCompletado(fila.getPorcentajeCompletado())
+                .completada(fila.getCompletada())
+                .fechaCompletado(fila.getFechaCompletado())
+                .estadoEntrega(fila.getEstadoEntrega() != null ? fila.getEstadoEntrega() : EstadoEntrega.PENDIENTE)
+                .puntosObtenidos(fila.getPuntosObtenidos() != null ? fila.getPuntosObtenidos() : 0)
+                .ultimaActividad(fila.getUltimaActividad())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AgendaMisionResponse> listarAgendaEstudiante(UUID estudianteId, LocalDate desde, LocalDate hasta) {
+        log.info("Obteniendo agenda del estudiante: {} (desde={}, hasta={})", estudianteId, desde, hasta);
+
+        if (hasta.isBefore(desde)) {
+            throw new ValidationException("'hasta' no puede ser anterior a 'desde'");
+        }
+        // Ambas fechas se incluyen: desde + 366 ya serían 367 días
+        if (!hasta.isBefore(desde.plusDays(AGENDA_DIAS_MAXIMOS))) {
+            throw new ValidationException("La agenda abarca como máximo " + AGENDA_DIAS_MAXIMOS + " días");
+        }
+        LocalDateTime inicio = desde.atStartOfDay();
+        LocalDateTime fin = hasta.plusDays(1).atStartOfDay();
+
+        if (!indiceAgenda.habilitado()) {
+            return misionRepository.findAgendaEstudiante(estudianteId, inicio, fin).stream()
+                    .map(fila -> convertirAAgendaMisionResponse(fila, fila.getCompletada()))
+                    .collect(Collectors.toList());
+        }
+
+        // Fechas límite de sus cursos desde el índice en memoria; de la base solo los cursos y lo completado
+        List<PlazoAgendaView> plazos = indiceAgenda.entre(
+                inscripcionRepository.findCursosIdsActivosByEstudiante(estudianteId), inicio, fin);
+        if (plazos.isEmpty()) {
+            return List.of();
+        }
+        Set<UUID> completadas = new HashSet<>(progresoRepository.findMisionesIdsCompletadas(estudianteId,
+                plazos.stream().map(PlazoAgendaView::getId).toList()));
+
+        return plazos.stream()
+                .map(plazo -> convertirAAgendaMisionResponse(plazo, completadas.contains(plazo.getId())))
+                .collect(Collectors.toList());
+    }
+
+    private AgendaMisionResponse convertirAAgendaMisionResponse(PlazoAgendaView plazo, Boolean completada) {
+        return AgendaMisionResponse.builder()
+                .id(plazo.getId())
+                .titulo(plazo.getTitulo())
+                .categoria(plazo.getCategoria())
+                .dificultad(plazo.getDificultad())
+                .puntosRecompensa(plazo.getPuntosRecompensa())
+                .fechaInicio(plazo.getFechaInicio())
+                .fechaLimite(plazo.getFechaLimite())
+                .cursoId(plazo.getCursoId())
+                .cursoNombre(plazo.getCursoNombre())
+                .completada(completada)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MisionEstudianteResponse> listarMisionesDesbloqueadas(UUID estudianteId) {
+        log.info("Listando misiones desbloqueadas del estudiante: {}", estudianteId);
+
+        // Misiones de sus cursos en orden topológico y aristas de requisitos: dos consultas, el grafo se evalúa en memoria
+        Map<UUID, List<UUID>> misionesPorCurso = new LinkedHashMap<>();
+        // Los requisitos inactivos o sin asignar no bloquean: cuentan como cumplidos
+        Set<UUID> satisfechas = new HashSet<>();
+        for (NodoRequisitoView nodo : misionRepository.findNodosRequisitosEstudiante(estudianteId)) {
+            misionesPorCurso.computeIfAbsent(nodo.getCursoId(), id -> new ArrayList<>()).add(nodo.getId());
+            if (Boolean.TRUE.equals(nodo.getSatisfecha())) {
+                satisfechas.add(nodo.getId());
+            }
+        }
+        Map<UUID, List<UUID>> requisitos = new HashMap<>();
+        for (AristaRequisitoView arista : requisitoRepository.findAristasEstudiante(estudianteId)) {
+            requisitos.computeIfAbsent(arista.getMisionId(), id -> new ArrayList<>()).add(arista.getRequisitoId());
+        }
+
+        Set<UUID> desbloqueadas = new HashSet<>();
+        for (List<UUID> misiones : misionesPorCurso.values()) {
+            desbloqueadas.addAll(GrafoRequisitos.desbloqueadas(misiones, requisitos, satisfechas));
+        }
+
+        // Misiones activas sin completar del estudiante, en el orden del listado
+        return progresoRepository.findMisionesEstudiante(estudianteId, false, true, null, null, Limit.unlimited())
+                .stream()
+                .filter(fila -> desbloqueadas.contains(fila.getId()))
+                .map(this::convertirAMisionEstudianteResponse)
                 .collect(Collectors.toList());
     }
 
@@ -574,6 +1170,13 @@ public class MisionServiceImpl implements MisionService {
     @Transactional
     public MisionEstudianteResponse completarMision(
             UUID misionId, CompletarMisionRequest request, UUID estudianteId) {
+        return completarMision(misionId, request, estudianteId, null);
+    }
+
+    @Override
+    @Transactional
+    public MisionEstudianteResponse completarMision(
+            UUID misionId, CompletarMisionRequest request, UUID estudianteId, String claveIdempotencia) {
         log.info("Completando misión {} por estudiante {}", misionId, estudianteId);
 
         // Validar que la misión existe
@@ -589,9 +1192,9 @@ public class MisionServiceImpl implements MisionService {
                 .findByMisionIdAndEstudianteId(misionId, estudianteId)
                 .orElseThrow(() -> new ResourceNotFoundException("No tienes esta misión asignada"));
 
-        // Validar que no esté ya completada
+        // Validar que no esté ya completada (salvo reintento con la misma clave)
         if (progreso.getCompletada()) {
-            throw new ValidationException("Esta misión ya fue completada");
+            return respuestaDeReintento(mision, estudianteId, claveIdempotencia);
         }
 
         // Validar fecha límite
@@ -599,12 +1202,14 @@ public class MisionServiceImpl implements MisionService {
             throw new ValidationException("La fecha límite para esta misión ha expirado");
         }
 
-        // Actualizar progreso a 100% completado
-        progreso.setPorcentajeCompletado(100);
-        progreso.setCompletada(true);
-        progreso.setFechaCompletado(java.time.LocalDateTime.now());
-        progreso.setUltimaActividad(java.time.LocalDateTime.now());
-        progresoRepository.save(progreso);
+        // Actualizar progreso a 100% completado con un UPDATE condicional: entre reintentos
+        // concurrentes solo uno pasa de no completada a completada y sigue adelante
+        // Con la precisión de PostgreSQL, para que un reintento reconstruido desde la entrega coincida
+        LocalDateTime fechaCompletado = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (progresoRepository.marcarCompletada(misionId, estudianteId, fechaCompletado) == 0) {
+            return respuestaDeReintento(mision, estudianteId, claveIdempotencia);
+        }
+        contadorMisionService.registrarCompletado(misionId);
 
         // Obtener o crear entrega
         EntregaMision entrega = entregaRepository
@@ -621,25 +1226,51 @@ public class MisionServiceImpl implements MisionService {
         entrega.setContenidoEntrega(request.getContenidoEntrega());
         entrega.setArchivoUrl(request.getArchivoUrl());
         entrega.setComentariosEstudiante(request.getComentariosEstudiante());
-        entrega.setFechaEnvio(java.time.LocalDateTime.now());
+        entrega.setFechaEnvio(fechaCompletado);
+        entrega.setClaveIdempotencia(claveIdempotencia);
 
         // Otorgar puntos automáticamente (el profesor puede ajustarlos después)
         Integer puntosOtorgados = mision.getPuntosRecompensa();
         entrega.setPuntosObtenidos(puntosOtorgados);
         entregaRepository.save(entrega);
 
+        // Actualizar acumulado de puntos en la misma transacción
+        int puntosSumados = puntosOtorgados != null ? puntosOtorgados : 0;
+        PuntajeTotalesView totales = puntajeService.registrarMisionCompletada(
+                estudianteId, misionId, mision.getCurso().getId(), puntosSumados);
+
         log.info("Misión {} completada por estudiante {}. Puntos otorgados: {}", 
                 misionId, estudianteId, puntosOtorgados);
 
-        // Verificar y otorgar logros
-        try {
-            gamificacionService.verificarYOtorgarLogros(estudianteId);
-        } catch (Exception e) {
-            log.warn("Error al verificar logros después de completar misión: {}", e.getMessage());
-            // No fallar la operación si hay error en logros
+        // Logros, rankings y notificaciones se procesan en segundo plano tras el commit
+        eventPublisher.publishEvent(new MisionCompletada(misionId, estudianteId, puntosSumados,
+                totales.getPuntosTotales(), totales.getMisionesCompletadas(), fechaCompletado));
+
+        return construirRespuestaCompletada(mision, entrega);
+    }
+
+    /**
+     * La misión ya estaba completada: si la entrega guardada lleva la misma
+     * Idempotency-Key, el cliente está reintentando la petición original y recibe
+     * su respuesta; en cualquier otro caso es una petición nueva y se rechaza.
+     */
+    private MisionEstudianteResponse respuestaDeReintento(
+            Mision mision, UUID estudianteId, String claveIdempotencia) {
+        if (claveIdempotencia != null) {
+            Optional<EntregaMision> entrega = entregaRepository
+                    .findByMisionIdAndEstudianteId(mision.getId(), estudianteId)
+                    .filter(e -> claveIdempotencia.equals(e.getClaveIdempotencia()));
+            if (entrega.isPresent()) {
+                log.info("Reintento de completar misión {} por estudiante {} con la misma clave",
+                        mision.getId(), estudianteId);
+                return construirRespuestaCompletada(mision, entrega.get());
+            }
         }
+        throw new ValidationException("Esta misión ya fue completada");
+    }
 
-        // Retornar respuesta
+    // La fecha de envío de la entrega es la misma fecha de completado del progreso
+    private MisionEstudianteResponse construirRespuestaCompletada(Mision mision, EntregaMision entrega) {
         return MisionEstudianteResponse.builder()
                 .id(mision.getId())
                 .titulo(mision.getTitulo())
@@ -654,10 +1285,10 @@ public class MisionServiceImpl implements MisionService {
                 .cursoNombre(mision.getCurso().getNombre())
                 .porcentajeCompletado(100)
                 .completada(true)
-                .fechaCompletado(progreso.getFechaCompletado())
+                .fechaCompletado(entrega.getFechaEnvio())
                 .estadoEntrega(entrega.getEstado())
-                .puntosObtenidos(puntosOtorgados)
-                .ultimaActividad(progreso.getUltimaActividad())
+                .puntosObtenidos(entrega.getPuntosObtenidos())
+                .ultimaActividad(entrega.getFechaEnvio())
                 .build();
     }
 
@@ -0,0 +1,218 @@
+package com.eduquestia.backend.service.logros;
+
+import com.eduquestia.backend.entity.Logro;
+import com.eduquestia.backend.repository.LogroRepository;
+import com.eduquestia.backend.repository.projection.LogroCatalogoVersionView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Evalúa qué logros acaba de alcanzar un estudiante sin recorrer todo el catálogo.
+ *
+ * El catálogo de logros activos se guarda como arreglos inmutables de umbrales
+ * ordenados (puntos, nivel y misiones completadas). Con los totales anteriores y
+ * los nuevos del estudiante, una búsqueda binaria por dimensión encuentra solo los
+ * umbrales cruzados en (anterior, nuevo]; esos logros son los únicos candidatos.
+ * Un logro se cumple justo cuando se cruza el último de sus requisitos, por lo que
+ * basta con revisar los candidatos contra los totales nuevos.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EvaluadorLogros {
+
+    public record Totales(int puntos, int nivel, int completadas) {
+    }
+
+    private final LogroRepository logroRepository;
+
+    private volatile Catalogo catalogo;
+
+    /**
+     * Logros cuyos requisitos se cumplen con {@code nuevos} y que se cruzaron al pasar
+     * desde {@code anteriores}. Si {@code anteriores} es null se devuelven todos los
+     * logros que se cumplen con {@code nuevos} (evaluación completa).
+     */
+    public List<Logro> logrosAlcanzados(Totales anteriores, Totales nuevos) {
+        Catalogo actual = obtenerCatalogo();
+        BitSet candidatos = new BitSet(actual.logros.length);
+
+        if (anteriores == null) {
+            candidatos.set(0, actual.logros.length);
+        } else {
+            actual.puntos.cruzados(anteriores.puntos(), nuevos.puntos(), candidatos);
+            actual.nivel.cruzados(anteriores.nivel(), nuevos.nivel(), candidatos);
+            actual.misiones.cruzados(anteriores.completadas(), nuevos.completadas(), candidatos);
+            // Logros sin ningún umbral real: se alcanzan con la primera actividad
+            if (anteriores.puntos() <= 0 && anteriores.completadas() <= 0) {
+                candidatos.or(actual.sinUmbral);
+            }
+        }
+
+        List<Logro> alcanzados = new ArrayList<>();
+        for (int i = candidatos.nextSetBit(0); i >= 0; i = candidatos.nextSetBit(i + 1)) {
+            Logro logro = actual.logros[i];
+            if (cumple(logro, nuevos)) {
+                alcanzados.add(logro);
+            }
+        }
+        return alcanzados;
+    }
+
+    /**
+     * Recarga el catálogo si cambió (altas, bajas o modificaciones de logros)
+     */
+    @Scheduled(fixedDelayString = "${gamificacion.logros.verificar-catalogo-ms:60000}")
+    public void verificarCatalogo() {
+        Catalogo actual = catalogo;
+        if (actual == null) {
+            return;
+        }
+        try {
+            String version = leerVersion();
+            if (!version.equals(actual.version)) {
+                log.info("Catálogo de logros modificado, recargando");
+                recargar();
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo verificar el catálogo de logros: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void recargar() {
+        String version = leerVersion();
+        List<Logro> activos = logroRepository.findByActivoTrueOrderByPuntosRequeridosAsc();
+        catalogo = new Catalogo(version, activos.toArray(new Logro[0]));
+        log.info("Catálogo de logros cargado: {} logros activos", activos.size());
+    }
+
+    /**
+     * Versión del catálogo cargado (puede ir hasta un intervalo de verificación por detrás de la base)
+     */
+    public String versionCatalogo() {
+        return obtenerCatalogo().version;
+    }
+
+    private Catalogo obtenerCatalogo() {
+        Catalogo actual = catalogo;
+        if (actual == null) {
+            synchronized (this) {
+                if (catalogo == null) {
+                    recargar();
+                }
+                actual = catalogo;
+            }
+        }
+        return actual;
+    }
+
+    private String leerVersion() {
+        LogroCatalogoVersionView version = logroRepository.findVersionCatalogo();
+        return version.getTotal() + "|" + version.getUltimaCreacion() + "|" + version.getUltimaActualizacion();
+    }
+
+    private static boolean cumple(Logro logro, Totales totales) {
+        return (logro.getPuntosRequeridos() == null || totales.puntos() >= logro.getPuntosRequeridos())
+                && (logro.getNivelRequerido() == null || totales.nivel() >= logro.getNivelRequerido())
+                && (logro.getMisionesCompletadasRequeridas() == null
+                    || totales.completadas() >= logro.getMisionesCompletadasRequeridas());
+    }
+
+    // ========== CATÁLOGO INMUTABLE ==========
+
+    private static final class Catalogo {
+        private final String version;
+        private final Logro[] logros;
+        private final Umbrales puntos;
+        private final Umbrales nivel;
+        private final Umbrales misiones;
+        private final BitSet sinUmbral = new BitSet();
+
+        private Catalogo(String version, Logro[] logros) {
+            this.version = version;
+            this.logros = logros;
+            // Umbrales que cualquier estudiante ya cumple (0 puntos, nivel 1, 0 misiones) no se indexan
+            this.puntos = new Umbrales(logros, l -> valor(l.getPuntosRequeridos(), 0));
+            this.nivel = new Umbrales(logros, l -> valor(l.getNivelRequerido(), 1));
+            this.misiones = new Umbrales(logros, l -> valor(l.getMisionesCompletadasRequeridas(), 0));
+
+            for (int i = 0; i < logros.length; i++) {
+                if (!puntos.contiene(i) && !nivel.contiene(i) && !misiones.contiene(i)) {
+                    sinUmbral.set(i);
+                }
+            }
+        }
+
+        private static int valor(Integer requerido, int minimo) {
+            return requerido == null || requerido <= minimo ? Integer.MIN_VALUE : requerido;
+        }
+    }
+
+    /**
+     * Umbrales de una dimensión ordenados de menor a mayor, con el índice del logro asociado
+     */
+    private static final class Umbrales {
+        private final int[] valores;
+        private final int[] logros;
+        private final BitSet indexados = new BitSet();
+
+        private Umbrales(Logro[] catalogo, ToIntFunction<Logro> umbral) {
+            int[][] pares = new int[catalogo.length][];
+            int n = 0;
+            for (int i = 0; i < catalogo.length; i++) {
+                int valor = umbral.applyAsInt(catalogo[i]);
+                if (valor != Integer.MIN_VALUE) {
+                    pares[n++] = new int[]{valor, i};
+                    indexados.set(i);
+                }
+            }
+            int[][] ordenados = Arrays.copyOf(pares, n);
+            Arrays.sort(ordenados, (a, b) -> Integer.compare(a[0], b[0]));
+
+            this.valores = new int[n];
+            this.logros = new int[n];
+            for (int i = 0; i < n; i++) {
+                valores[i] = ordenados[i][0];
+                logros[i] = ordenados[i][1];
+            }
+        }
+
+        private boolean contiene(int logro) {
+            return indexados.get(logro);
+        }
+
+        /**
+         * Marca los logros con umbral en (anterior, nuevo]
+         */
+        private void cruzados(int anterior, int nuevo, BitSet destino) {
+            if (nuevo <= anterior) {
+                return;
+            }
+            for (int i = primerMayorQue(anterior); i < valores.length && valores[i] <= nuevo; i++) {
+                destino.set(logros[i]);
+            }
+        }
+
+        private int primerMayorQue(int valor) {
+            int bajo = 0;
+            int alto = valores.length;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (valores[medio] <= valor) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            return bajo;
+        }
+    }
+}
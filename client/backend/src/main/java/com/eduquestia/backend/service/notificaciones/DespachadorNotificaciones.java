@@ -0,0 +1,215 @@
+package com.eduquestia.backend.service.notificaciones;
+
+import com.eduquestia.backend.entity.OutboxNotificacion;
+import com.eduquestia.backend.entity.enums.EstadoOutbox;
+import com.eduquestia.backend.repository.NotificacionRepository;
+import com.eduquestia.backend.repository.OutboxNotificacionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Despacha el outbox de notificaciones: cada registro pendiente se expande en
+ * una notificación por destinatario con INSERT multi-fila y se marca procesado en
+ * la misma transacción, así un registro nunca genera notificaciones duplicadas.
+ *
+ * Los registros se reparten en un pool fijo de hilos. Si un registro falla se
+ * reprograma con espera exponencial; al agotar los intentos queda como FALLIDO.
+ */
+@Component
+@Slf4j
+public class DespachadorNotificaciones {
+
+    private static final int DESTINATARIOS_POR_INSERT = 1000;
+
+    private final OutboxNotificacionRepository outboxRepository;
+    private final NotificacionRepository notificacionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int tamanoLote;
+    private final int maxIntentos;
+    private final long esperaReintentoMs;
+
+    private final ExecutorService trabajadores;
+    private final Set<UUID> enProceso = ConcurrentHashMap.newKeySet();
+    private final AtomicLong retrasoSegundos = new AtomicLong();
+
+    private final Counter contadorRegistros;
+    private final Counter contadorNotificaciones;
+    private final Counter contadorReintentos;
+    private final Counter contadorFallidos;
+    private final Timer latencia;
+
+    public DespachadorNotificaciones(
+            OutboxNotificacionRepository outboxRepository,
+            NotificacionRepository notificacionRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${notificaciones.outbox.hilos:4}") int hilos,
+            @Value("${notificaciones.outbox.lote:50}") int tamanoLote,
+            @Value("${notificaciones.outbox.max-intentos:8}") int maxIntentos,
+            @Value("${notificaciones.outbox.espera-reintento-ms:1000}") long esperaReintentoMs) {
+        this.outboxRepository = outboxRepository;
+        this.notificacionRepository = notificacionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanoLote = tamanoLote;
+        this.maxIntentos = maxIntentos;
+        this.esperaReintentoMs = esperaReintentoMs;
+
+        AtomicInteger numeroHilo = new AtomicInteger();
+        this.trabajadores = Executors.newFixedThreadPool(hilos, tarea -> {
+            Thread hilo = new Thread(tarea, "notificaciones-" + numeroHilo.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+
+        Gauge.builder("notificaciones.outbox.retraso", retrasoSegundos, AtomicLong::get)
+                .description("Antigüedad del registro pendiente más viejo del outbox")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("notificaciones.outbox.en_proceso", enProceso, Set::size)
+                .register(meterRegistry);
+        this.contadorRegistros = meterRegistry.counter("notificaciones.outbox.procesados");
+        this.contadorNotificaciones = meterRegistry.counter("notificaciones.outbox.notificaciones_creadas");
+        this.contadorReintentos = meterRegistry.counter("notificaciones.outbox.reintentos");
+        this.contadorFallidos = meterRegistry.counter("notificaciones.outbox.fallidos");
+        this.latencia = Timer.builder("notificaciones.outbox.latencia")
+                .description("Tiempo entre la escritura en el outbox y la creación de las notificaciones")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reparte entre los trabajadores los registros pendientes cuyo próximo intento ya venció
+     */
+    @Scheduled(fixedDelayString = "${notificaciones.outbox.sondeo-ms:1000}")
+    public void sondear() {
+        try {
+            LocalDateTime ahora = LocalDateTime.now();
+            retrasoSegundos.set(outboxRepository.findFechaPendienteMasAntigua()
+                    .map(fecha -> Math.max(0, Duration.between(fecha, ahora).getSeconds()))
+                    .orElse(0L));
+
+            for (UUID id : outboxRepository.findIdsPendientes(ahora, tamanoLote)) {
+                if (enProceso.add(id)) {
+                    trabajadores.execute(() -> {
+                        try {
+                            procesar(id);
+                        } finally {
+                            enProceso.remove(id);
+                        }
+                    });
+                }
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo leer el outbox de notificaciones: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Limpia registros ya procesados hace más de una semana
+     */
+    @Scheduled(cron = "${notificaciones.outbox.limpieza-cron:0 0 4 * * *}")
+    public void limpiar() {
+        int eliminados = transactionTemplate.execute(status ->
+                outboxRepository.eliminarProcesadosAntesDe(LocalDateTime.now().minusDays(7)));
+        log.info("Registros de outbox procesados eliminados: {}", eliminados);
+    }
+
+    private void procesar(UUID id) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxRepository.bloquearPendiente(id).ifPresent(this::expandir));
+        } catch (Exception e) {
+            registrarFallo(id, e);
+        }
+    }
+
+    private void expandir(OutboxNotificacion registro) {
+        LocalDateTime ahora = LocalDateTime.now();
+        String tipo = registro.getTipo().name();
+        int creadas = 0;
+
+        if (registro.getCursoId() != null) {
+            creadas += notificacionRepository.insertarParaCurso(registro.getCursoId(), tipo,
+                    registro.getTitulo(), registro.getMensaje(), registro.getReferenciaId(), ahora);
+        }
+        if (registro.getDestinatarios() != null) {
+            List<UUID> destinatarios = Arrays.asList(registro.getDestinatarios());
+            for (int i = 0; i < destinatarios.size(); i += DESTINATARIOS_POR_INSERT) {
+                creadas += notificacionRepository.insertarParaUsuarios(
+                        destinatarios.subList(i, Math.min(i + DESTINATARIOS_POR_INSERT, destinatarios.size())),
+                        tipo, registro.getTitulo(), registro.getMensaje(), registro.getReferenciaId(), ahora);
+            }
+        }
+
+        registro.setEstado(EstadoOutbox.PROCESADO);
+        registro.setFechaProcesado(ahora);
+        registro.setUltimoError(null);
+        outboxRepository.save(registro);
+
+        contadorRegistros.increment();
+        contadorNotificaciones.increment(creadas);
+        latencia.record(Duration.between(registro.getFechaCreacion(), ahora));
+        log.debug("Registro de outbox {} despachado: {} notificaciones", registro.getId(), creadas);
+    }
+
+    private void registrarFallo(UUID id, Exception error) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.findById(id).ifPresent(registro -> {
+                int intentos = registro.getIntentos() + 1;
+                registro.setIntentos(intentos);
+                registro.setUltimoError(error.getMessage());
+
+                if (intentos >= maxIntentos) {
+                    registro.setEstado(EstadoOutbox.FALLIDO);
+                    contadorFallidos.increment();
+                    log.error("Registro de outbox {} marcado como fallido tras {} intentos: {}",
+                            id, intentos, error.getMessage());
+                } else {
+                    long espera = esperaReintentoMs << Math.min(intentos - 1, 20);
+                    registro.setProximoIntento(LocalDateTime.now().plusNanos(espera * 1_000_000));
+                    contadorReintentos.increment();
+                    log.warn("Error despachando registro de outbox {} (intento {}), reintento en {} ms: {}",
+                            id, intentos, espera, error.getMessage());
+                }
+                outboxRepository.save(registro);
+            }));
+        } catch (Exception e) {
+            log.error("No se pudo registrar el fallo del registro de outbox {}: {}", id, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        trabajadores.shutdown();
+        try {
+            if (!trabajadores.awaitTermination(10, TimeUnit.SECONDS)) {
+                trabajadores.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            trabajadores.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.eduquestia.backend.service.plazos;
+
+import com.eduquestia.backend.entity.Mision;
+import com.eduquestia.backend.event.PlazoMisionModificado;
+import com.eduquestia.backend.repository.EntregaMisionRepository;
+import com.eduquestia.backend.repository.MisionRepository;
+import com.eduquestia.backend.repository.ProgresoMisionRepository;
+import com.eduquestia.backend.repository.projection.PlazoMisionView;
+import com.eduquestia.backend.service.NotificacionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Planificador de las fechas límite de las misiones: al vencer una misión marca
+ * como VENCIDA sus entregas pendientes, y antes de vencer encola recordatorios
+ * ({@code misiones.plazos.recordatorios}, por defecto 24 h y 1 h) para los
+ * estudiantes que aún no la completaron.
+ *
+ * Los plazos viven en una {@link RuedaTemporizacion}. Solo se cargan las misiones
+ * activas que vencen dentro del horizonte, con una consulta por rango sobre
+ * fecha_limite; cada recarga lee únicamente la franja nueva del horizonte, y las
+ * misiones creadas, actualizadas o eliminadas se reprograman con el evento
+ * {@link PlazoMisionModificado} después del commit. Al iniciar también se cargan
+ * los vencimientos de la ventana de recuperación para marcar los que pasaron con
+ * la aplicación detenida; los recordatorios atrasados no se envían.
+ *
+ * Todo el trabajo (recargas, eventos y ticks) corre en un único hilo, así una
+ * recarga y un evento de la misma misión nunca se aplican fuera de orden.
+ *
+ * Cada instancia tiene su propia rueda. Marcar entregas como vencidas es
+ * idempotente; los recordatorios se reservan en recordatorios_mision en la misma
+ * transacción que los encola, así solo la primera instancia los envía.
+ */
+@Component
+@Slf4j
+public class PlanificadorPlazos {
+
+    private static final Duration ESPERA_REINTENTO = Duration.ofMinutes(1);
+
+    // Clave de la rueda: vencimiento de la misión (antelación cero) o uno de sus recordatorios
+    record Plazo(UUID misionId, Duration antelacion) {
+        boolean esVencimiento() {
+            return antelacion.isZero();
+        }
+    }
+
+    private final MisionRepository misionRepository;
+    private final EntregaMisionRepository entregaRepository;
+    private final ProgresoMisionRepository progresoRepository;
+    private final NotificacionService notificacionService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final long tickMs;
+    private final List<Duration> recordatorios;
+    private final Duration horizonte;
+    private final Duration recarga;
+    private final Duration recuperacion;
+
+    private final RuedaTemporizacion<Plazo> rueda;
+    private final ScheduledExecutorService ejecutor;
+    // Fin de la ventana ya cargada en la rueda; null hasta la primera carga
+    private LocalDateTime cargadoHasta;
+
+    private final Counter contadorVencidas;
+    private final Counter contadorRecordatorios;
+    private final Counter contadorErrores;
+
+    public PlanificadorPlazos(
+            MisionRepository misionRepository,
+            EntregaMisionRepository entregaRepository,
+            ProgresoMisionRepository progresoRepository,
+            NotificacionService notificacionService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${misiones.plazos.tick-ms:1000}") long tickMs,
+            @Value("${misiones.plazos.ranuras:4096}") int ranuras,
+            @Value("${misiones.plazos.recordatorios:24h,1h}") List<Duration> recordatorios,
+            @Value("${misiones.plazos.horizonte:48h}") Duration horizonte,
+            @Value("${misiones.plazos.recarga:1h}") Duration recarga,
+            @Value("${misiones.plazos.recuperacion:72h}") Duration recuperacion) {
+        this.misionRepository = misionRepository;
+        this.entregaRepository = entregaRepository;
+        this.progresoRepository = progresoRepository;
+        this.notificacionService = notificacionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tickMs = tickMs;
+        this.recordatorios = recordatorios.stream()
+                .filter(antelacion -> antelacion.isPositive())
+                .distinct()
+                .toList();
+        this.horizonte = horizonte;
+        this.recarga = recarga;
+        this.recuperacion = recuperacion;
+
+        // Un recordatorio debe entrar en la rueda antes de su instante: lo carga la recarga anterior
+        Duration mayorAntelacion = this.recordatorios.stream().max(Duration::compareTo).orElse(Duration.ZERO);
+        if (horizonte.compareTo(mayorAntelacion.plus(recarga)) < 0) {
+            throw new IllegalArgumentException(
+                    "misiones.plazos.horizonte debe ser al menos el mayor recordatorio más misiones.plazos.recarga");
+        }
+
+        this.rueda = new RuedaTemporizacion<>(ranuras, tickMs, System.currentTimeMillis());
+        this.ejecutor = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "plazos-misiones");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+
+        Gauge.builder("misiones.plazos.programados", rueda, RuedaTemporizacion::tamano)
+                .description("Vencimientos y recordatorios programados en la rueda")
+                .register(meterRegistry);
+        this.contadorVencidas = meterRegistry.counter("misiones.plazos.entregas_vencidas");
+        this.contadorRecordatorios = meterRegistry.counter("misiones.plazos.recordatorios");
+        this.contadorErrores = meterRegistry.counter("misiones.plazos.errores");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        ejecutor.execute(this::recargar);
+        ejecutor.scheduleWithFixedDelay(this::avanzar, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        ejecutor.scheduleWithFixedDelay(this::recargar, recarga.toMillis(), recarga.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alModificarPlazo(PlazoMisionModificado evento) {
+        ejecutor.execute(() -> reprogramar(evento));
+    }
+
+    /**
+     * Carga en la rueda las misiones que entraron en el horizonte desde la última
+     * carga; la primera vez incluye la ventana de recuperación
+     */
+    private void recargar() {
+        try {
+            LocalDateTime ahora = LocalDateTime.now();
+            LocalDateTime desde = cargadoHasta != null ? cargadoHasta : ahora.minus(recuperacion);
+            LocalDateTime hasta = ahora.plus(horizonte);
+
+            List<PlazoMisionView> plazos = misionRepository.findPlazosEntre(desde, hasta);
+            for (PlazoMisionView plazo : plazos) {
+                programarMision(plazo.getId(), plazo.getFechaLimite(), ahora);
+            }
+            cargadoHasta = hasta;
+
+            log.info("Plazos de misiones cargados hasta {}: {} misiones nuevas, {} plazos programados",
+                    hasta, plazos.size(), rueda.tamano());
+        } catch (Exception e) {
+            log.warn("No se pudieron cargar los plazos de las misiones: {}", e.getMessage());
+        }
+    }
+
+    private void reprogramar(PlazoMisionModificado evento) {
+        desprogramarMision(evento.misionId());
+        // Fuera de la ventana cargada la misión entra con la recarga que alcance su fecha límite
+        if (evento.fechaLimite() != null && cargadoHasta != null && !evento.fechaLimite().isAfter(cargadoHasta)) {
+            programarMision(evento.misionId(), evento.fechaLimite(), LocalDateTime.now());
+        }
+    }
+
+    private void programarMision(UUID misionId, LocalDateTime fechaLimite, LocalDateTime ahora) {
+        rueda.programar(new Plazo(misionId, Duration.ZERO), epochMs(fechaLimite));
+        for (Duration antelacion : recordatorios) {
+            LocalDateTime instante = fechaLimite.minus(antelacion);
+            if (instante.isAfter(ahora)) {
+                rueda.programar(new Plazo(misionId, antelacion), epochMs(instante));
+            }
+        }
+    }
+
+    private void desprogramarMision(UUID misionId) {
+        rueda.cancelar(new Plazo(misionId, Duration.ZERO));
+        for (Duration antelacion : recordatorios) {
+            rueda.cancelar(new Plazo(misionId, antelacion));
+        }
+    }
+
+    private void avanzar() {
+        try {
+            for (Plazo plazo : rueda.avanzar(System.currentTimeMillis())) {
+                ejecutar(plazo);
+            }
+        } catch (Exception e) {
+            log.error("Error avanzando la rueda de plazos: {}", e.getMessage(), e);
+        }
+    }
+
+    private void ejecutar(Plazo plazo) {
+        try {
+            if (plazo.esVencimiento()) {
+                vencer(plazo.misionId());
+            } else {
+                recordar(plazo);
+            }
+        } catch (Exception e) {
+            contadorErrores.increment();
+            log.warn("Error procesando el plazo {} de la misión {}, reintentando en {}: {}",
+                    plazo.antelacion(), plazo.misionId(), ESPERA_REINTENTO, e.getMessage());
+            rueda.programar(plazo, System.currentTimeMillis() + ESPERA_REINTENTO.toMillis());
+        }
+    }
+
+    private void vencer(UUID misionId) {
+        Integer vencidas = transactionTemplate.execute(
+                status -> entregaRepository.vencerPendientes(misionId, LocalDateTime.now()));
+        if (vencidas != null && vencidas > 0) {
+            contadorVencidas.increment(vencidas);
+            log.info("Misión {} vencida: {} entregas pendientes marcadas como vencidas", misionId, vencidas);
+        }
+    }
+
+    /**
+     * Encola el recordatorio si sigue correspondiendo (la misión puede haberse
+     * desactivado o cambiado de fecha límite después de programarlo) y si ninguna
+     * otra instancia lo encoló ya
+     */
+    private void recordar(Plazo plazo) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Mision mision = misionRepository.findById(plazo.misionId()).orElse(null);
+            if (mision == null || !Boolean.TRUE.equals(mision.getActivo())) {
+                return;
+            }
+            LocalDateTime ahora = LocalDateTime.now();
+            LocalDateTime previsto = mision.getFechaLimite().minus(plazo.antelacion());
+            if (previsto.isAfter(ahora.plus(Duration.ofMillis(tickMs))) || !mision.getFechaLimite().isAfter(ahora)) {
+                return;
+            }
+
+            List<UUID> pendientes = progresoRepository.findEstudiantesIdsPendientes(mision.getId());
+            if (pendientes.isEmpty()) {
+                return;
+            }
+            if (misionRepository.registrarRecordatorio(mision.getId(),
+                    (int) plazo.antelacion().toMinutes(), mision.getFechaLimite()) == 0) {
+                // Otra instancia ya lo encoló
+                return;
+            }
+            notificacionService.encolarRecordatorioMision(mision, plazo.antelacion(), pendientes);
+            contadorRecordatorios.increment();
+        });
+    }
+
+    private static long epochMs(LocalDateTime fecha) {
+        return fecha.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @PreDestroy
+    public void detener() {
+        ejecutor.shutdown();
+        try {
+            if (!ejecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                ejecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            ejecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.eduquestia.backend.service.plazos;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rueda de temporización con hash (hashed timing wheel).
+ *
+ * El tiempo se divide en ticks de duración fija y cada clave se guarda en la
+ * ranura {@code tick % ranuras} junto con el tick absoluto en que vence; las
+ * claves que vencen dentro de varias vueltas comparten ranura con las próximas
+ * y se saltan hasta su vuelta. Programar y cancelar cuestan O(1) y avanzar un
+ * tick solo revisa su ranura, sin importar cuántas claves haya en la rueda.
+ *
+ * Programar una clave ya presente la reprograma. Una clave cuyo instante ya
+ * pasó vence en el siguiente avance.
+ */
+public class RuedaTemporizacion<K> {
+
+    private final long duracionTickMs;
+    private final int mascara;
+    private final List<Map<K, Long>> ranuras;
+    // Tick de vencimiento de cada clave programada (su ranura es tick & mascara)
+    private final Map<K, Long> vencimientos = new HashMap<>();
+    // Último tick procesado
+    private long tickActual;
+
+    /**
+     * @param ranuras        número de ranuras, se redondea a la siguiente potencia de 2
+     * @param duracionTickMs duración de un tick en milisegundos
+     * @param inicioMs       instante inicial de la rueda (epoch ms)
+     */
+    public RuedaTemporizacion(int ranuras, long duracionTickMs, long inicioMs) {
+        if (ranuras <= 0 || duracionTickMs <= 0) {
+            throw new IllegalArgumentException("La rueda necesita al menos una ranura y un tick positivo");
+        }
+        int tamano = 1;
+        while (tamano < ranuras) {
+            tamano <<= 1;
+        }
+        this.duracionTickMs = duracionTickMs;
+        this.mascara = tamano - 1;
+        this.ranuras = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            this.ranuras.add(new HashMap<>());
+        }
+        this.tickActual = Math.floorDiv(inicioMs, duracionTickMs);
+    }
+
+    /**
+     * Programa (o reprograma) la clave para el instante indicado (epoch ms)
+     */
+    public synchronized void programar(K clave, long instanteMs) {
+        quitar(clave);
+        long tick = Math.max(Math.ceilDiv(instanteMs, duracionTickMs), tickActual + 1);
+        vencimientos.put(clave, tick);
+        ranura(tick).put(clave, tick);
+    }
+
+    /**
+     * Cancela la clave; devuelve false si no estaba programada
+     */
+    public synchronized boolean cancelar(K clave) {
+        return quitar(clave);
+    }
+
+    /**
+     * Avanza la rueda hasta el instante indicado y devuelve las claves vencidas,
+     * en orden aproximado de vencimiento. Si pasaron más ticks que ranuras (por
+     * ejemplo tras una pausa larga) basta con recorrer una vuelta completa.
+     */
+    public synchronized List<K> avanzar(long ahoraMs) {
+        long objetivo = Math.floorDiv(ahoraMs, duracionTickMs);
+        if (objetivo <= tickActual) {
+            return List.of();
+        }
+
+        List<K> vencidas = new ArrayList<>();
+        long ultimo = Math.min(objetivo, tickActual + ranuras.size());
+        for (long tick = tickActual + 1; tick <= ultimo; tick++) {
+            Iterator<Map.Entry<K, Long>> entradas = ranura(tick).entrySet().iterator();
+            while (entradas.hasNext()) {
+                Map.Entry<K, Long> entrada = entradas.next();
+                if (entrada.getValue() <= objetivo) {
+                    entradas.remove();
+                    vencimientos.remove(entrada.getKey());
+                    vencidas.add(entrada.getKey());
+                }
+            }
+        }
+        tickActual = objetivo;
+        return vencidas;
+    }
+
+    public synchronized int tamano() {
+        return vencimientos.size();
+    }
+
+    private boolean quitar(K clave) {
+        Long tick = vencimientos.remove(clave);
+        if (tick == null) {
+            return false;
+        }
+        ranura(tick).remove(clave);
+        return true;
+    }
+
+    private Map<K, Long> ranura(long tick) {
+        return ranuras.get((int) (tick & mascara));
+    }
+}
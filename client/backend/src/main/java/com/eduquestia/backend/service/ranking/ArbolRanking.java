@@ -0,0 +1,271 @@
+package com.eduquestia.backend.service.ranking;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ranking en memoria implementado como un treap con tamaño de subárbol
+ * (árbol de estadísticos de orden).
+ *
+ * Orden: puntos desc, misiones completadas desc, id de estudiante asc.
+ * Actualizar, obtener la posición de un estudiante y leer una página
+ * cuestan O(log n) (+ k elementos devueltos).
+ *
+ * La posición es de tipo competición: estudiantes con los mismos puntos
+ * y misiones completadas comparten posición (1, 2, 2, 4...).
+ */
+public class ArbolRanking {
+
+    public record Entrada(UUID estudianteId, int puntos, int completadas) {
+    }
+
+    public static final Comparator<Entrada> ORDEN = Comparator
+            .comparingInt(Entrada::puntos).reversed()
+            .thenComparing(Comparator.comparingInt(Entrada::completadas).reversed())
+            .thenComparing(Entrada::estudianteId);
+
+    private static final class Nodo {
+        private final Entrada entrada;
+        private final int prioridad;
+        private int tamano = 1;
+        private Nodo izquierdo;
+        private Nodo derecho;
+
+        private Nodo(Entrada entrada) {
+            this.entrada = entrada;
+            this.prioridad = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Entrada> porEstudiante = new HashMap<>();
+    private Nodo raiz;
+
+    /**
+     * Inserta o reemplaza el puntaje de un estudiante
+     */
+    public void actualizar(UUID estudianteId, int puntos, int completadas) {
+        Entrada nueva = new Entrada(estudianteId, puntos, completadas);
+        lock.writeLock().lock();
+        try {
+            Entrada anterior = porEstudiante.put(estudianteId, nueva);
+            if (anterior != null) {
+                if (anterior.equals(nueva)) {
+                    return;
+                }
+                raiz = eliminar(raiz, anterior);
+            }
+            Nodo[] partes = dividir(raiz, nueva);
+            raiz = unir(unir(partes[0], new Nodo(nueva)), partes[1]);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean eliminar(UUID estudianteId) {
+        lock.writeLock().lock();
+        try {
+            Entrada anterior = porEstudiante.remove(estudianteId);
+            if (anterior == null) {
+                return false;
+            }
+            raiz = eliminar(raiz, anterior);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<Entrada> obtener(UUID estudianteId) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(porEstudiante.get(estudianteId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Posición (1..n) del estudiante, o null si no está en el ranking
+     */
+    public Integer posicion(UUID estudianteId) {
+        lock.readLock().lock();
+        try {
+            Entrada entrada = porEstudiante.get(estudianteId);
+            return entrada != null ? contarMejores(entrada.puntos(), entrada.completadas()) + 1 : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Posición que correspondería a un puntaje dado
+     */
+    public int posicionPara(int puntos, int completadas) {
+        lock.readLock().lock();
+        try {
+            return contarMejores(puntos, completadas) + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Índice (base 0) de la primera entrada posterior a la clave dada.
+     * La clave no necesita seguir presente: sirve como cursor de paginación.
+     */
+    public int indiceDespuesDe(Entrada clave) {
+        lock.readLock().lock();
+        try {
+            int cuenta = 0;
+            Nodo nodo = raiz;
+            while (nodo != null) {
+                if (ORDEN.compare(nodo.entrada, clave) <= 0) {
+                    cuenta += tamano(nodo.izquierdo) + 1;
+                    nodo = nodo.derecho;
+                } else {
+                    nodo = nodo.izquierdo;
+                }
+            }
+            return cuenta;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Los k primeros del ranking
+     */
+    public List<Entrada> top(int k) {
+        return rango(0, k);
+    }
+
+    /**
+     * Hasta {@code cantidad} entradas a partir del índice {@code desde} (base 0)
+     */
+    public List<Entrada> rango(int desde, int cantidad) {
+        lock.readLock().lock();
+        try {
+            List<Entrada> resultado = new ArrayList<>(Math.max(0, Math.min(cantidad, tamano(raiz) - desde)));
+            if (cantidad > 0 && desde < tamano(raiz)) {
+                recolectar(raiz, Math.max(0, desde), cantidad, resultado);
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int tamano() {
+        lock.readLock().lock();
+        try {
+            return tamano(raiz);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========== OPERACIONES DEL TREAP ==========
+
+    private static int tamano(Nodo nodo) {
+        return nodo == null ? 0 : nodo.tamano;
+    }
+
+    private static void recalcular(Nodo nodo) {
+        nodo.tamano = 1 + tamano(nodo.izquierdo) + tamano(nodo.derecho);
+    }
+
+    /**
+     * Divide en (claves < clave, claves >= clave)
+     */
+    private static Nodo[] dividir(Nodo nodo, Entrada clave) {
+        if (nodo == null) {
+            return new Nodo[]{null, null};
+        }
+        if (ORDEN.compare(nodo.entrada, clave) < 0) {
+            Nodo[] partes = dividir(nodo.derecho, clave);
+            nodo.derecho = partes[0];
+            recalcular(nodo);
+            return new Nodo[]{nodo, partes[1]};
+        }
+        Nodo[] partes = dividir(nodo.izquierdo, clave);
+        nodo.izquierdo = partes[1];
+        recalcular(nodo);
+        return new Nodo[]{partes[0], nodo};
+    }
+
+    /**
+     * Une dos treaps donde todas las claves de a son menores que las de b
+     */
+    private static Nodo unir(Nodo a, Nodo b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.prioridad > b.prioridad) {
+            a.derecho = unir(a.derecho, b);
+            recalcular(a);
+            return a;
+        }
+        b.izquierdo = unir(a, b.izquierdo);
+        recalcular(b);
+        return b;
+    }
+
+    private static Nodo eliminar(Nodo nodo, Entrada clave) {
+        if (nodo == null) {
+            return null;
+        }
+        int comparacion = ORDEN.compare(clave, nodo.entrada);
+        if (comparacion == 0) {
+            return unir(nodo.izquierdo, nodo.derecho);
+        }
+        if (comparacion < 0) {
+            nodo.izquierdo = eliminar(nodo.izquierdo, clave);
+        } else {
+            nodo.derecho = eliminar(nodo.derecho, clave);
+        }
+        recalcular(nodo);
+        return nodo;
+    }
+
+    /**
+     * Cantidad de entradas con mejor puntaje (más puntos, o mismos puntos y más misiones)
+     */
+    private int contarMejores(int puntos, int completadas) {
+        int cuenta = 0;
+        Nodo nodo = raiz;
+        while (nodo != null) {
+            Entrada e = nodo.entrada;
+            boolean mejor = e.puntos() > puntos || (e.puntos() == puntos && e.completadas() > completadas);
+            if (mejor) {
+                cuenta += tamano(nodo.izquierdo) + 1;
+                nodo = nodo.derecho;
+            } else {
+                nodo = nodo.izquierdo;
+            }
+        }
+        return cuenta;
+    }
+
+    private static void recolectar(Nodo nodo, int desde, int cantidad, List<Entrada> resultado) {
+        if (nodo == null || resultado.size() >= cantidad) {
+            return;
+        }
+        int izquierdo = tamano(nodo.izquierdo);
+        if (desde < izquierdo) {
+            recolectar(nodo.izquierdo, desde, cantidad, resultado);
+        }
+        if (resultado.size() < cantidad && desde <= izquierdo) {
+            resultado.add(nodo.entrada);
+        }
+        if (resultado.size() < cantidad) {
+            recolectar(nodo.derecho, Math.max(0, desde - izquierdo - 1), cantidad, resultado);
+        }
+    }
+}
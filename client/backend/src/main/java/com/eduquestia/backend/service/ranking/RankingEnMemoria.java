@@ -0,0 +1,196 @@
+package com.eduquestia.backend.service.ranking;
+
+import com.eduquestia.backend.repository.PuntajeEstudianteRepository;
+import com.eduquestia.backend.repository.projection.PuntajeInscripcionView;
+import com.eduquestia.backend.repository.projection.PuntajeRankingView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rankings en memoria del servicio de gamificación: uno global y uno por curso.
+ * Se precargan desde puntajes_estudiante al iniciar, se recargan periódicamente
+ * (para recoger inscripciones nuevas gestionadas por Django) y se actualizan
+ * cada vez que cambia el puntaje de un estudiante.
+ *
+ * La recarga lee la base de datos sin bloquear las actualizaciones: las que llegan
+ * mientras tanto se anotan y se vuelven a aplicar sobre los árboles nuevos justo
+ * antes de publicarlos, bajo el mismo cerrojo que actualizarEstudiante.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RankingEnMemoria {
+
+    private record Puntaje(int puntos, int completadas) {
+    }
+
+    private final PuntajeEstudianteRepository puntajeRepository;
+
+    private final Object cerrojo = new Object();
+    // Solo mientras hay una recarga en curso; protegido por cerrojo
+    private Map<UUID, Puntaje> cambiosDuranteRecarga;
+
+    private volatile ArbolRanking global = new ArbolRanking();
+    private volatile Map<UUID, ArbolRanking> porCurso = new ConcurrentHashMap<>();
+    private volatile Map<UUID, Set<UUID>> cursosPorEstudiante = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargar() {
+        recargar();
+    }
+
+    @Scheduled(initialDelayString = "${gamificacion.ranking.recarga-ms:600000}",
+            fixedDelayString = "${gamificacion.ranking.recarga-ms:600000}")
+    public void recargar() {
+        synchronized (cerrojo) {
+            cambiosDuranteRecarga = new HashMap<>();
+        }
+        try {
+            long inicio = System.currentTimeMillis();
+
+            ArbolRanking nuevoGlobal = new ArbolRanking();
+            for (PuntajeRankingView fila : puntajeRepository.findRankingGlobal()) {
+                nuevoGlobal.actualizar(fila.getEstudianteId(), fila.getPuntosTotales(), fila.getMisionesCompletadas());
+            }
+
+            Map<UUID, ArbolRanking> nuevosPorCurso = new ConcurrentHashMap<>();
+            Map<UUID, Set<UUID>> nuevosCursosPorEstudiante = new ConcurrentHashMap<>();
+            for (PuntajeInscripcionView fila : puntajeRepository.findPuntajesInscripcionesActivas()) {
+                nuevosPorCurso.computeIfAbsent(fila.getCursoId(), id -> new ArbolRanking())
+                        .actualizar(fila.getEstudianteId(), fila.getPuntosTotales(), fila.getMisionesCompletadas());
+                nuevosCursosPorEstudiante.computeIfAbsent(fila.getEstudianteId(), id -> ConcurrentHashMap.newKeySet())
+                        .add(fila.getCursoId());
+            }
+
+            synchronized (cerrojo) {
+                cambiosDuranteRecarga.forEach((estudianteId, puntaje) -> aplicar(estudianteId, puntaje,
+                        nuevoGlobal, nuevosPorCurso, nuevosCursosPorEstudiante));
+                global = nuevoGlobal;
+                porCurso = nuevosPorCurso;
+                cursosPorEstudiante = nuevosCursosPorEstudiante;
+            }
+
+            log.info("Rankings en memoria cargados: {} estudiantes, {} cursos en {} ms",
+                    nuevoGlobal.tamano(), nuevosPorCurso.size(), System.currentTimeMillis() - inicio);
+        } catch (Exception e) {
+            log.warn("No se pudieron cargar los rankings en memoria: {}", e.getMessage());
+        } finally {
+            synchronized (cerrojo) {
+                cambiosDuranteRecarga = null;
+            }
+        }
+    }
+
+    /**
+     * Actualiza el puntaje del estudiante en el ranking global y en los de sus cursos
+     */
+    public void actualizarEstudiante(UUID estudianteId, int puntos, int completadas) {
+        Puntaje puntaje = new Puntaje(puntos, completadas);
+        synchronized (cerrojo) {
+            if (cambiosDuranteRecarga != null) {
+                cambiosDuranteRecarga.put(estudianteId, puntaje);
+            }
+            aplicar(estudianteId, puntaje, global, porCurso, cursosPorEstudiante);
+        }
+    }
+
+    /**
+     * Entrada del estudiante en el ranking del curso. Si no está (se inscribió después
+     * de la última recarga), se busca su inscripción activa en la base de datos y se
+     * incorpora al árbol, con el puntaje vivo del ranking global si ya lo tiene.
+     */
+    public Optional<ArbolRanking.Entrada> entradaEnCurso(UUID cursoId, UUID estudianteId) {
+        Optional<ArbolRanking.Entrada> entrada = curso(cursoId).obtener(estudianteId);
+        if (entrada.isPresent()) {
+            return entrada;
+        }
+
+        Optional<PuntajeInscripcionView> fila = puntajeRepository.findPuntajeInscripcionActiva(cursoId, estudianteId);
+        if (fila.isEmpty()) {
+            return Optional.empty();
+        }
+        if (!porCurso.containsKey(cursoId)) {
+            // El curso no tenía inscritos al consultarlo: ahora se carga entero y queda guardado
+            return curso(cursoId).obtener(estudianteId);
+        }
+
+        synchronized (cerrojo) {
+            ArbolRanking ranking = porCurso.computeIfAbsent(cursoId, id -> new ArbolRanking());
+            Puntaje puntaje = global.obtener(estudianteId)
+                    .map(viva -> new Puntaje(viva.puntos(), viva.completadas()))
+                    .orElseGet(() -> new Puntaje(fila.get().getPuntosTotales(), fila.get().getMisionesCompletadas()));
+            ranking.actualizar(estudianteId, puntaje.puntos(), puntaje.completadas());
+            cursosPorEstudiante.computeIfAbsent(estudianteId, id -> ConcurrentHashMap.newKeySet()).add(cursoId);
+            return ranking.obtener(estudianteId);
+        }
+    }
+
+    private static void aplicar(UUID estudianteId, Puntaje puntaje, ArbolRanking global,
+                                Map<UUID, ArbolRanking> porCurso, Map<UUID, Set<UUID>> cursosPorEstudiante) {
+        global.actualizar(estudianteId, puntaje.puntos(), puntaje.completadas());
+        for (UUID cursoId : cursosPorEstudiante.getOrDefault(estudianteId, Set.of())) {
+            ArbolRanking ranking = porCurso.get(cursoId);
+            if (ranking != null) {
+                ranking.actualizar(estudianteId, puntaje.puntos(), puntaje.completadas());
+            }
+        }
+    }
+
+    /**
+     * Posición del estudiante en el ranking global, vacía si todavía no está
+     * (alta reciente o id inexistente). No modifica el ranking: los estudiantes
+     * solo se incorporan con actualizarEstudiante o recargar.
+     */
+    public Optional<Integer> posicionGlobal(UUID estudianteId) {
+        return Optional.ofNullable(global.posicion(estudianteId));
+    }
+
+    public ArbolRanking global() {
+        return global;
+    }
+
+    /**
+     * Ranking de un curso; si no estaba cargado se construye desde la base de datos.
+     * La consulta corre fuera de los mapas compartidos, y un curso sin inscritos
+     * activos (o inexistente) no se guarda: se vuelve a consultar la próxima vez.
+     */
+    public ArbolRanking curso(UUID cursoId) {
+        ArbolRanking cargado = porCurso.get(cursoId);
+        if (cargado != null) {
+            return cargado;
+        }
+
+        List<PuntajeInscripcionView> filas = puntajeRepository.findPuntajesInscripcionesActivasByCursoId(cursoId);
+        ArbolRanking ranking = new ArbolRanking();
+        for (PuntajeInscripcionView fila : filas) {
+            ranking.actualizar(fila.getEstudianteId(), fila.getPuntosTotales(), fila.getMisionesCompletadas());
+        }
+        if (filas.isEmpty()) {
+            return ranking;
+        }
+
+        synchronized (cerrojo) {
+            ArbolRanking existente = porCurso.putIfAbsent(cursoId, ranking);
+            if (existente != null) {
+                return existente;
+            }
+            for (PuntajeInscripcionView fila : filas) {
+                cursosPorEstudiante.computeIfAbsent(fila.getEstudianteId(), id -> ConcurrentHashMap.newKeySet())
+                        .add(cursoId);
+            }
+            return ranking;
+        }
+    }
+}
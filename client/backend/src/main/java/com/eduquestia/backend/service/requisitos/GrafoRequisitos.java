@@ -0,0 +1,134 @@
+package com.eduquestia.backend.service.requisitos;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Grafo de requisitos de las misiones de un curso (arista requisito → misión).
+ *
+ * El orden topológico se calcula con el algoritmo de Kahn y se guarda en
+ * misiones.orden_requisitos al modificar los requisitos del curso. Recorriendo las
+ * misiones en ese orden, el conjunto de requisitos directos e indirectos de cada
+ * misión es la unión (OR de bitsets) de los de sus requisitos directos, así que
+ * decidir qué misiones tiene desbloqueadas un estudiante cuesta una pasada
+ * O(aristas · misiones / 64) en memoria, sin consultas recursivas.
+ */
+public final class GrafoRequisitos {
+
+    private GrafoRequisitos() {
+    }
+
+    /**
+     * Orden topológico de las misiones: cada requisito antes que las misiones que lo
+     * exigen. Entre misiones independientes se conserva el orden recibido, así
+     * recalcularlo tras un cambio mueve lo mínimo. Vacío si las aristas forman un ciclo.
+     */
+    public static Optional<List<UUID>> ordenTopologico(List<UUID> misiones,
+                                                       Map<UUID, List<UUID>> requisitos) {
+        Map<UUID, Integer> indices = indexar(misiones);
+        int[] pendientes = new int[misiones.size()];
+        List<List<Integer>> dependientes = new ArrayList<>(misiones.size());
+        for (int i = 0; i < misiones.size(); i++) {
+            dependientes.add(new ArrayList<>());
+        }
+        for (int i = 0; i < misiones.size(); i++) {
+            for (UUID requisito : requisitos.getOrDefault(misiones.get(i), List.of())) {
+                Integer j = indices.get(requisito);
+                if (j != null) {
+                    dependientes.get(j).add(i);
+                    pendientes[i]++;
+                }
+            }
+        }
+
+        // Siempre se toma la misión lista que aparecía antes en el orden recibido
+        PriorityQueue<Integer> listas = new PriorityQueue<>();
+        for (int i = 0; i < misiones.size(); i++) {
+            if (pendientes[i] == 0) {
+                listas.add(i);
+            }
+        }
+        List<UUID> orden = new ArrayList<>(misiones.size());
+        while (!listas.isEmpty()) {
+            int i = listas.poll();
+            orden.add(misiones.get(i));
+            for (int dependiente : dependientes.get(i)) {
+                if (--pendientes[dependiente] == 0) {
+                    listas.add(dependiente);
+                }
+            }
+        }
+        return orden.size() == misiones.size() ? Optional.of(orden) : Optional.empty();
+    }
+
+    /**
+     * Misiones cuyos requisitos, directos e indirectos, están todos en {@code satisfechas}
+     * (completados, o que no deben bloquear). Un requisito que no está entre las misiones
+     * recibidas no bloquea.
+     * Las misiones deben venir en orden topológico; si el orden recibido no lo es
+     * (por ejemplo, misiones anteriores a la columna orden_requisitos) se recalcula.
+     */
+    public static Set<UUID> desbloqueadas(List<UUID> misiones,
+                                          Map<UUID, List<UUID>> requisitos,
+                                          Set<UUID> satisfechas) {
+        if (!esOrdenTopologico(misiones, requisitos)) {
+            misiones = ordenTopologico(misiones, requisitos)
+                    .orElseThrow(() -> new IllegalStateException("Los requisitos del curso forman un ciclo"));
+        }
+
+        Map<UUID, Integer> indices = indexar(misiones);
+        BitSet pendientes = new BitSet(misiones.size());
+        for (int i = 0; i < misiones.size(); i++) {
+            if (!satisfechas.contains(misiones.get(i))) {
+                pendientes.set(i);
+            }
+        }
+
+        BitSet[] previos = new BitSet[misiones.size()];
+        Set<UUID> desbloqueadas = new HashSet<>();
+        for (int i = 0; i < misiones.size(); i++) {
+            BitSet previosMision = new BitSet(i);
+            for (UUID requisito : requisitos.getOrDefault(misiones.get(i), List.of())) {
+                Integer j = indices.get(requisito);
+                if (j != null) {
+                    previosMision.set(j);
+                    previosMision.or(previos[j]);
+                }
+            }
+            previos[i] = previosMision;
+            if (!previosMision.intersects(pendientes)) {
+                desbloqueadas.add(misiones.get(i));
+            }
+        }
+        return desbloqueadas;
+    }
+
+    private static boolean esOrdenTopologico(List<UUID> misiones, Map<UUID, List<UUID>> requisitos) {
+        Map<UUID, Integer> indices = indexar(misiones);
+        for (int i = 0; i < misiones.size(); i++) {
+            for (UUID requisito : requisitos.getOrDefault(misiones.get(i), List.of())) {
+                Integer j = indices.get(requisito);
+                if (j != null && j >= i) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static Map<UUID, Integer> indexar(List<UUID> misiones) {
+        Map<UUID, Integer> indices = new HashMap<>(misiones.size() * 2);
+        for (int i = 0; i < misiones.size(); i++) {
+            indices.put(misiones.get(i), i);
+        }
+        return indices;
+    }
+}
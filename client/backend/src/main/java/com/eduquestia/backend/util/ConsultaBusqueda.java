@@ -0,0 +1,37 @@
+package com.eduquestia.backend.util;
+
+import com.eduquestia.backend.exceptions.ValidationException;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Convierte el texto del usuario en un tsquery: cada palabra como prefijo (palabra:*),
+ * todas obligatorias y como mucho {@value #TERMINOS_MAXIMOS}. Solo se conservan letras
+ * (acentuadas incluidas) y dígitos, así el texto no puede inyectar operadores de tsquery.
+ */
+public final class ConsultaBusqueda {
+
+    public static final int TERMINOS_MAXIMOS = 10;
+
+    private static final Pattern SEPARADOR_TERMINOS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private ConsultaBusqueda() {
+    }
+
+    public static String tsquery(String texto) {
+        List<String> terminos = texto == null ? List.of() : SEPARADOR_TERMINOS.splitAsStream(texto.toLowerCase(Locale.ROOT))
+                .filter(termino -> !termino.isEmpty())
+                .distinct()
+                .limit(TERMINOS_MAXIMOS)
+                .toList();
+        if (terminos.isEmpty()) {
+            throw new ValidationException("La búsqueda debe contener al menos una palabra");
+        }
+        return terminos.stream()
+                .map(termino -> termino + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
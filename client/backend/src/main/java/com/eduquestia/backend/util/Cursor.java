@@ -0,0 +1,42 @@
+package com.eduquestia.backend.util;
+
+import com.eduquestia.backend.exceptions.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+/**
+ * Cursores opacos para paginación por clave (keyset).
+ * El cursor es la clave de orden del último elemento devuelto,
+ * codificada en Base64 URL-safe para que el cliente no dependa de su formato.
+ */
+public final class Cursor {
+
+    private static final String SEPARADOR = "|";
+
+    private Cursor() {
+    }
+
+    public static String codificar(Object... partes) {
+        String texto = Arrays.stream(partes)
+                .map(String::valueOf)
+                .collect(Collectors.joining(SEPARADOR));
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decodificar(String cursor, int partesEsperadas) {
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = texto.split("\\|", -1);
+            if (partes.length != partesEsperadas) {
+                throw new ValidationException("Cursor inválido");
+            }
+            return partes;
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Cursor inválido");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.eduquestia.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.stream.Collectors;
+
+/**
+ * ETags fuertes a partir de la versión de un recurso (id, fechas de actualización,
+ * contadores...). El cliente no necesita conocer el formato de la versión.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String de(Object... partes) {
+        String version = Arrays.stream(partes)
+                .map(String::valueOf)
+                .collect(Collectors.joining("|"));
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(version.getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
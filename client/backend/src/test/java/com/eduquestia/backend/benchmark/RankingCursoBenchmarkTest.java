@@ -0,0 +1,188 @@
+package com.eduquestia.backend.benchmark;
+
+import com.eduquestia.backend.dto.response.RankingEstudianteResponse;
+import com.eduquestia.backend.entity.Inscripcion;
+import com.eduquestia.backend.entity.ProgresoMision;
+import com.eduquestia.backend.repository.InscripcionRepository;
+import com.eduquestia.backend.repository.ProgresoMisionRepository;
+import com.eduquestia.backend.service.GamificacionService;
+import com.eduquestia.backend.service.MisionService;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara el ranking completo de un curso, servido desde el ranking en memoria
+ * (GamificacionServiceImpl, sin la caché coalescente), contra la implementación
+ * anterior (entidades Inscripcion + Usuario perezoso + dos consultas por
+ * estudiante) sobre un curso con 10.000 estudiantes. El árbol del curso se carga
+ * en el calentamiento; cada medición lee el árbol y los nombres de la página.
+ *
+ * Requiere una base PostgreSQL con el esquema grupo_03 creado. Los datos se
+ * insertan dentro de la transacción del test y se revierten al terminar:
+ *   BENCHMARK_DB_URL=jdbc:postgresql://localhost:5432/eduquest_db?currentSchema=grupo_03 \
+ *     mvn test -Dtest=RankingCursoBenchmarkTest
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=${BENCHMARK_DB_URL}",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+@EnabledIfEnvironmentVariable(named = "BENCHMARK_DB_URL", matches = ".+")
+@Transactional
+@Slf4j
+class RankingCursoBenchmarkTest {
+
+    private static final int ESTUDIANTES = 10_000;
+    private static final int CALENTAMIENTO = 2;
+    private static final int MEDICIONES = 5;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    @Qualifier("gamificacionServiceImpl")
+    private GamificacionService gamificacionService;
+
+    @Autowired
+    private InscripcionRepository inscripcionRepository;
+
+    @Autowired
+    private ProgresoMisionRepository progresoRepository;
+
+    @Autowired
+    private MisionService misionService;
+
+    @Test
+    void rankingPorCursoEnMemoriaVsImplementacionAnterior() {
+        UUID cursoId = sembrarCurso();
+        // Igual que en un @Transactional(readOnly = true): sin auto-flush ni dirty checking
+        // de las miles de entidades que carga la implementación anterior
+        Session sesion = entityManager.unwrap(Session.class);
+        sesion.setHibernateFlushMode(FlushMode.MANUAL);
+        sesion.setDefaultReadOnly(true);
+
+        List<RankingEstudianteResponse> enMemoria = gamificacionService.obtenerRankingPorCurso(cursoId).getEstudiantes();
+        List<int[]> anterior = rankingAnterior(cursoId);
+        assertEquals(ESTUDIANTES, enMemoria.size());
+        assertEquals(ESTUDIANTES, anterior.size());
+        assertEquals(1, enMemoria.get(0).getPosicion());
+        for (int i = 1; i < ESTUDIANTES; i++) {
+            RankingEstudianteResponse previa = enMemoria.get(i - 1);
+            RankingEstudianteResponse fila = enMemoria.get(i);
+            // Los empates en puntos y misiones completadas comparten posición
+            boolean empate = previa.getPuntosTotales().equals(fila.getPuntosTotales())
+                    && previa.getMisionesCompletadas().equals(fila.getMisionesCompletadas());
+            assertEquals(empate ? previa.getPosicion() : i + 1, fila.getPosicion());
+        }
+
+        long medianaEnMemoria = medir("ranking en memoria", () -> gamificacionService.obtenerRankingPorCurso(cursoId));
+        long medianaAnterior = medir("implementación anterior", () -> rankingAnterior(cursoId));
+
+        log.info("Ranking de {} estudiantes: en memoria {} ms, anterior {} ms (x{})", ESTUDIANTES, medianaEnMemoria,
+                medianaAnterior, String.format("%.1f", (double) medianaAnterior / Math.max(1, medianaEnMemoria)));
+    }
+
+    /**
+     * Ranking como se calculaba antes: inscripciones como entidades, filtro de estado
+     * en Java y dos consultas por estudiante (puntos y misiones completadas)
+     */
+    private List<int[]> rankingAnterior(UUID cursoId) {
+        List<int[]> filas = new ArrayList<>();
+        for (Inscripcion inscripcion : inscripcionRepository.findByCursoId(cursoId)) {
+            if (!"activo".equals(inscripcion.getEstado())) {
+                continue;
+            }
+            UUID estudianteId = inscripcion.getEstudiante().getId();
+            inscripcion.getEstudiante().getNombreCompleto();
+            int puntos = misionService.obtenerPuntosTotalesEstudiante(estudianteId);
+            int completadas = (int) progresoRepository.findByEstudianteId(estudianteId).stream()
+                    .filter(ProgresoMision::getCompletada)
+                    .count();
+            filas.add(new int[]{puntos, completadas});
+        }
+        filas.sort(Comparator.<int[]>comparingInt(f -> f[0]).reversed()
+                .thenComparing(Comparator.<int[]>comparingInt(f -> f[1]).reversed()));
+        return filas;
+    }
+
+    private long medir(String nombre, Supplier<?> consulta) {
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            consulta.get();
+            entityManager.clear();
+        }
+        long[] tiempos = new long[MEDICIONES];
+        for (int i = 0; i < MEDICIONES; i++) {
+            long inicio = System.nanoTime();
+            consulta.get();
+            tiempos[i] = (System.nanoTime() - inicio) / 1_000_000;
+            entityManager.clear();
+        }
+        Arrays.sort(tiempos);
+        log.info("{}: mediana {} ms (min {}, max {})",
+                nombre, tiempos[MEDICIONES / 2], tiempos[0], tiempos[MEDICIONES - 1]);
+        return tiempos[MEDICIONES / 2];
+    }
+
+    /**
+     * Curso con ESTUDIANTES inscripciones activas y su acumulado en puntajes_estudiante.
+     * No se siembran entregas ni progresos, así que las consultas por estudiante de la
+     * implementación anterior devuelven filas vacías: su costo medido es un mínimo.
+     */
+    private UUID sembrarCurso() {
+        Timestamp ahora = Timestamp.from(Instant.now());
+        UUID cursoId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO grupo_03.cursos (id, codigo_curso, nombre, activo, fecha_creacion, fecha_actualizacion) " +
+                "VALUES (?, ?, ?, true, ?, ?)", cursoId, "BENCH-" + cursoId.toString().substring(0, 8),
+                "Curso benchmark ranking", ahora, ahora);
+
+        List<Object[]> usuarios = new ArrayList<>(ESTUDIANTES);
+        List<Object[]> inscripciones = new ArrayList<>(ESTUDIANTES);
+        for (int i = 0; i < ESTUDIANTES; i++) {
+            UUID estudianteId = UUID.randomUUID();
+            String username = "bench_" + estudianteId.toString().substring(0, 18);
+            usuarios.add(new Object[]{estudianteId, username, username + "@bench.local", "x",
+                    "Estudiante " + i, ahora, ahora});
+            inscripciones.add(new Object[]{UUID.randomUUID(), estudianteId, cursoId, ahora, ahora});
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO grupo_03.usuario (id, username, email, password, rol, nombre_completo, " +
+                "activo, fecha_creacion, fecha_actualizacion, is_superuser, is_staff) " +
+                "VALUES (?, ?, ?, ?, 'estudiante', ?, true, ?, ?, false, false)", usuarios);
+        jdbcTemplate.batchUpdate("INSERT INTO grupo_03.inscripciones (id, estudiante_id, curso_id, fecha_inscripcion, estado, " +
+                "fecha_actualizacion) VALUES (?, ?, ?, ?, 'activo', ?)", inscripciones);
+
+        List<Object[]> puntajes = new ArrayList<>(ESTUDIANTES);
+        for (Object[] usuario : usuarios) {
+            puntajes.add(new Object[]{usuario[0], ThreadLocalRandom.current().nextInt(0, 5000),
+                    ThreadLocalRandom.current().nextInt(0, 20), ahora});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO grupo_03.puntajes_estudiante " +
+                "(estudiante_id, puntos_totales, misiones_completadas, fecha_actualizacion) VALUES (?, ?, ?, ?)", puntajes);
+
+        return cursoId;
+    }
+}
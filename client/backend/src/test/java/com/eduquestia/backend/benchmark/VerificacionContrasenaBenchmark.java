@@ -0,0 +1,97 @@
+package com.eduquestia.backend.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import com.eduquestia.backend.service.auth.VerificadorContrasenas;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.mindrot.jbcrypt.BCrypt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de {@link VerificadorContrasenas#verifyPassword} para cada formato de
+ * hash que acepta el login, con los parámetros por defecto del admin-backend
+ * (bcrypt con costo 12, pbkdf2_sha256 con 1.000.000 de iteraciones de Django 5.2).
+ * Sirve para dimensionar auth.hash.hilos y auth.hash.cola: cada hilo verifica
+ * unas 1000 / ms_por_operación contraseñas por segundo.
+ *
+ * No se ejecuta con mvn test. Para correrlo:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.eduquestia.backend.benchmark.VerificacionContrasenaBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class VerificacionContrasenaBenchmark {
+
+    private static final String CONTRASENA = "Estudiante#2025";
+    private static final int COSTO_BCRYPT = 12;
+    private static final int ITERACIONES_PBKDF2 = 1_000_000;
+
+    @Param({"bcrypt", "bcrypt_pure", "bcrypt_sha256", "pbkdf2_sha256"})
+    private String formato;
+
+    private VerificadorContrasenas verificador;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        // Sin configuración de Spring, logback registra en DEBUG cada verificación
+        ((Logger) LoggerFactory.getLogger(VerificadorContrasenas.class)).setLevel(ch.qos.logback.classic.Level.INFO);
+
+        verificador = new VerificadorContrasenas();
+        String bcrypt = BCrypt.hashpw(CONTRASENA, BCrypt.gensalt(COSTO_BCRYPT));
+        hash = switch (formato) {
+            case "bcrypt" -> bcrypt;
+            case "bcrypt_pure" -> formato + "$" + bcrypt;
+            // Como BCryptSHA256PasswordHasher: bcrypt sobre el SHA-256 en hex de la contraseña
+            case "bcrypt_sha256" -> formato + "$" + BCrypt.hashpw(DigestUtils.sha256Hex(CONTRASENA),
+                    BCrypt.gensalt(COSTO_BCRYPT));
+            case "pbkdf2_sha256" -> pbkdf2(CONTRASENA, "sal" + System.nanoTime(), ITERACIONES_PBKDF2);
+            default -> throw new IllegalArgumentException("Formato no soportado: " + formato);
+        };
+        if (!verificador.verifyPassword(CONTRASENA, hash)) {
+            throw new IllegalStateException("El hash generado para " + formato + " no verifica");
+        }
+    }
+
+    @Benchmark
+    public boolean verifyPassword() {
+        return verificador.verifyPassword(CONTRASENA, hash);
+    }
+
+    // Mismo formato que genera Django: pbkdf2_sha256$iteraciones$sal$hash_base64
+    private static String pbkdf2(String contrasena, String sal, int iteraciones) throws Exception {
+        PBEKeySpec spec = new PBEKeySpec(contrasena.toCharArray(), sal.getBytes(), iteraciones, 256);
+        byte[] derivada = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        return "pbkdf2_sha256$" + iteraciones + "$" + sal + "$" + Base64.encodeBase64String(derivada);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(VerificacionContrasenaBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,198 @@
+package com.eduquestia.backend.service;
+
+import com.eduquestia.backend.dto.request.CompletarMisionRequest;
+import com.eduquestia.backend.dto.response.MisionEstudianteResponse;
+import com.eduquestia.backend.entity.enums.CategoriaMision;
+import com.eduquestia.backend.entity.enums.EstadoEntrega;
+import com.eduquestia.backend.exceptions.ValidationException;
+import com.eduquestia.backend.service.gamificacion.ProcesadorMisionesCompletadas;
+import com.eduquestia.backend.service.idempotencia.CompletarMisionIdempotente;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Prueba de estrés de "completar misión": muchos reintentos simultáneos del mismo
+ * estudiante deben completar la misión una sola vez (un movimiento de puntos, una
+ * entrega, los puntos sumados una vez). Sin Idempotency-Key el resto de peticiones
+ * falla con "ya fue completada"; con la misma clave todas reciben la respuesta
+ * original, un reintento posterior no ejecuta ninguna sentencia SQL y uno que no
+ * encuentra la clave en memoria recibe la respuesta reconstruida desde la entrega.
+ *
+ * Requiere una base PostgreSQL con el esquema grupo_03 creado (mismo entorno que
+ * RankingCursoBenchmarkTest). Las peticiones corren en hilos propios, así que los
+ * datos se confirman y se borran al terminar cada test:
+ *   BENCHMARK_DB_URL=jdbc:postgresql://localhost:5432/eduquest_db?currentSchema=grupo_03 \
+ *     mvn test -Dtest=CompletarMisionConcurrenteTest
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=${BENCHMARK_DB_URL}",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.eduquestia.backend.service.ContadorSentenciasSql"
+})
+@EnabledIfEnvironmentVariable(named = "BENCHMARK_DB_URL", matches = ".+")
+class CompletarMisionConcurrenteTest {
+
+    private static final int PETICIONES = 50;
+    private static final int PUNTOS = 100;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MisionService misionService;
+
+    @Autowired
+    private CompletarMisionIdempotente completarMisionIdempotente;
+
+    @Autowired
+    private ProcesadorMisionesCompletadas procesadorMisionesCompletadas;
+
+    private UUID profesorId;
+    private UUID estudianteId;
+    private UUID cursoId;
+    private UUID misionId;
+
+    @BeforeEach
+    void sembrar() {
+        DatosPrueba datos = new DatosPrueba(jdbcTemplate, "cmc");
+        profesorId = datos.insertarUsuario("profesor");
+        estudianteId = datos.insertarUsuario("estudiante");
+        cursoId = datos.insertarCurso();
+        datos.inscribir(estudianteId, cursoId);
+        misionId = datos.insertarMision(cursoId, profesorId, CategoriaMision.QUIZ, PUNTOS, 1);
+        datos.insertarProgreso(misionId, estudianteId, false);
+        datos.insertarEntrega(misionId, estudianteId, EstadoEntrega.PENDIENTE, 0, 0);
+    }
+
+    @AfterEach
+    void limpiar() throws InterruptedException {
+        // Logros, rankings y notificaciones de la misión completada se procesan en segundo plano
+        for (int i = 0; i < 100 && procesadorMisionesCompletadas.eventosPendientes() > 0; i++) {
+            Thread.sleep(100);
+        }
+        for (String tabla : List.of("logros_estudiante", "movimientos_puntos", "puntos_periodo", "puntajes_estudiante",
+                "entregas_mision", "progreso_mision", "inscripciones")) {
+            jdbcTemplate.update("DELETE FROM grupo_03." + tabla + " WHERE estudiante_id = ?", estudianteId);
+        }
+        jdbcTemplate.update("DELETE FROM grupo_03.notificaciones WHERE usuario_id = ?", estudianteId);
+        jdbcTemplate.update("DELETE FROM grupo_03.misiones WHERE id = ?", misionId);
+        jdbcTemplate.update("DELETE FROM grupo_03.cursos WHERE id = ?", cursoId);
+        jdbcTemplate.update("DELETE FROM grupo_03.usuario WHERE id IN (?, ?)", estudianteId, profesorId);
+    }
+
+    @Test
+    void reintentosConcurrentesCompletanLaMisionUnaSolaVez() throws Exception {
+        List<Future<MisionEstudianteResponse>> resultados = enParalelo(
+                () -> misionService.completarMision(misionId, solicitud(), estudianteId));
+
+        int completadas = 0;
+        for (Future<MisionEstudianteResponse> resultado : resultados) {
+            try {
+                resultado.get();
+                completadas++;
+            } catch (ExecutionException e) {
+                // Solo se admite el rechazo de negocio, nunca un error de restricción única
+                assertInstanceOf(ValidationException.class, e.getCause());
+            }
+        }
+
+        assertEquals(1, completadas);
+        verificarCompletadaUnaVez();
+    }
+
+    @Test
+    void reintentosConLaMismaClaveDevuelvenLaRespuestaOriginal() throws Exception {
+        String clave = UUID.randomUUID().toString();
+        List<Future<MisionEstudianteResponse>> resultados = enParalelo(
+                () -> completarMisionIdempotente.completarMision(misionId, solicitud(), estudianteId, clave));
+
+        MisionEstudianteResponse original = resultados.get(0).get();
+        for (Future<MisionEstudianteResponse> resultado : resultados) {
+            assertEquals(original, resultado.get());
+        }
+        verificarCompletadaUnaVez();
+
+        // Un reintento tardío con la misma clave no vuelve a la base de datos
+        ContadorSentenciasSql.reiniciar();
+        assertEquals(original, completarMisionIdempotente.completarMision(misionId, solicitud(), estudianteId, clave));
+        assertEquals(0, ContadorSentenciasSql.sentencias());
+
+        // En otra instancia o tras un reinicio no está en memoria: la respuesta sale de la entrega guardada
+        assertEquals(original, misionService.completarMision(misionId, solicitud(), estudianteId, clave));
+
+        // Otra clave es otra petición: la misión ya está completada
+        assertThrows(ValidationException.class, () -> completarMisionIdempotente.completarMision(
+                misionId, solicitud(), estudianteId, UUID.randomUUID().toString()));
+    }
+
+    private void verificarCompletadaUnaVez() {
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject(
+                "SELECT completada FROM grupo_03.progreso_mision WHERE mision_id = ? AND estudiante_id = ?",
+                Boolean.class, misionId, estudianteId));
+        assertEquals(1, contar("SELECT COUNT(*) FROM grupo_03.entregas_mision " +
+                "WHERE mision_id = ? AND estudiante_id = ? AND estado = 'ENVIADA'"));
+        assertEquals(1, contar("SELECT COUNT(*) FROM grupo_03.movimientos_puntos WHERE mision_id = ? AND estudiante_id = ?"));
+        assertEquals(PUNTOS, jdbcTemplate.queryForObject(
+                "SELECT puntos_totales FROM grupo_03.puntajes_estudiante WHERE estudiante_id = ?", Integer.class, estudianteId));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT estudiantes_completados FROM grupo_03.contadores_mision WHERE mision_id = ?", Integer.class, misionId));
+    }
+
+    private int contar(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, misionId, estudianteId);
+    }
+
+    /**
+     * Lanza las peticiones a la vez desde hilos propios
+     */
+    private <T> List<Future<T>> enParalelo(Callable<T> peticion) throws InterruptedException {
+        ExecutorService hilos = Executors.newFixedThreadPool(PETICIONES);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<T>> resultados = new ArrayList<>();
+        try {
+            for (int i = 0; i < PETICIONES; i++) {
+                resultados.add(hilos.submit(() -> {
+                    salida.await();
+                    return peticion.call();
+                }));
+            }
+            salida.countDown();
+            for (Future<T> resultado : resultados) {
+                try {
+                    resultado.get();
+                } catch (ExecutionException e) {
+                    // Se revisa en cada test
+                }
+            }
+        } finally {
+            hilos.shutdown();
+        }
+        return resultados;
+    }
+
+    private CompletarMisionRequest solicitud() {
+        CompletarMisionRequest request = new CompletarMisionRequest();
+        request.setContenidoEntrega("Entrega");
+        return request;
+    }
+}
@@ -0,0 +1,27 @@
+package com.eduquestia.backend.service;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * StatementInspector de Hibernate que cuenta las sentencias SQL preparadas por el
+ * hilo actual. Se cuenta por hilo para que las tareas programadas que corren en
+ * segundo plano durante el test no alteren el resultado.
+ */
+public class ContadorSentenciasSql implements StatementInspector {
+
+    private static final ThreadLocal<Integer> SENTENCIAS = ThreadLocal.withInitial(() -> 0);
+
+    @Override
+    public String inspect(String sql) {
+        SENTENCIAS.set(SENTENCIAS.get() + 1);
+        return sql;
+    }
+
+    public static void reiniciar() {
+        SENTENCIAS.set(0);
+    }
+
+    public static int sentencias() {
+        return SENTENCIAS.get();
+    }
+}
@@ -0,0 +1,75 @@
+package com.eduquestia.backend.service;
+
+import com.eduquestia.backend.entity.enums.CategoriaMision;
+import com.eduquestia.backend.entity.enums.EstadoEntrega;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Inserta con SQL directo los usuarios, cursos, misiones, progresos y entregas
+ * que necesitan los tests contra PostgreSQL. El prefijo distingue los usuarios y
+ * códigos de curso de cada test.
+ */
+class DatosPrueba {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String prefijo;
+    private final Timestamp ahora = Timestamp.from(Instant.now());
+
+    DatosPrueba(JdbcTemplate jdbcTemplate, String prefijo) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.prefijo = prefijo;
+    }
+
+    UUID insertarUsuario(String rol) {
+        UUID id = UUID.randomUUID();
+        String username = prefijo.toLowerCase() + "_" + id.toString().substring(0, 18);
+        jdbcTemplate.update("INSERT INTO grupo_03.usuario (id, username, email, password, rol, nombre_completo, " +
+                        "activo, fecha_creacion, fecha_actualizacion, is_superuser, is_staff) " +
+                        "VALUES (?, ?, ?, 'x', ?, ?, true, ?, ?, false, false)",
+                id, username, username + "@test.local", rol, "Usuario " + username, ahora, ahora);
+        return id;
+    }
+
+    UUID insertarCurso() {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO grupo_03.cursos (id, codigo_curso, nombre, activo, fecha_creacion, fecha_actualizacion) " +
+                        "VALUES (?, ?, ?, true, ?, ?)",
+                id, prefijo.toUpperCase() + "-" + id.toString().substring(0, 8), "Curso " + id, ahora, ahora);
+        return id;
+    }
+
+    UUID inscribir(UUID estudianteId, UUID cursoId) {
+        jdbcTemplate.update("INSERT INTO grupo_03.inscripciones (id, estudiante_id, curso_id, fecha_inscripcion, estado, " +
+                "fecha_actualizacion) VALUES (?, ?, ?, ?, 'activo', ?)", UUID.randomUUID(), estudianteId, cursoId, ahora, ahora);
+        return estudianteId;
+    }
+
+    UUID insertarMision(UUID cursoId, UUID profesorId, CategoriaMision categoria, int puntos, int diasLimite) {
+        UUID id = UUID.randomUUID();
+        Timestamp limite = Timestamp.from(Instant.now().plus(diasLimite, ChronoUnit.DAYS));
+        jdbcTemplate.update("INSERT INTO grupo_03.misiones (id, curso_id, profesor_id, titulo, descripcion, tipo_mision, " +
+                        "categoria, dificultad, puntos_recompensa, experiencia_recompensa, fecha_inicio, fecha_limite, " +
+                        "activo, fecha_creacion, fecha_actualizacion) " +
+                        "VALUES (?, ?, ?, ?, 'Descripción', 'INDIVIDUAL', ?, 'MEDIO', ?, 0, ?, ?, true, ?, ?)",
+                id, cursoId, profesorId, "Misión " + id, categoria.name(), puntos, ahora, limite, ahora, ahora);
+        return id;
+    }
+
+    void insertarProgreso(UUID misionId, UUID estudianteId, boolean completada) {
+        jdbcTemplate.update("INSERT INTO grupo_03.progreso_mision (id, mision_id, estudiante_id, porcentaje_completado, " +
+                        "tiempo_dedicado_minutos, ultima_actividad, completada, fecha_creacion, fecha_actualizacion) " +
+                        "VALUES (?, ?, ?, ?, 0, ?, ?, ?, ?)",
+                UUID.randomUUID(), misionId, estudianteId, completada ? 100 : 0, ahora, completada, ahora, ahora);
+    }
+
+    void insertarEntrega(UUID misionId, UUID estudianteId, EstadoEntrega estado, int puntos, int intentos) {
+        jdbcTemplate.update("INSERT INTO grupo_03.entregas_mision (id, mision_id, estudiante_id, estado, puntos_obtenidos, " +
+                        "intentos, fecha_creacion, fecha_actualizacion) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                UUID.randomUUID(), misionId, estudianteId, estado.name(), puntos, intentos, ahora, ahora);
+    }
+}
@@ -0,0 +1,196 @@
+package com.eduquestia.backend.service;
+
+import com.eduquestia.backend.dto.response.MisionEstudianteResponse;
+import com.eduquestia.backend.dto.response.MisionListResponse;
+import com.eduquestia.backend.entity.enums.CategoriaMision;
+import com.eduquestia.backend.entity.enums.EstadoEntrega;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Verifica que los listados de misiones emiten un número fijo de sentencias SQL,
+ * independiente de cuántas misiones devuelven. Listados del profesor y del curso:
+ * misiones con su curso, conteo de completadas agrupado por misión y conteo de
+ * inscritos agrupado por curso. Listado del estudiante: una sola consulta.
+ *
+ * Requiere una base PostgreSQL con el esquema grupo_03 creado (mismo entorno que
+ * RankingCursoBenchmarkTest). Los datos se revierten al terminar:
+ *   BENCHMARK_DB_URL=jdbc:postgresql://localhost:5432/eduquest_db?currentSchema=grupo_03 \
+ *     mvn test -Dtest=ListadoMisionesSqlTest
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=${BENCHMARK_DB_URL}",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.eduquestia.backend.service.ContadorSentenciasSql"
+})
+@EnabledIfEnvironmentVariable(named = "BENCHMARK_DB_URL", matches = ".+")
+@Transactional
+class ListadoMisionesSqlTest {
+
+    private static final int SENTENCIAS_POR_LISTADO = 3;
+    private static final int SENTENCIAS_LISTADO_ESTUDIANTE = 1;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MisionService misionService;
+
+    private DatosPrueba datos;
+
+    private UUID profesorId;
+    private UUID cursoA;
+    private UUID cursoB;
+    private final List<UUID> misionesA = new ArrayList<>();
+    private final List<UUID> misionesB = new ArrayList<>();
+    private final List<UUID> estudiantesA = new ArrayList<>();
+
+    @BeforeEach
+    void sembrar() {
+        datos = new DatosPrueba(jdbcTemplate, "sql");
+        profesorId = datos.insertarUsuario("profesor");
+        cursoA = datos.insertarCurso();
+        cursoB = datos.insertarCurso();
+
+        for (int i = 0; i < 5; i++) {
+            estudiantesA.add(datos.inscribir(datos.insertarUsuario("estudiante"), cursoA));
+        }
+        for (int i = 0; i < 3; i++) {
+            datos.inscribir(datos.insertarUsuario("estudiante"), cursoB);
+        }
+
+        for (int i = 0; i < 6; i++) {
+            // La misión i del curso A vence dentro de i + 1 días
+            misionesA.add(datos.insertarMision(cursoA, profesorId,
+                    i % 2 == 0 ? CategoriaMision.QUIZ : CategoriaMision.LECTURA, 100, i + 1));
+        }
+        for (int i = 0; i < 4; i++) {
+            misionesB.add(datos.insertarMision(cursoB, profesorId, CategoriaMision.PROYECTO, 100, 7));
+        }
+
+        // La misión i del curso A la completan (con entrega calificada) los primeros i estudiantes
+        for (int i = 0; i < misionesA.size(); i++) {
+            for (int j = 0; j < estudiantesA.size(); j++) {
+                datos.insertarProgreso(misionesA.get(i), estudiantesA.get(j), j < i);
+                if (j < i) {
+                    datos.insertarEntrega(misionesA.get(i), estudiantesA.get(j), EstadoEntrega.CALIFICADA, 100, 1);
+                }
+            }
+        }
+    }
+
+    @Test
+    void listarMisionesPorProfesor() {
+        List<MisionListResponse> misiones = medir(SENTENCIAS_POR_LISTADO,
+                () -> misionService.listarMisionesPorProfesor(profesorId));
+
+        assertEquals(misionesA.size() + misionesB.size(), misiones.size());
+        Map<UUID, MisionListResponse> porId = porId(misiones);
+        for (int i = 0; i < misionesA.size(); i++) {
+            MisionListResponse mision = porId.get(misionesA.get(i));
+            assertEquals(Math.min(i, 5), mision.getEstudiantesCompletados());
+            assertEquals(5, mision.getTotalEstudiantes());
+        }
+        for (UUID misionId : misionesB) {
+            assertEquals(0, porId.get(misionId).getEstudiantesCompletados());
+            assertEquals(3, porId.get(misionId).getTotalEstudiantes());
+        }
+    }
+
+    @Test
+    void listarMisionesPorCurso() {
+        List<MisionListResponse> misiones = medir(SENTENCIAS_POR_LISTADO,
+                () -> misionService.listarMisionesPorCurso(cursoA));
+
+        assertEquals(misionesA.size(), misiones.size());
+        assertEquals(5, porId(misiones).get(misionesA.get(5)).getEstudiantesCompletados());
+    }
+
+    @Test
+    void listarMisionesPorCursoYCategoria() {
+        List<MisionListResponse> misiones = medir(SENTENCIAS_POR_LISTADO,
+                () -> misionService.listarMisionesPorCursoYCategoria(cursoA, CategoriaMision.QUIZ));
+
+        assertEquals(3, misiones.size());
+    }
+
+    @Test
+    void listadoVacioEmiteSoloLaConsultaDeMisiones() {
+        entityManager.clear();
+        ContadorSentenciasSql.reiniciar();
+
+        List<MisionListResponse> misiones =
+                misionService.listarMisionesPorCursoYCategoria(cursoB, CategoriaMision.QUIZ);
+
+        assertEquals(0, misiones.size());
+        assertEquals(1, ContadorSentenciasSql.sentencias());
+    }
+
+    @Test
+    void listarMisionesPorEstudiante() {
+        // El último estudiante solo completó la última misión
+        UUID estudianteId = estudiantesA.get(estudiantesA.size() - 1);
+        UUID ultima = misionesA.get(misionesA.size() - 1);
+
+        List<MisionEstudianteResponse> todas = medir(SENTENCIAS_LISTADO_ESTUDIANTE,
+                () -> misionService.listarMisionesPorEstudiante(estudianteId));
+        assertEquals(misionesA.size(), todas.size());
+        assertEquals(misionesA.get(0), todas.get(0).getId());
+
+        List<MisionEstudianteResponse> completadas = medir(SENTENCIAS_LISTADO_ESTUDIANTE,
+                () -> misionService.listarMisionesPorEstudiante(estudianteId, "completadas", null, null));
+        assertEquals(1, completadas.size());
+        assertEquals(ultima, completadas.get(0).getId());
+        assertEquals(EstadoEntrega.CALIFICADA, completadas.get(0).getEstadoEntrega());
+        assertEquals(100, completadas.get(0).getPuntosObtenidos());
+
+        List<MisionEstudianteResponse> activas = medir(SENTENCIAS_LISTADO_ESTUDIANTE,
+                () -> misionService.listarMisionesPorEstudiante(estudianteId, "activas", null, null));
+        assertEquals(misionesA.size() - 1, activas.size());
+        activas.forEach(mision -> {
+            assertEquals(EstadoEntrega.PENDIENTE, mision.getEstadoEntrega());
+            assertEquals(0, mision.getPuntosObtenidos());
+        });
+
+        // Ventana de dos días: misiones que vencen mañana y pasado mañana
+        LocalDate manana = LocalDate.now().plusDays(1);
+        List<MisionEstudianteResponse> proximas = medir(SENTENCIAS_LISTADO_ESTUDIANTE,
+                () -> misionService.listarMisionesPorEstudiante(estudianteId, "activas", manana, manana.plusDays(1)));
+        assertEquals(List.of(misionesA.get(0), misionesA.get(1)),
+                proximas.stream().map(MisionEstudianteResponse::getId).toList());
+    }
+
+    private <T> List<T> medir(int esperadas, Supplier<List<T>> listado) {
+        entityManager.clear();
+        ContadorSentenciasSql.reiniciar();
+
+        List<T> misiones = listado.get();
+
+        assertEquals(esperadas, ContadorSentenciasSql.sentencias(),
+                "sentencias SQL emitidas para " + misiones.size() + " misiones");
+        return misiones;
+    }
+
+    private Map<UUID, MisionListResponse> porId(List<MisionListResponse> misiones) {
+        return misiones.stream().collect(Collectors.toMap(MisionListResponse::getId, Function.identity()));
+    }
+}
@@ -0,0 +1,121 @@
+package com.eduquestia.backend.service.auth;
+
+import com.eduquestia.backend.exceptions.DemasiadasSolicitudesException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pool de un hilo con cola de una plaza y una verificación por cuenta. El
+ * verificador de prueba se queda bloqueado hasta que el test lo suelta, así
+ * el hilo y la cola se llenan de forma controlada.
+ */
+class EjecutorVerificacionContrasenasTest {
+
+    private final CountDownLatch enCurso = new CountDownLatch(1);
+    private final CountDownLatch soltar = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final VerificadorContrasenas verificador = new VerificadorContrasenas() {
+        @Override
+        public boolean verifyPassword(String plainPassword, String hashedPassword) {
+            enCurso.countDown();
+            try {
+                soltar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "correcta".equals(plainPassword);
+        }
+    };
+
+    private EjecutorVerificacionContrasenas ejecutor;
+
+    @AfterEach
+    void detener() {
+        soltar.countDown();
+        ejecutor.detener();
+    }
+
+    @Test
+    void conLaColaLlenaRespondeDemasiadasSolicitudesYLiberaLosPermisos() throws Exception {
+        ejecutor = crear(5000);
+        CompletableFuture<Boolean> enHilo = verificarEnSegundoPlano("ana", "10.0.0.1");
+        assertTrue(enCurso.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> enCola = verificarEnSegundoPlano("luis", "10.0.0.2");
+        esperarCola(1);
+
+        assertThrows(DemasiadasSolicitudesException.class,
+                () -> ejecutor.verificar("eva", "10.0.0.3", "correcta", "hash"));
+        assertEquals(1, rechazos("cola"));
+
+        soltar.countDown();
+        assertTrue(enHilo.get(5, TimeUnit.SECONDS));
+        assertTrue(enCola.get(5, TimeUnit.SECONDS));
+        // Con una verificación por cuenta, un permiso sin liberar rechazaría este intento
+        assertTrue(ejecutor.verificar("eva", "10.0.0.3", "correcta", "hash"));
+    }
+
+    @Test
+    void laEsperaAgotadaRespondeDemasiadasSolicitudesYLiberaLosPermisos() throws Exception {
+        ejecutor = crear(100);
+        // La verificación en el hilo tampoco termina a tiempo
+        CompletableFuture<Boolean> enHilo = verificarEnSegundoPlano("ana", "10.0.0.1");
+        assertTrue(enCurso.await(5, TimeUnit.SECONDS));
+
+        assertThrows(DemasiadasSolicitudesException.class,
+                () -> ejecutor.verificar("luis", "10.0.0.2", "correcta", "hash"));
+        ExecutionException error = assertThrows(ExecutionException.class, () -> enHilo.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DemasiadasSolicitudesException.class, error.getCause());
+        assertEquals(2, rechazos("espera"));
+
+        soltar.countDown();
+        assertTrue(ejecutor.verificar("ana", "10.0.0.1", "correcta", "hash"));
+        assertTrue(ejecutor.verificar("luis", "10.0.0.2", "correcta", "hash"));
+    }
+
+    @Test
+    void unaCuentaConUnaVerificacionEnCursoSeRechazaSinEncolar() throws Exception {
+        ejecutor = crear(5000);
+        CompletableFuture<Boolean> enHilo = verificarEnSegundoPlano("ana", "10.0.0.1");
+        assertTrue(enCurso.await(5, TimeUnit.SECONDS));
+
+        // Mayúsculas distintas, misma cuenta
+        assertThrows(DemasiadasSolicitudesException.class,
+                () -> ejecutor.verificar("ANA", "10.0.0.2", "correcta", "hash"));
+        assertEquals(1, rechazos("cuenta"));
+        assertEquals(0, rechazos("cola"));
+
+        soltar.countDown();
+        assertTrue(enHilo.get(5, TimeUnit.SECONDS));
+    }
+
+    private EjecutorVerificacionContrasenas crear(long esperaMaximaMs) {
+        return new EjecutorVerificacionContrasenas(verificador, meterRegistry, 1, 1, esperaMaximaMs, 1, 32);
+    }
+
+    private CompletableFuture<Boolean> verificarEnSegundoPlano(String cuenta, String ip) {
+        return CompletableFuture.supplyAsync(() -> ejecutor.verificar(cuenta, ip, "correcta", "hash"));
+    }
+
+    private void esperarCola(int tamano) throws InterruptedException {
+        for (int i = 0; i < 500 && meterRegistry.get("auth.hash.cola").gauge().value() < tamano; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(tamano, (int) meterRegistry.get("auth.hash.cola").gauge().value());
+    }
+
+    private int rechazos(String motivo) {
+        return (int) meterRegistry.get("auth.hash.rechazos").tag("motivo", motivo).counter().count();
+    }
+}
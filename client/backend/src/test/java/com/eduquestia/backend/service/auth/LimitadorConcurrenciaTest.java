@@ -0,0 +1,78 @@
+package com.eduquestia.backend.service.auth;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Limitador de dos operaciones simultáneas por clave.
+ */
+class LimitadorConcurrenciaTest {
+
+    private final LimitadorConcurrencia<String> limitador = new LimitadorConcurrencia<>(2);
+
+    @Test
+    void admiteHastaElMaximoPorClave() {
+        assertTrue(limitador.adquirir("ana"));
+        assertTrue(limitador.adquirir("ana"));
+        assertFalse(limitador.adquirir("ana"));
+    }
+
+    @Test
+    void liberarDejaSitioParaOtraOperacion() {
+        limitador.adquirir("ana");
+        limitador.adquirir("ana");
+
+        limitador.liberar("ana");
+
+        assertTrue(limitador.adquirir("ana"));
+        assertFalse(limitador.adquirir("ana"));
+    }
+
+    @Test
+    void lasClavesNoCompartenElLimite() {
+        limitador.adquirir("ana");
+        limitador.adquirir("ana");
+
+        assertTrue(limitador.adquirir("luis"));
+        assertEquals(2, limitador.claves());
+    }
+
+    @Test
+    void laClaveSeEliminaAlLiberarSuUltimaOperacion() {
+        limitador.adquirir("ana");
+        limitador.adquirir("ana");
+
+        limitador.liberar("ana");
+        assertEquals(1, limitador.claves());
+        limitador.liberar("ana");
+        assertEquals(0, limitador.claves());
+    }
+
+    @Test
+    void unRechazoNoDejaLaClaveGuardada() {
+        LimitadorConcurrencia<String> sinCupo = new LimitadorConcurrencia<>(1);
+        sinCupo.adquirir("ana");
+        assertFalse(sinCupo.adquirir("ana"));
+
+        sinCupo.liberar("ana");
+
+        assertEquals(0, sinCupo.claves());
+    }
+
+    @Test
+    void liberarUnaClaveSinOperacionesNoHaceNada() {
+        limitador.liberar("ana");
+
+        assertEquals(0, limitador.claves());
+        assertTrue(limitador.adquirir("ana"));
+    }
+
+    @Test
+    void elMaximoDebeSerPositivo() {
+        assertThrows(IllegalArgumentException.class, () -> new LimitadorConcurrencia<String>(0));
+    }
+}
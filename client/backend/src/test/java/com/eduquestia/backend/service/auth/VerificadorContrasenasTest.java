@@ -0,0 +1,42 @@
+package com.eduquestia.backend.service.auth;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Test;
+import org.mindrot.jbcrypt.BCrypt;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Formatos bcrypt que genera el admin-backend, con costo mínimo para que el test sea rápido.
+ */
+class VerificadorContrasenasTest {
+
+    private static final String CONTRASENA = "Estudiante#2025";
+
+    private final VerificadorContrasenas verificador = new VerificadorContrasenas();
+
+    @Test
+    void verificaBcryptPuroConPrefijoDeDjango() {
+        String hash = "bcrypt_pure$" + BCrypt.hashpw(CONTRASENA, BCrypt.gensalt(4));
+
+        assertTrue(verificador.verifyPassword(CONTRASENA, hash));
+        assertFalse(verificador.verifyPassword("otra", hash));
+    }
+
+    @Test
+    void verificaBcryptSha256SobreElDigestoHexadecimal() {
+        // Como BCryptSHA256PasswordHasher de Django
+        String hash = "bcrypt_sha256$" + BCrypt.hashpw(DigestUtils.sha256Hex(CONTRASENA), BCrypt.gensalt(4));
+
+        assertTrue(verificador.verifyPassword(CONTRASENA, hash));
+        assertFalse(verificador.verifyPassword("otra", hash));
+    }
+
+    @Test
+    void bcryptSha256NoAceptaElBcryptDeLaContrasenaSinDigerir() {
+        String hash = "bcrypt_sha256$" + BCrypt.hashpw(CONTRASENA, BCrypt.gensalt(4));
+
+        assertFalse(verificador.verifyPassword(CONTRASENA, hash));
+    }
+}
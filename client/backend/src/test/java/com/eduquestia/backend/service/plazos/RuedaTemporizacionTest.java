@@ -0,0 +1,96 @@
+package com.eduquestia.backend.service.plazos;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rueda de 8 ranuras con ticks de 1 s que empieza en el instante 0: el tick t
+ * cae en la ranura t % 8, así los plazos a 3 s y a 11 s comparten ranura.
+ */
+class RuedaTemporizacionTest {
+
+    private static final long TICK_MS = 1000;
+
+    private final RuedaTemporizacion<String> rueda = new RuedaTemporizacion<>(8, TICK_MS, 0);
+
+    @Test
+    void venceAlAlcanzarSuTick() {
+        rueda.programar("a", 3000);
+
+        assertEquals(List.of(), rueda.avanzar(2999));
+        assertEquals(List.of("a"), rueda.avanzar(3000));
+        assertEquals(0, rueda.tamano());
+    }
+
+    @Test
+    void lasClavesDeOtraVueltaEsperanEnLaMismaRanura() {
+        rueda.programar("cerca", 3000);
+        rueda.programar("lejos", 11000);
+
+        assertEquals(List.of("cerca"), rueda.avanzar(3000));
+        assertEquals(1, rueda.tamano());
+        assertEquals(List.of(), rueda.avanzar(10999));
+        assertEquals(List.of("lejos"), rueda.avanzar(11000));
+    }
+
+    @Test
+    void trasUnaPausaDeVariasVueltasVencenTodasLasAtrasadas() {
+        rueda.programar("a", 5000);
+        rueda.programar("b", 20000);
+        rueda.programar("c", 200000);
+
+        List<String> vencidas = rueda.avanzar(100000);
+
+        assertEquals(2, vencidas.size());
+        assertTrue(vencidas.containsAll(List.of("a", "b")));
+        assertEquals(1, rueda.tamano());
+        assertEquals(List.of("c"), rueda.avanzar(200000));
+    }
+
+    @Test
+    void cancelarQuitaLaClave() {
+        rueda.programar("a", 3000);
+
+        assertTrue(rueda.cancelar("a"));
+        assertFalse(rueda.cancelar("a"));
+        assertEquals(0, rueda.tamano());
+        assertEquals(List.of(), rueda.avanzar(10000));
+    }
+
+    @Test
+    void programarDeNuevoReprogramaLaClave() {
+        rueda.programar("a", 3000);
+        rueda.programar("a", 6000);
+
+        assertEquals(1, rueda.tamano());
+        assertEquals(List.of(), rueda.avanzar(3000));
+        assertEquals(List.of("a"), rueda.avanzar(6000));
+
+        // También hacia atrás, a una ranura ya recorrida en esta vuelta
+        rueda.programar("b", 13000);
+        rueda.programar("b", 7000);
+        assertEquals(List.of("b"), rueda.avanzar(7000));
+        assertEquals(List.of(), rueda.avanzar(13000));
+    }
+
+    @Test
+    void unInstanteYaPasadoVenceEnElSiguienteAvance() {
+        rueda.avanzar(5000);
+        rueda.programar("tarde", 1000);
+
+        assertEquals(List.of(), rueda.avanzar(5999));
+        assertEquals(List.of("tarde"), rueda.avanzar(6000));
+    }
+
+    @Test
+    void rechazaParametrosInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> new RuedaTemporizacion<String>(0, TICK_MS, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RuedaTemporizacion<String>(8, 0, 0));
+    }
+}
@@ -0,0 +1,78 @@
+package com.eduquestia.backend.service.requisitos;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cadena a → b → c (a es requisito de b, b de c) más una misión d independiente.
+ */
+class GrafoRequisitosTest {
+
+    private final UUID a = UUID.randomUUID();
+    private final UUID b = UUID.randomUUID();
+    private final UUID c = UUID.randomUUID();
+    private final UUID d = UUID.randomUUID();
+
+    private final Map<UUID, List<UUID>> cadena = Map.of(b, List.of(a), c, List.of(b));
+
+    @Test
+    void ordenTopologicoPoneCadaRequisitoAntes() {
+        Optional<List<UUID>> orden = GrafoRequisitos.ordenTopologico(List.of(c, d, b, a), cadena);
+
+        assertEquals(Optional.of(List.of(d, a, b, c)), orden);
+    }
+
+    @Test
+    void ordenTopologicoConservaElOrdenRecibidoSiYaEsValido() {
+        assertEquals(Optional.of(List.of(a, d, b, c)),
+                GrafoRequisitos.ordenTopologico(List.of(a, d, b, c), cadena));
+    }
+
+    @Test
+    void ordenTopologicoDetectaCiclos() {
+        Map<UUID, List<UUID>> ciclo = Map.of(a, List.of(c), b, List.of(a), c, List.of(b));
+
+        assertTrue(GrafoRequisitos.ordenTopologico(List.of(a, b, c, d), ciclo).isEmpty());
+        assertThrows(IllegalStateException.class,
+                () -> GrafoRequisitos.desbloqueadas(List.of(a, b, c, d), ciclo, Set.of()));
+    }
+
+    @Test
+    void sinCompletarNadaSoloSeDesbloqueanLasMisionesSinRequisitos() {
+        assertEquals(Set.of(a, d), GrafoRequisitos.desbloqueadas(List.of(a, b, c, d), cadena, Set.of()));
+    }
+
+    @Test
+    void losRequisitosIndirectosTambienBloquean() {
+        // b cuenta como cumplida pero a no: b y c siguen bloqueadas (c a través de b)
+        assertEquals(Set.of(a, d), GrafoRequisitos.desbloqueadas(List.of(a, b, c, d), cadena, Set.of(b)));
+        assertEquals(Set.of(a, b, c, d), GrafoRequisitos.desbloqueadas(List.of(a, b, c, d), cadena, Set.of(a, b)));
+    }
+
+    @Test
+    void recalculaElOrdenSiLasMisionesNoVienenOrdenadas() {
+        assertEquals(Set.of(a, b, d), GrafoRequisitos.desbloqueadas(List.of(c, b, a, d), cadena, Set.of(a)));
+    }
+
+    @Test
+    void unRequisitoFueraDeLasMisionesRecibidasNoBloquea() {
+        assertEquals(Set.of(b, c, d), GrafoRequisitos.desbloqueadas(List.of(b, c, d), cadena, Set.of(b)));
+    }
+
+    @Test
+    void variosRequisitosDirectosDebenCumplirseTodos() {
+        Map<UUID, List<UUID>> dos = Map.of(c, List.of(a, b));
+
+        assertEquals(Set.of(a, b, d), GrafoRequisitos.desbloqueadas(List.of(a, b, c, d), dos, Set.of(a)));
+        assertEquals(Set.of(a, b, c, d), GrafoRequisitos.desbloqueadas(List.of(a, b, c, d), dos, Set.of(a, b)));
+    }
+}
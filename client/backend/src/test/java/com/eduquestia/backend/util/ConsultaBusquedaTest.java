@@ -0,0 +1,51 @@
+package com.eduquestia.backend.util;
+
+import com.eduquestia.backend.exceptions.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * El tsquery solo lleva palabras de letras y dígitos, cada una como prefijo y
+ * unidas con &: ningún carácter del usuario llega como operador.
+ */
+class ConsultaBusquedaTest {
+
+    @Test
+    void cadaPalabraEsUnPrefijoObligatorio() {
+        assertEquals("fracciones:* & equivalentes:*", ConsultaBusqueda.tsquery("Fracciones equivalentes"));
+    }
+
+    @Test
+    void losOperadoresDeTsquerySeTratanComoSeparadores() {
+        assertEquals("a:* & b:* & c:* & d:* & e:* & f:*", ConsultaBusqueda.tsquery("a&b|c!d:*(e)'f'"));
+        assertEquals("suma:* & resta:*", ConsultaBusqueda.tsquery("suma:* & !resta | (''"));
+    }
+
+    @Test
+    void unTextoSoloDeSeparadoresSeRechaza() {
+        assertThrows(ValidationException.class, () -> ConsultaBusqueda.tsquery("&|!:*()' \t-_"));
+        assertThrows(ValidationException.class, () -> ConsultaBusqueda.tsquery(""));
+        assertThrows(ValidationException.class, () -> ConsultaBusqueda.tsquery(null));
+    }
+
+    @Test
+    void seConservanComoMuchoDiezTerminosDistintos() {
+        String texto = IntStream.rangeClosed(1, 12).mapToObj(i -> "t" + i).collect(Collectors.joining(" "));
+
+        String consulta = ConsultaBusqueda.tsquery("t1 T1 " + texto);
+
+        assertEquals(IntStream.rangeClosed(1, ConsultaBusqueda.TERMINOS_MAXIMOS)
+                .mapToObj(i -> "t" + i + ":*")
+                .collect(Collectors.joining(" & ")), consulta);
+    }
+
+    @Test
+    void lasLetrasAcentuadasSonParteDeLaPalabra() {
+        assertEquals("álgebra:* & año:* & pingüino:*", ConsultaBusqueda.tsquery("ÁLGEBRA, año; pingüino"));
+    }
+}
@@ -43,6 +43,7 @@ export interface Mision {
   fechaCreacion: string;
   fechaActualizacion: string;
   requisitosPrevios?: string;
+  requisitosIds?: string[];
   profesor?: Usuario;
   curso?: Curso;
 }
@@ -74,6 +75,7 @@ export interface CrearMisionDTO {
   fechaLimite: string;
   cursoId: string;
   requisitosPrevios?: string;
+  requisitosIds?: string[];
   // activo?: boolean; // Opcional si tu backend lo soporta
 }
 
@@ -88,6 +90,7 @@ export interface ActualizarMisionDTO {
   fechaInicio?: string;
   fechaLimite?: string;
   requisitosPrevios?: string;
+  requisitosIds?: string[];
   activo?: boolean;
 }
 
@@ -138,7 +141,7 @@ export interface MisionEstudianteResponse {
   porcentajeCompletado: number;
   completada: boolean;
   fechaCompletado?: string;
-  estadoEntrega: 'PENDIENTE' | 'ENVIADA' | 'REVISANDO' | 'CALIFICADA' | 'RECHAZADA';
+  estadoEntrega: 'PENDIENTE' | 'ENVIADA' | 'REVISANDO' | 'CALIFICADA' | 'RECHAZADA' | 'VENCIDA';
   puntosObtenidos: number;
   ultimaActividad: string;
 }
@@ -0,0 +1,27 @@
+-- =====================================================
+-- MIGRACIÓN: Búsqueda de texto en misiones
+-- Descripción: Agrega misiones.busqueda (tsvector en español con el título
+--              como peso A, la descripción como B y el texto de los contenidos
+--              como C) y su índice GIN. El client-backend recalcula la columna
+--              al crear y actualizar cada misión; aquí se llena para las existentes
+-- =====================================================
+
+-- Establecer el esquema
+SET search_path TO grupo_03;
+
+ALTER TABLE grupo_03.misiones ADD COLUMN IF NOT EXISTS busqueda TSVECTOR;
+
+-- Mismo documento que MisionRepository.actualizarDocumentoBusqueda
+UPDATE grupo_03.misiones m
+SET busqueda = setweight(to_tsvector('spanish', coalesce(m.titulo, '')), 'A') ||
+               setweight(to_tsvector('spanish', coalesce(m.descripcion, '')), 'B') ||
+               setweight(to_tsvector('spanish', coalesce((SELECT string_agg(c.contenido_texto, ' ' ORDER BY c.orden)
+                                                          FROM grupo_03.contenido_mision c
+                                                          WHERE c.mision_id = m.id), '')), 'C')
+WHERE m.busqueda IS NULL;
+
+-- Coincidencias de la consulta (@@) sin recorrer toda la tabla
+CREATE INDEX IF NOT EXISTS idx_misiones_busqueda
+    ON grupo_03.misiones USING GIN (busqueda);
+
+COMMENT ON COLUMN grupo_03.misiones.busqueda IS 'Documento de búsqueda: título (A), descripción (B) y contenidos (C)';
@@ -0,0 +1,47 @@
+-- =====================================================
+-- MIGRACIÓN: Contadores de estudiantes por misión
+-- Descripción: Crea contadores_mision (asignados y completados)
+--              usada por el resumen del progreso de una misión y la rellena a
+--              partir de progreso_mision. El client-backend la mantiene al
+--              asignar y completar misiones y la reconcilia periódicamente
+-- =====================================================
+
+-- Establecer el esquema
+SET search_path TO grupo_03;
+
+-- =====================================================
+-- 1. Crear tabla contadores_mision
+-- =====================================================
+CREATE TABLE IF NOT EXISTS grupo_03.contadores_mision (
+    mision_id UUID PRIMARY KEY,
+    estudiantes_asignados INTEGER NOT NULL DEFAULT 0,
+    estudiantes_completados INTEGER NOT NULL DEFAULT 0,
+    fecha_actualizacion TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_contador_mision_mision
+        FOREIGN KEY (mision_id)
+        REFERENCES grupo_03.misiones(id)
+        ON DELETE CASCADE
+);
+
+COMMENT ON TABLE grupo_03.contadores_mision IS 'Estudiantes asignados y completados por misión (mantenido por el client-backend)';
+
+-- En progreso se cuenta desde progreso_mision al consultar: ninguna escritura
+-- del client-backend lo mantenía al día
+ALTER TABLE grupo_03.contadores_mision DROP COLUMN IF EXISTS estudiantes_en_progreso;
+
+-- =====================================================
+-- 2. Rellenar / reconstruir desde progreso_mision
+-- =====================================================
+INSERT INTO grupo_03.contadores_mision
+    (mision_id, estudiantes_asignados, estudiantes_completados, fecha_actualizacion)
+SELECT m.id,
+       COUNT(p.id),
+       COUNT(p.id) FILTER (WHERE p.completada),
+       CURRENT_TIMESTAMP
+FROM grupo_03.misiones m
+LEFT JOIN grupo_03.progreso_mision p ON p.mision_id = m.id
+GROUP BY m.id
+ON CONFLICT (mision_id) DO UPDATE SET
+    estudiantes_asignados = EXCLUDED.estudiantes_asignados,
+    estudiantes_completados = EXCLUDED.estudiantes_completados,
+    fecha_actualizacion = EXCLUDED.fecha_actualizacion;
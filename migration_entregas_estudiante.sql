@@ -0,0 +1,12 @@
+-- =====================================================
+-- MIGRACIÓN: Índice de entregas por estudiante
+-- Descripción: La versión del perfil gamificado (ETag del endpoint de perfil)
+--              suma las entregas del estudiante en cada petición; la restricción
+--              única existente (mision_id, estudiante_id) no sirve para esa búsqueda
+-- =====================================================
+
+-- Establecer el esquema
+SET search_path TO grupo_03;
+
+CREATE INDEX IF NOT EXISTS idx_entregas_mision_estudiante
+    ON grupo_03.entregas_mision (estudiante_id);
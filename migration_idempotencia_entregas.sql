@@ -0,0 +1,12 @@
+-- =====================================================
+-- MIGRACIÓN: Clave de idempotencia en las entregas
+-- Descripción: Guarda la cabecera Idempotency-Key con la que se completó la
+--              misión, para que un reintento con la misma clave que llega a
+--              otra instancia o tras un reinicio reciba la respuesta original
+-- =====================================================
+
+-- Establecer el esquema
+SET search_path TO grupo_03;
+
+ALTER TABLE grupo_03.entregas_mision
+    ADD COLUMN IF NOT EXISTS clave_idempotencia VARCHAR(255);
@@ -0,0 +1,37 @@
+-- =====================================================
+-- MIGRACIÓN: Outbox de notificaciones
+-- Descripción: Crea outbox_notificaciones. Cada fila representa un envío
+--              (por ejemplo, "misión nueva para todo el curso") escrito en la
+--              transacción que lo origina; el client-backend lo expande después
+--              en filas de notificaciones
+-- =====================================================
+
+-- Establecer el esquema
+SET search_path TO grupo_03;
+
+CREATE TABLE IF NOT EXISTS grupo_03.outbox_notificaciones (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    tipo VARCHAR(30) NOT NULL,
+    titulo VARCHAR(150) NOT NULL,
+    mensaje TEXT NOT NULL,
+    referencia_id UUID,
+    curso_id UUID,
+    destinatarios UUID[],
+    estado VARCHAR(20) NOT NULL DEFAULT 'PENDIENTE',
+    intentos INTEGER NOT NULL DEFAULT 0,
+    proximo_intento TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    ultimo_error TEXT,
+    fecha_creacion TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    fecha_procesado TIMESTAMP,
+    CONSTRAINT chk_outbox_notificaciones_estado
+        CHECK (estado IN ('PENDIENTE', 'PROCESADO', 'FALLIDO')),
+    CONSTRAINT chk_outbox_notificaciones_destino
+        CHECK (curso_id IS NOT NULL OR destinatarios IS NOT NULL)
+);
+
+-- Solo los pendientes se consultan con frecuencia
+CREATE INDEX IF NOT EXISTS idx_outbox_notificaciones_pendientes
+    ON grupo_03.outbox_notificaciones (proximo_intento)
+    WHERE estado = 'PENDIENTE';
+
+COMMENT ON TABLE grupo_03.outbox_notificaciones IS 'Envíos de notificaciones pendientes de expandir por destinatario (outbox transaccional)';
@@ -0,0 +1,19 @@
+-- =====================================================
+-- MIGRACIÓN: Índices de paginación de misiones
+-- Descripción: Los listados de misiones (por profesor, por curso y por curso y
+--              categoría) se paginan por clave (fecha_limite, id). Con estos
+--              índices cada página es un recorrido de rango desde el cursor,
+--              con el mismo costo para la página N que para la primera
+-- =====================================================
+
+-- Establecer el esquema
+SET search_path TO grupo_03;
+
+CREATE INDEX IF NOT EXISTS idx_misiones_profesor_limite
+    ON grupo_03.misiones (profesor_id, activo, fecha_limite, id);
+
+CREATE INDEX IF NOT EXISTS idx_misiones_curso_limite
+    ON grupo_03.misiones (curso_id, activo, fecha_limite, id);
+
+CREATE INDEX IF NOT EXISTS idx_misiones_curso_categoria_limite
+    ON grupo_03.misiones (curso_id, categoria, fecha_limite, id);
@@ -0,0 +1,54 @@
+-- =====================================================
+-- MIGRACIÓN: Plazos de misiones (vencimiento y recordatorios)
+-- Descripción: Admite el estado VENCIDA en entregas_mision y el tipo
+--              MISION_POR_VENCER en notificaciones y outbox_notificaciones,
+--              crea el índice por fecha límite con el que el client-backend
+--              carga la ventana de misiones próximas a vencer y la tabla que
+--              asegura un solo recordatorio por plazo entre todas las instancias
+-- =====================================================
+
+-- Establecer el esquema
+SET search_path TO grupo_03;
+
+-- =====================================================
+-- 1. Estados y tipos nuevos (restricciones generadas por Hibernate para los enums)
+-- =====================================================
+ALTER TABLE grupo_03.entregas_mision DROP CONSTRAINT IF EXISTS entregas_mision_estado_check;
+ALTER TABLE grupo_03.entregas_mision ADD CONSTRAINT entregas_mision_estado_check
+    CHECK (estado IN ('PENDIENTE', 'ENVIADA', 'REVISANDO', 'CALIFICADA', 'RECHAZADA', 'VENCIDA'));
+
+ALTER TABLE grupo_03.notificaciones DROP CONSTRAINT IF EXISTS notificaciones_tipo_check;
+ALTER TABLE grupo_03.notificaciones ADD CONSTRAINT notificaciones_tipo_check
+    CHECK (tipo IN ('MISION_NUEVA', 'MISION_VENCIDA', 'MISION_POR_VENCER', 'LOGRO_DESBLOQUEADO',
+                    'NIVEL_SUBIDO', 'CALIFICACION', 'MENSAJE'));
+
+ALTER TABLE grupo_03.outbox_notificaciones DROP CONSTRAINT IF EXISTS outbox_notificaciones_tipo_check;
+ALTER TABLE grupo_03.outbox_notificaciones ADD CONSTRAINT outbox_notificaciones_tipo_check
+    CHECK (tipo IN ('MISION_NUEVA', 'MISION_VENCIDA', 'MISION_POR_VENCER', 'LOGRO_DESBLOQUEADO',
+                    'NIVEL_SUBIDO', 'CALIFICACION', 'MENSAJE'));
+
+-- =====================================================
+-- 2. Índice de la ventana de fechas límite
+-- =====================================================
+CREATE INDEX IF NOT EXISTS idx_misiones_activo_limite
+    ON grupo_03.misiones (activo, fecha_limite);
+
+-- =====================================================
+-- 3. Recordatorios ya encolados
+--    Todas las instancias del client-backend programan los mismos plazos; la
+--    primera que inserta la fila encola el recordatorio y el resto lo omite.
+--    La fecha límite forma parte de la clave: si cambia, se recuerda de nuevo
+-- =====================================================
+CREATE TABLE IF NOT EXISTS grupo_03.recordatorios_mision (
+    mision_id UUID NOT NULL,
+    antelacion_minutos INTEGER NOT NULL,
+    fecha_limite TIMESTAMP NOT NULL,
+    fecha_envio TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (mision_id, antelacion_minutos, fecha_limite),
+    CONSTRAINT fk_recordatorio_mision
+        FOREIGN KEY (mision_id)
+        REFERENCES grupo_03.misiones(id)
+        ON DELETE CASCADE
+);
+
+COMMENT ON TABLE grupo_03.recordatorios_mision IS 'Recordatorios de plazo encolados: uno por misión, antelación y fecha límite';
@@ -0,0 +1,12 @@
+-- =====================================================
+-- MIGRACIÓN: Índice de progreso por estudiante
+-- Descripción: El listado de misiones del estudiante parte de progreso_mision
+--              filtrando por estudiante_id; la restricción única existente
+--              (mision_id, estudiante_id) no sirve para esa búsqueda
+-- =====================================================
+
+-- Establecer el esquema
+SET search_path TO grupo_03;
+
+CREATE INDEX IF NOT EXISTS idx_progreso_mision_estudiante
+    ON grupo_03.progreso_mision (estudiante_id);
@@ -0,0 +1,19 @@
+-- =====================================================
+-- MIGRACIÓN: Índices del progreso paginado de una misión
+-- Descripción: El progreso por estudiante de una misión se pagina por clave
+--              ordenando por estado, porcentaje o última actividad (y el id del
+--              estudiante). Cada índice entrega las filas de la misión ya en ese
+--              orden, así la primera página no ordena a todos los estudiantes
+-- =====================================================
+
+-- Establecer el esquema
+SET search_path TO grupo_03;
+
+CREATE INDEX IF NOT EXISTS idx_progreso_mision_estado
+    ON grupo_03.progreso_mision (mision_id, completada, porcentaje_completado, estudiante_id);
+
+CREATE INDEX IF NOT EXISTS idx_progreso_mision_porcentaje
+    ON grupo_03.progreso_mision (mision_id, porcentaje_completado, estudiante_id);
+
+CREATE INDEX IF NOT EXISTS idx_progreso_mision_actividad
+    ON grupo_03.progreso_mision (mision_id, ultima_actividad, estudiante_id);
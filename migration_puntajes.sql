@@ -0,0 +1,52 @@
+-- =====================================================
+-- MIGRACIÓN: Acumulado de puntajes por estudiante
+-- Descripción: Crea la tabla puntajes_estudiante usada por los rankings
+--              y la rellena a partir de entregas_mision y progreso_mision
+-- =====================================================
+
+-- Establecer el esquema
+SET search_path TO grupo_03;
+
+-- =====================================================
+-- 1. Crear tabla puntajes_estudiante
+-- =====================================================
+CREATE TABLE IF NOT EXISTS grupo_03.puntajes_estudiante (
+    estudiante_id UUID PRIMARY KEY,
+    puntos_totales INTEGER NOT NULL DEFAULT 0,
+    misiones_completadas INTEGER NOT NULL DEFAULT 0,
+    fecha_actualizacion TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_puntaje_estudiante_usuario
+        FOREIGN KEY (estudiante_id)
+        REFERENCES grupo_03.usuario(id)
+        ON DELETE CASCADE
+);
+
+COMMENT ON TABLE grupo_03.puntajes_estudiante IS 'Acumulado de puntos y misiones completadas por estudiante (mantenido por el client-backend)';
+
+-- =====================================================
+-- 2. Índice para leer el ranking ya ordenado
+-- =====================================================
+CREATE INDEX IF NOT EXISTS idx_puntajes_estudiante_ranking
+    ON grupo_03.puntajes_estudiante (puntos_totales DESC, misiones_completadas DESC, estudiante_id);
+
+-- =====================================================
+-- 3. Rellenar / reconstruir desde entregas_mision
+--    (equivalente a --gamificacion.puntajes.reconstruir=true)
+-- =====================================================
+BEGIN;
+
+DELETE FROM grupo_03.puntajes_estudiante;
+
+INSERT INTO grupo_03.puntajes_estudiante (estudiante_id, puntos_totales, misiones_completadas, fecha_actualizacion)
+SELECT COALESCE(e.estudiante_id, p.estudiante_id), COALESCE(e.puntos, 0), COALESCE(p.completadas, 0), CURRENT_TIMESTAMP
+FROM (SELECT estudiante_id, SUM(puntos_obtenidos) AS puntos
+      FROM grupo_03.entregas_mision
+      WHERE puntos_obtenidos > 0
+      GROUP BY estudiante_id) e
+FULL OUTER JOIN (SELECT estudiante_id, COUNT(*) AS completadas
+                 FROM grupo_03.progreso_mision
+                 WHERE completada = true
+                 GROUP BY estudiante_id) p
+ON p.estudiante_id = e.estudiante_id;
+
+COMMIT;
@@ -0,0 +1,77 @@
+-- =====================================================
+-- MIGRACIÓN: Libro de puntos y acumulados por periodo
+-- Descripción: Crea movimientos_puntos (un movimiento por cada cambio de puntos)
+--              y puntos_periodo (acumulados diarios/mensuales por estudiante y curso)
+--              usados por los rankings semanales, mensuales y personalizados
+-- =====================================================
+
+-- Establecer el esquema
+SET search_path TO grupo_03;
+
+-- =====================================================
+-- 1. Libro de puntos (solo inserciones)
+-- =====================================================
+CREATE TABLE IF NOT EXISTS grupo_03.movimientos_puntos (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    estudiante_id UUID NOT NULL,
+    curso_id UUID NOT NULL,
+    mision_id UUID,
+    tipo VARCHAR(30) NOT NULL,
+    puntos INTEGER NOT NULL,
+    fecha TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_movimiento_puntos_estudiante
+        FOREIGN KEY (estudiante_id)
+        REFERENCES grupo_03.usuario(id)
+        ON DELETE CASCADE,
+    CONSTRAINT chk_movimiento_puntos_tipo
+        CHECK (tipo IN ('MISION_COMPLETADA', 'AJUSTE_CALIFICACION'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_movimientos_puntos_estudiante_fecha
+    ON grupo_03.movimientos_puntos (estudiante_id, fecha);
+
+COMMENT ON TABLE grupo_03.movimientos_puntos IS 'Libro de puntos: cada cambio de puntos de un estudiante en un curso (solo inserciones)';
+
+-- =====================================================
+-- 2. Acumulados por periodo (DIA y, tras consolidar, MES)
+-- =====================================================
+CREATE TABLE IF NOT EXISTS grupo_03.puntos_periodo (
+    estudiante_id UUID NOT NULL,
+    curso_id UUID NOT NULL,
+    granularidad VARCHAR(10) NOT NULL,
+    inicio DATE NOT NULL,
+    puntos INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (estudiante_id, curso_id, granularidad, inicio),
+    CONSTRAINT chk_puntos_periodo_granularidad
+        CHECK (granularidad IN ('DIA', 'MES'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_puntos_periodo_curso_inicio
+    ON grupo_03.puntos_periodo (curso_id, inicio) INCLUDE (estudiante_id, puntos);
+
+CREATE INDEX IF NOT EXISTS idx_puntos_periodo_inicio
+    ON grupo_03.puntos_periodo (inicio) INCLUDE (estudiante_id, puntos);
+
+COMMENT ON TABLE grupo_03.puntos_periodo IS 'Puntos ganados por estudiante y curso por día; los días antiguos se consolidan en meses';
+
+-- =====================================================
+-- 3. Rellenar desde entregas_mision
+--    (las entregas históricas se registran en el día de su envío)
+-- =====================================================
+BEGIN;
+
+INSERT INTO grupo_03.movimientos_puntos (estudiante_id, curso_id, mision_id, tipo, puntos, fecha)
+SELECT e.estudiante_id, m.curso_id, e.mision_id, 'MISION_COMPLETADA', e.puntos_obtenidos,
+       COALESCE(e.fecha_envio, CURRENT_TIMESTAMP)
+FROM grupo_03.entregas_mision e
+JOIN grupo_03.misiones m ON m.id = e.mision_id
+WHERE e.puntos_obtenidos > 0
+  AND NOT EXISTS (SELECT 1 FROM grupo_03.movimientos_puntos);
+
+INSERT INTO grupo_03.puntos_periodo (estudiante_id, curso_id, granularidad, inicio, puntos)
+SELECT estudiante_id, curso_id, 'DIA', CAST(fecha AS DATE), SUM(puntos)
+FROM grupo_03.movimientos_puntos
+GROUP BY estudiante_id, curso_id, CAST(fecha AS DATE)
+ON CONFLICT (estudiante_id, curso_id, granularidad, inicio) DO NOTHING;
+
+COMMIT;
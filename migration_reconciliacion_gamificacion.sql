@@ -0,0 +1,12 @@
+-- =====================================================
+-- MIGRACIÓN: Índice de misiones completadas por fecha
+-- Descripción: La reconciliación periódica de gamificación busca los
+--              estudiantes que completaron misiones desde la última pasada,
+--              para recuperar los eventos perdidos al reiniciar
+-- =====================================================
+
+-- Establecer el esquema
+SET search_path TO grupo_03;
+
+CREATE INDEX IF NOT EXISTS idx_progreso_mision_fecha_completado
+    ON grupo_03.progreso_mision (fecha_completado);
@@ -0,0 +1,43 @@
+-- =====================================================
+-- MIGRACIÓN: Requisitos entre misiones
+-- Descripción: Crea requisitos_mision (aristas misión → misión requisito del
+--              mismo curso) y la columna misiones.orden_requisitos con el orden
+--              topológico de cada curso, que el client-backend mantiene al crear
+--              y actualizar misiones. requisitos_previos sigue como texto libre
+-- =====================================================
+
+-- Establecer el esquema
+SET search_path TO grupo_03;
+
+-- =====================================================
+-- 1. Crear tabla requisitos_mision
+-- =====================================================
+CREATE TABLE IF NOT EXISTS grupo_03.requisitos_mision (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    mision_id UUID NOT NULL REFERENCES grupo_03.misiones(id),
+    requisito_id UUID NOT NULL REFERENCES grupo_03.misiones(id),
+    CONSTRAINT uk_requisitos_mision UNIQUE (mision_id, requisito_id),
+    CONSTRAINT chk_requisitos_mision_distinta CHECK (mision_id <> requisito_id)
+);
+
+-- Misiones que exigen una dada (al eliminarla)
+CREATE INDEX IF NOT EXISTS idx_requisitos_mision_requisito
+    ON grupo_03.requisitos_mision (requisito_id);
+
+-- =====================================================
+-- 2. Orden topológico por curso
+-- =====================================================
+ALTER TABLE grupo_03.misiones ADD COLUMN IF NOT EXISTS orden_requisitos INTEGER;
+
+-- Sin aristas previas cualquier orden es topológico: se usa el de creación
+UPDATE grupo_03.misiones m
+SET orden_requisitos = o.orden
+FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY curso_id ORDER BY fecha_creacion, id) - 1 AS orden
+      FROM grupo_03.misiones) o
+WHERE m.id = o.id
+  AND m.orden_requisitos IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_misiones_curso_orden_requisitos
+    ON grupo_03.misiones (curso_id, orden_requisitos);
+
+COMMENT ON TABLE grupo_03.requisitos_mision IS 'Requisitos entre misiones del mismo curso (grafo acíclico)';